@@ -0,0 +1,16 @@
+package com.dti.drone_delivery.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.dti.drone_delivery.service.SimulationClock;
+
+@Configuration
+public class SimulationConfig {
+
+    // Relógio de parede na simulação ao vivo; o simulador de eventos discretos usa o seu VirtualClock
+    @Bean
+    public SimulationClock simulationClock() {
+        return SimulationClock.system();
+    }
+}
@@ -1,10 +1,16 @@
 package com.dti.drone_delivery.controller;
 
+import com.dti.drone_delivery.dto.GeofenceBatchRequest;
 import com.dti.drone_delivery.model.Obstacle;
+import com.dti.drone_delivery.service.ObstacleImporter;
 import com.dti.drone_delivery.service.ObstacleService;
+import com.dti.drone_delivery.service.RouteCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +22,7 @@ import java.util.Map;
 public class ObstacleController {
     
     private final ObstacleService obstacleService;
+    private final RouteCache routeCache;
     
     @GetMapping
     public ResponseEntity<List<Obstacle>> getAllObstacles() {
@@ -29,10 +36,7 @@ public class ObstacleController {
     
     @PostMapping("/batch")
     public ResponseEntity<Map<String, Object>> createBatchObstacles(@RequestBody List<Obstacle> obstacles) {
-        List<Obstacle> created = new java.util.ArrayList<>();
-        for (Obstacle obstacle : obstacles) {
-            created.add(obstacleService.createObstacle(obstacle));
-        }
+        List<Obstacle> created = obstacleService.createObstacles(obstacles);
         
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Obstáculos criados com sucesso");
@@ -41,11 +45,29 @@ public class ObstacleController {
         return ResponseEntity.ok(response);
     }
     
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importObstacles(
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream body) {
+        long start = System.currentTimeMillis();
+        int imported = obstacleService.importObstacles(body, ObstacleImporter.Format.valueOf(format.toUpperCase()));
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Obstáculos importados com sucesso");
+        response.put("count", imported);
+        response.put("elapsedMs", System.currentTimeMillis() - start);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping("/check")
     public ResponseEntity<Map<String, Object>> checkObstacle(
             @RequestParam Double x,
-            @RequestParam Double y) {
-        boolean hasObstacle = obstacleService.isPointInObstacle(x, y);
+            @RequestParam Double y,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        boolean hasObstacle = at == null
+            ? obstacleService.isPointInObstacle(x, y)
+            : obstacleService.isPointInObstacle(x, y, at);
         
         Map<String, Object> response = new HashMap<>();
         response.put("x", x);
@@ -57,10 +79,30 @@ public class ObstacleController {
         return ResponseEntity.ok(response);
     }
     
+    @PostMapping("/check/batch")
+    public ResponseEntity<Map<String, Object>> checkBatch(@RequestBody GeofenceBatchRequest request) {
+        ObstacleService.BatchCheck result = obstacleService.checkBatch(request.getPoints(), request.getSegments());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("pointsChecked", request.getPoints().size());
+        response.put("segmentsChecked", request.getSegments().size());
+        response.put("blockedPoints", result.blockedPoints());
+        response.put("blockedSegments", result.blockedSegments());
+        response.put("obstacleVersion", result.version());
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, String>> deleteObstacle(@PathVariable String id) {
+        obstacleService.deleteObstacle(id);
         Map<String, String> response = new HashMap<>();
-        response.put("message", "Obstáculo removido (implementar no service)");
+        response.put("message", "Obstáculo removido com sucesso");
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/routes/cache")
+    public ResponseEntity<Map<String, Object>> getRouteCacheStats() {
+        return ResponseEntity.ok(routeCache.getStats());
+    }
+}
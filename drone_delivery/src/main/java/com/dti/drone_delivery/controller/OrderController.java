@@ -1,8 +1,10 @@
 package com.dti.drone_delivery.controller;
 
+import com.dti.drone_delivery.dto.AllocationPreviewRequest;
 import com.dti.drone_delivery.dto.OrderRequest;
 import com.dti.drone_delivery.model.Order;
 import com.dti.drone_delivery.service.OrderService;
+import com.dti.drone_delivery.service.AllocationResult;
 import com.dti.drone_delivery.service.AllocationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -108,4 +110,28 @@ public class OrderController {
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/allocate/preview")
+    public ResponseEntity<Map<String, Object>> previewAllocation(
+            @RequestBody(required = false) AllocationPreviewRequest request) {
+        if (request == null) request = new AllocationPreviewRequest();
+        AllocationResult result = allocationService.previewAllocation(request.getDrones(), request.isIncludeFleet());
+        
+        Map<String, List<String>> droneAllocations = new HashMap<>();
+        for (Map.Entry<String, List<Order>> entry : result.getAllocation().entrySet()) {
+            droneAllocations.put(entry.getKey(), entry.getValue().stream().map(Order::getId).toList());
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("strategy", result.getStrategy());
+        response.put("objective", result.getObjective());
+        response.put("upperBound", result.getUpperBound());
+        response.put("gap", result.getGap());
+        response.put("elapsedMs", result.getElapsedMs());
+        response.put("timedOut", result.isTimedOut());
+        response.put("assignedOrders", result.getAssignedOrders());
+        response.put("allocations", droneAllocations);
+        
+        return ResponseEntity.ok(response);
+    }
+}
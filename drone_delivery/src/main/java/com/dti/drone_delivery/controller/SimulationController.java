@@ -1,5 +1,6 @@
 package com.dti.drone_delivery.controller;
 
+import java.io.ByteArrayInputStream;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -8,9 +9,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.dti.drone_delivery.dto.LoadProfile;
+import com.dti.drone_delivery.dto.SimulationScenario;
+import com.dti.drone_delivery.service.AllocationReplayer;
+import com.dti.drone_delivery.service.DiscreteEventSimulator;
+import com.dti.drone_delivery.service.FleetTickExecutor;
+import com.dti.drone_delivery.service.LoadGenerator;
+import com.dti.drone_delivery.service.LoadGeneratorReport;
+import com.dti.drone_delivery.service.ReplayReport;
+import com.dti.drone_delivery.service.SimulationReport;
+import com.dti.drone_delivery.service.SimulationRandom;
 import com.dti.drone_delivery.service.SimulationService;
 
 import lombok.RequiredArgsConstructor;
@@ -22,18 +35,50 @@ import lombok.RequiredArgsConstructor;
 public class SimulationController {
     
     private final SimulationService simulationService;
+    private final DiscreteEventSimulator discreteEventSimulator;
+    private final AllocationReplayer allocationReplayer;
+    private final SimulationRandom simulationRandom;
+    private final LoadGenerator loadGenerator;
+    private final FleetTickExecutor fleetTickExecutor;
     
     @PostMapping("/start")
-    public ResponseEntity<Map<String, Object>> startSimulation() {
+    public ResponseEntity<Map<String, Object>> startSimulation(
+            @RequestBody(required = false) LoadProfile profile) {
         
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Simulação iniciada com sucesso");
         response.put("status", "RUNNING");
+        if (profile != null) {
+            response.put("message", "Gerador de carga iniciado");
+            response.put("load", loadGenerator.start(profile));
+        }
         response.put("timestamp", java.time.LocalDateTime.now());
         
         return ResponseEntity.ok(response);
     }
     
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, Object>> stopLoad() {
+        LoadGeneratorReport report = loadGenerator.stop();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", report != null ? "Gerador de carga parado" : "Nenhum gerador de carga em execução");
+        response.put("load", report);
+        response.put("timestamp", LocalDateTime.now());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/load")
+    public ResponseEntity<Map<String, Object>> getLoadStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("running", loadGenerator.isRunning());
+        response.put("load", loadGenerator.status());
+        response.put("timestamp", LocalDateTime.now());
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping("/generate-order")
     public ResponseEntity<Map<String, Object>> generateRandomOrder() {
         
@@ -49,6 +94,18 @@ public class SimulationController {
         Map<String, Object> status = new HashMap<>();
         status.put("status", "ACTIVE");
         status.put("lastUpdated", java.time.LocalDateTime.now());
+        status.put("seed", simulationRandom.getSeed());
+        status.put("loadGenerator", loadGenerator.isRunning());
+        
+        FleetTickExecutor.TickStats lastTick = fleetTickExecutor.getLastTick();
+        Map<String, Object> tick = new HashMap<>();
+        tick.put("partitions", fleetTickExecutor.partitionCount());
+        tick.put("lastTickMs", lastTick != null ? lastTick.elapsedMs() : 0);
+        tick.put("slowestPartitionMs", lastTick != null ? lastTick.slowestPartitionNanos() / 1e6 : 0);
+        tick.put("drones", lastTick != null ? lastTick.drones() : 0);
+        tick.put("averageTickMs", fleetTickExecutor.averageTickMs());
+        tick.put("maxTickMs", fleetTickExecutor.maxTickMs());
+        status.put("tick", tick);
         status.put("features", new String[] {
             "Geração automática de pedidos",
             "Atualização de estado de drones",
@@ -59,6 +116,35 @@ public class SimulationController {
         return ResponseEntity.ok(status);
     }
     
+    @PostMapping("/scenario")
+    public ResponseEntity<Map<String, Object>> runScenario(
+            @RequestBody(required = false) SimulationScenario scenario) {
+        SimulationReport report = discreteEventSimulator.run(scenario != null ? scenario : new SimulationScenario());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Cenário simulado com sucesso");
+        response.put("report", report);
+        response.put("timestamp", LocalDateTime.now());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay(
+            @RequestParam(defaultValue = "global") String strategy,
+            @RequestBody(required = false) byte[] eventLog) {
+        ReplayReport report = eventLog == null || eventLog.length == 0
+            ? allocationReplayer.replayRecorded(strategy)
+            : allocationReplayer.replay(new ByteArrayInputStream(eventLog), strategy);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Replay concluído");
+        response.put("report", report);
+        response.put("timestamp", LocalDateTime.now());
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping("/reset")
 public ResponseEntity<Map<String, Object>> resetSimulation() {
     simulationService.resetSimulation();
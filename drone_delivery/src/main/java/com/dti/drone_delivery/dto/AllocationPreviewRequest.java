@@ -0,0 +1,15 @@
+package com.dti.drone_delivery.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dti.drone_delivery.model.Drone;
+
+import lombok.Data;
+
+@Data
+public class AllocationPreviewRequest {
+    // Drones hipotéticos somados (ou não) à frota disponível
+    private List<Drone> drones = new ArrayList<>();
+    private boolean includeFleet = true;
+}
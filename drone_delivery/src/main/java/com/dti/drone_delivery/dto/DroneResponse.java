@@ -16,6 +16,7 @@ public class DroneResponse {
     private Drone.DroneStatus status;
     private Double currentX;
     private Double currentY;
+    private Double cruiseSpeed;
     private LocalDateTime lastUpdate;
     
     public static DroneResponse fromEntity(Drone drone) {
@@ -28,6 +29,7 @@ public class DroneResponse {
         response.setStatus(drone.getStatus());
         response.setCurrentX(drone.getCurrentX());
         response.setCurrentY(drone.getCurrentY());
+        response.setCruiseSpeed(drone.getCruiseSpeed());
         response.setLastUpdate(drone.getLastUpdate());
         return response;
     }
@@ -0,0 +1,13 @@
+package com.dti.drone_delivery.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class GeofenceBatchRequest {
+    // Pontos como [x, y] e trechos como [x1, y1, x2, y2]
+    private List<double[]> points = new ArrayList<>();
+    private List<double[]> segments = new ArrayList<>();
+}
@@ -0,0 +1,57 @@
+package com.dti.drone_delivery.dto;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dti.drone_delivery.model.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class LoadProfile {
+    private double ordersPerSecond = 5.0;
+    private ArrivalProcess arrivalProcess = ArrivalProcess.POISSON;
+    private double durationSeconds = 0;          // 0 = até POST /api/simulation/stop
+    private Long seed;
+
+    // Rajadas: alterna entre calmaria e rajada com durações exponenciais
+    private double burstFactor = 5.0;            // taxa na rajada = ordersPerSecond × burstFactor
+    private double meanBurstSeconds = 5.0;
+    private double meanCalmSeconds = 30.0;
+
+    // Mix de pedidos
+    private double minWeight = 1.0;
+    private double maxWeight = 5.0;
+    private Map<Order.Priority, Double> priorityMix = defaultPriorityMix();
+
+    // Espaço: fundo uniforme no quadrado [-areaRadius, areaRadius]² mais focos gaussianos
+    private double areaRadius = 10.0;
+    private List<Hotspot> hotspots = new ArrayList<>();
+
+    public enum ArrivalProcess {
+        POISSON, BURSTY
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hotspot {
+        private double x;
+        private double y;
+        private double sigma = 1.0;
+        private double share = 0.5;              // fração da demanda total neste foco
+    }
+
+    private static Map<Order.Priority, Double> defaultPriorityMix() {
+        Map<Order.Priority, Double> mix = new EnumMap<>(Order.Priority.class);
+        mix.put(Order.Priority.LOW, 0.3);
+        mix.put(Order.Priority.MEDIUM, 0.4);
+        mix.put(Order.Priority.HIGH, 0.2);
+        mix.put(Order.Priority.URGENT, 0.1);
+        return mix;
+    }
+}
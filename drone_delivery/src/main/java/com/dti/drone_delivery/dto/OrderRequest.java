@@ -1,5 +1,7 @@
 package com.dti.drone_delivery.dto;
 
+import java.time.LocalDateTime;
+
 import com.dti.drone_delivery.model.Order;
 
 import lombok.Data;
@@ -11,6 +13,7 @@ public class OrderRequest {
     private Double locationY;
     private Double weight;
     private Order.Priority priority;
+    private LocalDateTime scheduledFor;
     
     public Order toEntity() {
         return Order.builder()
@@ -19,6 +22,7 @@ public class OrderRequest {
             .locationY(locationY)
             .weight(weight)
             .priority(priority)
+            .scheduledFor(scheduledFor)
             .build();
     }
 }
\ No newline at end of file
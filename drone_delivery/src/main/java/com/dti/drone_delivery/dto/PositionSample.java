@@ -0,0 +1,10 @@
+package com.dti.drone_delivery.dto;
+
+/**
+ * Amostra compacta de posição para o mapa. Com rumo (graus, 0 = eixo +x,
+ * sentido anti-horário) e velocidade (unidades/s) o cliente interpola entre
+ * duas amostras ou extrapola até a próxima; {@code t} em epoch millis.
+ */
+public record PositionSample(String id, double x, double y, double heading, double speed,
+                             double battery, String status, long t) {
+}
@@ -0,0 +1,30 @@
+package com.dti.drone_delivery.dto;
+
+import lombok.Data;
+
+@Data
+public class SimulationScenario {
+    private double durationHours = 24;
+    private Long seed;
+
+    // Frota (mesmos valores dos drones iniciais do simulador ao vivo)
+    private int drones = 3;
+    private double maxWeight = 10.0;
+    private double maxDistance = 50.0;
+    private double batteryCapacity = 100.0;
+    private double cruiseSpeed = 0.5;             // unidades por segundo
+
+    // Demanda: 70% de chance a cada 10 s no simulador ao vivo
+    private double ordersPerHour = 252;
+    private double areaRadius = 10.0;
+    private double minOrderWeight = 1.0;
+    private double maxOrderWeight = 5.0;
+
+    // Operação
+    private double loadingSeconds = 3;
+    private double serviceSeconds = 3;
+    private double chargeThreshold = 30.0;       // chega à base abaixo disso → carrega
+    private double chargeTarget = 80.0;
+    private double chargePercentPerSecond = 5.0;
+    private double allocationDelaySeconds = 0.05;
+}
@@ -0,0 +1,14 @@
+package com.dti.drone_delivery.event;
+
+import java.util.List;
+
+import com.dti.drone_delivery.dto.PositionSample;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DronePositionsEvent {
+    private final List<PositionSample> samples;
+}
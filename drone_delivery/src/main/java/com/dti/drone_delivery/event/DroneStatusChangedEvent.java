@@ -0,0 +1,13 @@
+package com.dti.drone_delivery.event;
+
+import com.dti.drone_delivery.model.Drone;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DroneStatusChangedEvent {
+    private final Drone drone;
+    private final Drone.DroneStatus previousStatus;
+}
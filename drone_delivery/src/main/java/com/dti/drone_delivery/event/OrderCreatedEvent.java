@@ -0,0 +1,12 @@
+package com.dti.drone_delivery.event;
+
+import com.dti.drone_delivery.model.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OrderCreatedEvent {
+    private final Order order;
+}
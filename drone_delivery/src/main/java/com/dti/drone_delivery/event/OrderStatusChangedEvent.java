@@ -0,0 +1,13 @@
+package com.dti.drone_delivery.event;
+
+import com.dti.drone_delivery.model.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+    private final Order order;
+    private final Order.OrderStatus previousStatus;
+}
@@ -53,6 +53,10 @@ public class Drone {
     @Builder.Default
     private Double baseY = 0.0;
     
+    // Unidades por segundo
+    @Builder.Default
+    private Double cruiseSpeed = 0.5;
+    
     private LocalDateTime lastUpdate;
     
     public enum DroneStatus {
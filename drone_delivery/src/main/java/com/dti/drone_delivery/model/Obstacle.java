@@ -1,5 +1,7 @@
 package com.dti.drone_delivery.model;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -34,6 +36,11 @@ public class Obstacle {
     private Double radius;
     
     private String type;
+    
+    // Janela de vigência; nulo nas pontas significa sem limite
+    private LocalDateTime activeFrom;
+    
+    private LocalDateTime activeUntil;
 
     public boolean isPointInside(Double x, Double y) {
         double distance = Math.sqrt(
@@ -41,4 +48,9 @@ public class Obstacle {
         );
         return distance <= radius;
     }
+
+    public boolean isActiveAt(LocalDateTime time) {
+        return (activeFrom == null || !time.isBefore(activeFrom))
+            && (activeUntil == null || time.isBefore(activeUntil));
+    }
 }
\ No newline at end of file
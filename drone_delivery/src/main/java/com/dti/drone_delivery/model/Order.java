@@ -39,6 +39,8 @@ public class Order {
     
     private String assignedDroneId;
     
+    private Integer deliverySequence;
+    
     public enum Priority {
         LOW, MEDIUM, HIGH, URGENT
     }
@@ -2,8 +2,10 @@ package com.dti.drone_delivery.repository;
 
 import com.dti.drone_delivery.model.Drone;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -17,4 +19,8 @@ public interface DroneRepository extends JpaRepository<Drone, String> {
     List<Drone> findByCurrentBatteryGreaterThan(Double batteryLevel);
     
     List<Drone> findByStatusIn(List<Drone.DroneStatus> statuses);
+    
+    @Modifying
+    @Query("UPDATE Drone d SET d.status = :status, d.lastUpdate = :updatedAt WHERE d.id = :id AND d.status = :expected")
+    int compareAndSetStatus(String id, Drone.DroneStatus expected, Drone.DroneStatus status, LocalDateTime updatedAt);
 }
\ No newline at end of file
@@ -1,10 +1,17 @@
 package com.dti.drone_delivery.repository;
 
 import com.dti.drone_delivery.model.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -27,4 +34,37 @@ public interface OrderRepository extends JpaRepository<Order, String> {
     List<Order> findByAssignedDroneId(String droneId);
     
     long countByStatus(Order.OrderStatus status);
+    
+    /**
+     * Trava os pedidos ainda pendentes (SELECT ... FOR UPDATE SKIP LOCKED no PostgreSQL).
+     * Linhas já travadas por outro alocador são puladas em vez de bloquear.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.status = 'PENDING'")
+    List<Order> lockPendingByIdIn(Collection<String> ids);
+    
+    /**
+     * Reivindica de uma vez os pedidos ainda pendentes para o drone. O chamador
+     * compara o total com o esperado; a sequência é gravada à parte, em lote.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = 'ASSIGNED', o.assignedDroneId = :droneId " +
+           "WHERE o.id IN :ids AND o.status = 'PENDING'")
+    int claimPendingByIdIn(Collection<String> ids, String droneId);
+    
+    /**
+     * Devolve à fila um pedido atribuído ao drone que não chegou a entregá-lo
+     * (não decolou ou abortou o voo).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = 'PENDING', o.assignedDroneId = NULL, o.deliverySequence = NULL " +
+           "WHERE o.id = :id AND o.assignedDroneId = :droneId AND o.status = 'ASSIGNED'")
+    int releaseAssigned(String id, String droneId);
+    
+    @Modifying
+    @Query("UPDATE Order o SET o.status = 'PENDING', o.assignedDroneId = NULL, o.deliverySequence = NULL " +
+           "WHERE o.id IN :ids AND o.assignedDroneId = :droneId AND o.status = 'ASSIGNED'")
+    int releaseAssignedByIdIn(Collection<String> ids, String droneId);
 }
\ No newline at end of file
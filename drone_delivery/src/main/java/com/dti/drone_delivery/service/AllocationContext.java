@@ -0,0 +1,127 @@
+package com.dti.drone_delivery.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.ToDoubleBiFunction;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Parâmetros de uma rodada de alocação: prazo, viabilidade e valor de cada
+ * par drone × pedido, e o motor de mochila usado para montar as cargas.
+ */
+@Getter
+@Builder
+public class AllocationContext {
+
+    private final long deadlineNanos;
+    private final BiPredicate<Drone, Order> feasibility;
+    private final ToDoubleBiFunction<Drone, Order> valueFunction;
+    private final ToDoubleBiFunction<Drone, Order> boundValue;
+    private final BiPredicate<Drone, List<Order>> loadFeasibility;
+    private final KnapsackSolver knapsackSolver;
+
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    public boolean isFeasible(Drone drone, Order order) {
+        return feasibility.test(drone, order);
+    }
+
+    public double value(Drone drone, Order order) {
+        return valueFunction.applyAsDouble(drone, order);
+    }
+
+    public double totalValue(Drone drone, List<Order> orders) {
+        double total = 0;
+        for (Order order : orders) total += value(drone, order);
+        return total;
+    }
+
+    /**
+     * Valor otimista do par (zero se inviável mesmo relaxado), barato de
+     * calcular. Sem função de limite, cai na viabilidade e no valor exatos.
+     */
+    public double boundValue(Drone drone, Order order) {
+        if (boundValue != null) return boundValue.applyAsDouble(drone, order);
+        return isFeasible(drone, order) ? value(drone, order) : 0;
+    }
+
+    /**
+     * Limite superior pela relaxação fracionária: cada pedido vale o máximo
+     * entre os drones viáveis e a capacidade somada da frota é preenchida
+     * por densidade, aceitando fração do último pedido. Usa
+     * {@link #boundValue}, então roda depois do prazo sem rotear nada.
+     */
+    public double upperBound(List<Drone> drones, List<Order> orders) {
+        double capacity = 0;
+        for (Drone drone : drones) capacity += drone.getMaxWeight();
+
+        List<double[]> items = new ArrayList<>();
+        for (Order order : orders) {
+            double best = 0;
+            for (Drone drone : drones) {
+                best = Math.max(best, boundValue(drone, order));
+            }
+            if (best > 0) items.add(new double[]{order.getWeight(), best});
+        }
+        items.sort((a, b) -> Double.compare(b[1] / Math.max(b[0], 1e-6), a[1] / Math.max(a[0], 1e-6)));
+
+        double bound = 0;
+        for (double[] item : items) {
+            if (capacity <= 0) break;
+            double fraction = item[0] <= capacity ? 1.0 : capacity / item[0];
+            bound += item[1] * fraction;
+            capacity -= item[0] * fraction;
+        }
+        return bound;
+    }
+
+    public boolean isLoadFeasible(Drone drone, List<Order> orders) {
+        return loadFeasibility == null || orders.isEmpty() || loadFeasibility.test(drone, orders);
+    }
+
+    /**
+     * Mochila sobre os candidatos; se o circuito resultante não couber no
+     * alcance/bateria do drone, descarta os pedidos de menor valor até caber.
+     */
+    public List<Order> pack(Drone drone, List<Order> candidates, double capacity) {
+        int n = candidates.size();
+        double[] weights = new double[n];
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = candidates.get(i).getWeight();
+            values[i] = value(drone, candidates.get(i));
+        }
+
+        List<Order> selected = new ArrayList<>();
+        for (int index : knapsackSolver.solve(weights, values, capacity)) {
+            selected.add(candidates.get(index));
+        }
+
+        trimToRange(drone, selected);
+        return selected;
+    }
+
+    /**
+     * Remove da carga os pedidos de menor valor até o circuito caber; devolve os removidos.
+     */
+    public List<Order> trimToRange(Drone drone, List<Order> load) {
+        List<Order> dropped = new ArrayList<>();
+        while (!isLoadFeasible(drone, load)) {
+            Order cheapest = load.get(0);
+            for (Order order : load) {
+                if (value(drone, order) < value(drone, cheapest)) cheapest = order;
+            }
+            load.remove(cheapest);
+            dropped.add(cheapest);
+        }
+        return dropped;
+    }
+}
@@ -0,0 +1,174 @@
+package com.dti.drone_delivery.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
+import com.dti.drone_delivery.event.OrderCreatedEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.repository.DroneRepository;
+import com.dti.drone_delivery.repository.OrderRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dispara a alocação por eventos (pedido criado, drone ficou ocioso) em vez
+ * de varrer as tabelas a cada tick. Mantém em memória os drones ociosos; os
+ * pedidos pendentes ficam no {@link PendingOrderBook}. Rajadas de eventos são
+ * agrupadas numa única rodada. Uma reconciliação periódica (e a primeira, na
+ * subida da aplicação) relê o banco e reconstrói o livro de pedidos.
+ * Pedidos agendados disparam uma rodada no instante exato de liberação.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AllocationDispatcher {
+
+    private final AllocationService allocationService;
+    private final DroneRepository droneRepository;
+    private final OrderRepository orderRepository;
+    private final PendingOrderBook pendingOrderBook;
+
+    private final Map<String, Drone> idleDrones = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> releaseTask;
+    private LocalDateTime releaseAt;
+
+    @Value("${drone.allocation.dispatch.coalesce-ms:50}")
+    private long coalesceMs = 50;
+
+    @Value("${drone.allocation.dispatch.reconcile-seconds:60}")
+    private long reconcileSeconds = 60;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "allocation-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (Exception e) {
+                log.error("Erro na reconciliação da alocação: {}", e.getMessage());
+            }
+        }, 0, reconcileSeconds, TimeUnit.SECONDS);
+        log.info("✅ Despachante de alocação iniciado (agrupamento de {} ms)", coalesceMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        if (order.getStatus() != Order.OrderStatus.PENDING) return;
+
+        if (pendingOrderBook.isScheduled(order.getId())) {
+            scheduleRelease();
+        } else if (order.getPriority() == Order.Priority.URGENT) {
+            requestAllocation(0);
+        } else {
+            requestAllocation(coalesceMs);
+        }
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getOrder().getStatus() == Order.OrderStatus.PENDING) {
+            requestAllocation(coalesceMs);
+        }
+    }
+
+    @EventListener
+    public void onDroneStatusChanged(DroneStatusChangedEvent event) {
+        Drone drone = event.getDrone();
+        if (drone.getStatus() == Drone.DroneStatus.IDLE) {
+            idleDrones.put(drone.getId(), drone);
+            requestAllocation(coalesceMs);
+        } else {
+            idleDrones.remove(drone.getId());
+        }
+    }
+
+    public void requestAllocation(long delayMs) {
+        if (executor == null) return;
+        if (delayMs <= 0) {
+            executor.execute(this::runAllocation);
+        } else if (scheduled.compareAndSet(false, true)) {
+            executor.schedule(this::runAllocation, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Agenda uma rodada para a próxima liberação de pedidos agendados,
+     * antecipando a já agendada se a nova for mais cedo.
+     */
+    synchronized void scheduleRelease() {
+        LocalDateTime next = pendingOrderBook.nextReleaseAt();
+        if (executor == null || next == null) return;
+        if (releaseTask != null && !releaseTask.isDone() && !next.isBefore(releaseAt)) return;
+
+        if (releaseTask != null) releaseTask.cancel(false);
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), next).toMillis());
+        releaseAt = next;
+        releaseTask = executor.schedule(this::runAllocation, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void reconcile() {
+        idleDrones.clear();
+        droneRepository.findAvailableDrones(AllocationService.MIN_BATTERY)
+            .forEach(drone -> idleDrones.put(drone.getId(), drone));
+
+        pendingOrderBook.rebuild(orderRepository.findByStatus(Order.OrderStatus.PENDING));
+
+        runAllocation();
+    }
+
+    void runAllocation() {
+        scheduled.set(false);
+        try {
+            pendingOrderBook.releaseDue(LocalDateTime.now());
+
+            List<Drone> drones = new ArrayList<>();
+            for (Drone drone : idleDrones.values()) {
+                if (drone.getCurrentBattery() != null && drone.getCurrentBattery() > AllocationService.MIN_BATTERY) {
+                    drones.add(drone);
+                }
+            }
+            if (pendingOrderBook.isEmpty()) return;
+
+            if (!drones.isEmpty()) allocationService.allocatePending(drones);
+
+            // Urgentes que sobraram tentam entrar num drone ainda em LOADING
+            List<Order> urgent = pendingOrderBook.withPriority(Order.Priority.URGENT);
+            if (!urgent.isEmpty()) allocationService.preemptForUrgent(urgent);
+        } catch (Exception e) {
+            log.error("Erro na alocação: {}", e.getMessage());
+        } finally {
+            scheduleRelease();
+        }
+    }
+}
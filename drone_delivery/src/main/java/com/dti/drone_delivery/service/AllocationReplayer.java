@@ -0,0 +1,215 @@
+package com.dti.drone_delivery.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.service.SimulationEventLog.DroneTransition;
+import com.dti.drone_delivery.service.SimulationEventLog.Entry;
+import com.dti.drone_delivery.service.SimulationEventLog.OrderArrival;
+import com.dti.drone_delivery.service.SimulationEventLog.OrderTransition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reexecuta um {@link SimulationEventLog} contra o AllocationService, na
+ * velocidade máxima, para comparar estratégias sobre as mesmas entradas.
+ *
+ * O replay é de malha aberta: chegadas, cancelamentos e disponibilidade dos
+ * drones (transições para IDLE) vêm do log; as decisões de alocação são as
+ * da estratégia reexecutada. Um drone carregado no replay só volta a ficar
+ * disponível na próxima transição para IDLE registrada.
+ *
+ * As rodadas rodam sem prazo ({@link AllocationService#NO_TIME_BUDGET}): com
+ * o prazo de relógio do sistema ao vivo, o mesmo log daria planos diferentes
+ * conforme a carga da máquina.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AllocationReplayer {
+
+    /** Janela de agrupamento de gatilhos, como no AllocationDispatcher. */
+    static final Duration COALESCE_WINDOW = Duration.ofMillis(50);
+
+    private final AllocationService allocationService;
+    private final SimulationEventLog eventLog;
+
+    /**
+     * Replay do log gravado por esta instância.
+     */
+    public ReplayReport replayRecorded(String strategy) {
+        try (InputStream in = Files.newInputStream(eventLog.getPath())) {
+            return replay(SimulationEventLog.read(in), strategy);
+        } catch (IOException e) {
+            throw new RuntimeException("Não foi possível ler o log de eventos: " + e.getMessage());
+        }
+    }
+
+    public ReplayReport replay(InputStream input, String strategy) {
+        try {
+            return replay(SimulationEventLog.read(input), strategy);
+        } catch (IOException e) {
+            throw new RuntimeException("Log de eventos inválido: " + e.getMessage());
+        }
+    }
+
+    public ReplayReport replay(List<Entry> entries, String strategy) {
+        long wallStart = System.currentTimeMillis();
+        String requested = allocationService.strategy(strategy).getName();
+        Set<String> used = new LinkedHashSet<>();
+        Map<String, Order> pending = new LinkedHashMap<>();
+        Map<String, LocalDateTime> arrivals = new HashMap<>();
+        Map<String, Drone> drones = new LinkedHashMap<>();
+        Set<String> available = new HashSet<>();
+        List<Double> planTimes = new ArrayList<>();
+
+        LocalDateTime roundDue = null;
+        int rounds = 0;
+        int assigned = 0;
+        double objective = 0;
+        double totalWait = 0;
+
+        for (Entry entry : entries) {
+            if (roundDue != null && !entry.at().isBefore(roundDue)) {
+                RoundOutcome outcome = runRound(roundDue, drones, available, pending, arrivals, strategy, planTimes);
+                if (outcome != null) {
+                    used.add(outcome.strategy());
+                    rounds++;
+                    assigned += outcome.assigned();
+                    objective += outcome.objective();
+                    totalWait += outcome.waitSeconds();
+                }
+                roundDue = null;
+            }
+
+            boolean trigger = false;
+            if (entry instanceof OrderArrival arrival) {
+                pending.put(arrival.orderId(), toOrder(arrival));
+                arrivals.put(arrival.orderId(), arrival.at());
+                trigger = true;
+            } else if (entry instanceof OrderTransition transition) {
+                if (transition.status() == Order.OrderStatus.CANCELLED) {
+                    pending.remove(transition.orderId());
+                }
+            } else if (entry instanceof DroneTransition transition) {
+                drones.put(transition.droneId(), toDrone(transition));
+                if (transition.status() == Drone.DroneStatus.IDLE) {
+                    trigger = available.add(transition.droneId());
+                } else if (transition.status() == Drone.DroneStatus.MAINTENANCE
+                        || transition.status() == Drone.DroneStatus.CHARGING) {
+                    available.remove(transition.droneId());
+                }
+            }
+            if (trigger && roundDue == null) roundDue = entry.at().plus(COALESCE_WINDOW);
+        }
+        if (roundDue != null) {
+            RoundOutcome outcome = runRound(roundDue, drones, available, pending, arrivals, strategy, planTimes);
+            if (outcome != null) {
+                used.add(outcome.strategy());
+                rounds++;
+                assigned += outcome.assigned();
+                objective += outcome.objective();
+                totalWait += outcome.waitSeconds();
+            }
+        }
+
+        List<Double> sorted = new ArrayList<>(planTimes);
+        sorted.sort(Double::compare);
+        // Estratégia que de fato planejou (o guloso entra se a escolhida falhar numa rodada)
+        ReplayReport report = ReplayReport.builder()
+            .strategy(used.isEmpty() ? requested : String.join("+", used))
+            .entries(entries.size())
+            .rounds(rounds)
+            .totalOrders(arrivals.size())
+            .assignedOrders(assigned)
+            .unassignedOrders(pending.size())
+            .totalObjective(objective)
+            .averageWaitSeconds(assigned > 0 ? totalWait / assigned : 0)
+            .planTimeTotalMs(sorted.stream().mapToDouble(Double::doubleValue).sum())
+            .planTimeMaxMs(sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1))
+            .planTimeP95Ms(sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1))
+            .wallClockMs(System.currentTimeMillis() - wallStart)
+            .build();
+        log.info("⏪ Replay com {}: {} eventos, {} rodadas, {}/{} pedidos alocados em {} ms",
+            report.getStrategy(), report.getEntries(), rounds, assigned, report.getTotalOrders(), report.getWallClockMs());
+        return report;
+    }
+
+    private record RoundOutcome(String strategy, int assigned, double objective, double waitSeconds) {
+    }
+
+    /** Rodada de alocação; {@code null} se não havia drone livre ou pedido. */
+    private RoundOutcome runRound(LocalDateTime now, Map<String, Drone> drones, Set<String> available,
+                                  Map<String, Order> pending, Map<String, LocalDateTime> arrivals,
+                                  String strategy, List<Double> planTimes) {
+        if (available.isEmpty() || pending.isEmpty()) return null;
+
+        List<Drone> idle = new ArrayList<>();
+        for (String id : available) idle.add(drones.get(id));
+        List<Order> orders = new ArrayList<>(pending.values());
+
+        long start = System.nanoTime();
+        AllocationResult result = allocationService.planAllocation(idle, orders, now, strategy,
+            AllocationService.NO_TIME_BUDGET);
+        planTimes.add((System.nanoTime() - start) / 1_000_000.0);
+
+        int assigned = 0;
+        double wait = 0;
+        for (Map.Entry<String, List<Order>> load : result.getAllocation().entrySet()) {
+            if (load.getValue().isEmpty()) continue;
+            available.remove(load.getKey());
+            for (Order order : load.getValue()) {
+                pending.remove(order.getId());
+                wait += Duration.between(arrivals.get(order.getId()), now).toMillis() / 1000.0;
+                assigned++;
+            }
+        }
+        return new RoundOutcome(result.getStrategy(), assigned, result.getObjective(), wait);
+    }
+
+    private Order toOrder(OrderArrival arrival) {
+        return Order.builder()
+            .id(arrival.orderId())
+            .customerName(arrival.customerName())
+            .locationX(arrival.x())
+            .locationY(arrival.y())
+            .weight(arrival.weight())
+            .priority(arrival.priority() != null ? arrival.priority() : Order.Priority.MEDIUM)
+            .status(Order.OrderStatus.PENDING)
+            .createdAt(arrival.at())
+            .scheduledFor(arrival.scheduledFor())
+            .build();
+    }
+
+    private Drone toDrone(DroneTransition transition) {
+        return Drone.builder()
+            .id(transition.droneId())
+            .name(transition.name())
+            .status(Drone.DroneStatus.IDLE)
+            .currentBattery(transition.battery())
+            .currentX(transition.x())
+            .currentY(transition.y())
+            .baseX(transition.baseX())
+            .baseY(transition.baseY())
+            .maxWeight(transition.maxWeight())
+            .maxDistance(transition.maxDistance())
+            .batteryCapacity(transition.batteryCapacity())
+            .build();
+    }
+}
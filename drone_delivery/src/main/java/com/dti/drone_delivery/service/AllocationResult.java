@@ -0,0 +1,34 @@
+package com.dti.drone_delivery.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.dti.drone_delivery.model.Order;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Resultado de uma rodada de alocação: as cargas propostas (na sequência de
+ * entrega), o valor obtido, o limite superior da relaxação fracionária e o
+ * gap relativo entre os dois.
+ */
+@Getter
+@Builder
+public class AllocationResult {
+
+    private final Map<String, List<Order>> allocation;
+    private final String strategy;
+    private final double objective;
+    private final double upperBound;
+    private final long elapsedMs;
+    private final boolean timedOut;
+
+    public double getGap() {
+        return upperBound > 0 ? Math.max(0.0, (upperBound - objective) / upperBound) : 0.0;
+    }
+
+    public int getAssignedOrders() {
+        return allocation.values().stream().mapToInt(List::size).sum();
+    }
+}
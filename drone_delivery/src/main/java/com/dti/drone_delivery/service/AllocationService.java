@@ -1,17 +1,33 @@
 package com.dti.drone_delivery.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleBiFunction;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
 import com.dti.drone_delivery.model.Drone;
 import com.dti.drone_delivery.model.Order;
 import com.dti.drone_delivery.repository.DroneRepository;
 import com.dti.drone_delivery.repository.OrderRepository;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -19,48 +35,62 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class AllocationService {
+
+    public static final double MIN_BATTERY = 20.0;
+
+    /** Sem prazo: o plano depende só das entradas, não da máquina (ex.: replay). */
+    public static final long NO_TIME_BUDGET = -1;
     
     private final DroneRepository droneRepository;
     private final OrderRepository orderRepository;
-    private final ObstacleService obstacleService;
-    
-    public List<Order> optimizePackagesForDrone(Drone drone, List<Order> orders) {
-        int capacity = drone.getMaxWeight().intValue();
-        int n = orders.size();
+    private final ObstacleRoutePlanner obstacleRoutePlanner;
+    private final KnapsackSolver knapsackSolver;
+    private final List<AssignmentStrategy> strategies;
+    private final GreedyAssignmentStrategy greedyAssignmentStrategy;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PendingOrderBook pendingOrderBook;
+    private final AllocationWriter allocationWriter;
+    private final DeliveryRoutePlanner routePlanner;
+    private final DroneKinematics kinematics;
+    private final FleetStateEngine fleetStateEngine;
+    private final SimulationClock clock;
 
-        double[][] dp = new double[n + 1][capacity + 1];
-        boolean[][] keep = new boolean[n + 1][capacity + 1];
+    @Value("${drone.allocation.strategy:global}")
+    private String strategyName = GlobalAssignmentStrategy.NAME;
 
-        for (int i = 1; i <= n; i++) {
-            Order order = orders.get(i - 1);
-            int weight = order.getWeight().intValue();
-            double value = calculateOrderValue(order);
-            
-            for (int w = 1; w <= capacity; w++) {
-                if (weight <= w && dp[i - 1][w - weight] + value > dp[i - 1][w]) {
-                    dp[i][w] = dp[i - 1][w - weight] + value;
-                    keep[i][w] = true;
-                } else {
-                    dp[i][w] = dp[i - 1][w];
-                    keep[i][w] = false;
-                }
-            }
-        }
+    @Value("${drone.allocation.time-budget-ms:200}")
+    private long timeBudgetMs = 200;
 
-        List<Order> selectedOrders = new ArrayList<>();
-        int w = capacity;
-        for (int i = n; i > 0; i--) {
-            if (keep[i][w]) {
-                selectedOrders.add(orders.get(i - 1));
-                w -= orders.get(i - 1).getWeight().intValue();
-            }
+    @Value("${drone.allocation.distance-weight:1.0}")
+    private double distanceWeight = 1.0;
+
+    @Value("${drone.allocation.time-window.minutes:30}")
+    private long windowMinutes = 30;
+
+    @Value("${drone.allocation.time-window.urgency-weight:3.0}")
+    private double windowUrgencyWeight = 3.0;
+
+    @Value("${drone.allocation.preemption.max-drones:3}")
+    private int preemptionMaxDrones = 3;
+
+    @Value("${drone.allocation.zones.parallelism:0}")
+    private int zoneParallelism = 0;
+
+    private volatile ForkJoinPool zonePool;
+    
+    public List<Order> optimizePackagesForDrone(Drone drone, List<Order> orders) {
+        AllocationContext context = buildContext(clock.now(), timeBudgetMs, this::calculateLegDistance);
+        List<Order> feasibleOrders = new ArrayList<>();
+        for (Order order : orders) {
+            if (context.isFeasible(drone, order)) feasibleOrders.add(order);
         }
+        List<Order> selectedOrders = context.pack(drone, feasibleOrders, drone.getMaxWeight());
         
         log.info("Knapsack: {} pedidos otimizados para drone {}", selectedOrders.size(), drone.getName());
         return selectedOrders;
     }
 
-    private double calculateOrderValue(Order order) {
+    private double calculateOrderValue(Order order, java.time.LocalDateTime now) {
         double priorityValue = switch (order.getPriority()) {
             case URGENT -> 4.0;
             case HIGH -> 3.0;
@@ -69,20 +99,54 @@ public class AllocationService {
             default -> 1.0;
         };
 
-        long minutesWaiting = java.time.Duration.between(
-            order.getCreatedAt(), 
-            java.time.LocalDateTime.now()
-        ).toMinutes();
+        // Pedidos agendados só contam espera a partir do início da janela
+        java.time.LocalDateTime waitingSince = order.getScheduledFor() != null
+            && (order.getCreatedAt() == null || order.getScheduledFor().isAfter(order.getCreatedAt()))
+            ? order.getScheduledFor()
+            : order.getCreatedAt();
+        long minutesWaiting = Math.max(0, java.time.Duration.between(
+            waitingSince, 
+            now
+        ).toMinutes());
         
         double timeValue = Math.min(5.0, minutesWaiting * 0.01);
         
-        return priorityValue + timeValue;
+        return priorityValue + timeValue + calculateWindowUrgency(order, now);
+    }
+
+    /**
+     * Urgência da janela de entrega: 0 no início da janela, crescendo até o
+     * peso configurado no fim dela (e mantendo o máximo depois).
+     */
+    private double calculateWindowUrgency(Order order, java.time.LocalDateTime now) {
+        if (order.getScheduledFor() == null || windowMinutes <= 0) return 0.0;
+        java.time.LocalDateTime deadline = order.getScheduledFor().plusMinutes(windowMinutes);
+        double minutesLeft = java.time.Duration.between(now, deadline).toSeconds() / 60.0;
+        double elapsedFraction = 1.0 - minutesLeft / windowMinutes;
+        return windowUrgencyWeight * Math.max(0.0, Math.min(1.0, elapsedFraction));
     }
 
     public Map<String, List<Order>> allocateOrdersToDrones() {
-        List<Drone> availableDrones = droneRepository.findAvailableDrones(20.0);
-        List<Order> pendingOrders = new ArrayList<>(orderRepository.findByStatus(Order.OrderStatus.PENDING));
-        
+        return allocatePending(droneRepository.findAvailableDrones(MIN_BATTERY));
+    }
+
+    /**
+     * Aloca os pedidos do livro de pendentes que cabem em algum dos drones
+     * informados. O livro corta pelo maior drone; o peso de cada drone é
+     * checado na viabilidade do par, dentro da estratégia.
+     */
+    public Map<String, List<Order>> allocatePending(List<Drone> availableDrones) {
+        double maxCapacity = availableDrones.stream()
+            .mapToDouble(Drone::getMaxWeight)
+            .max()
+            .orElse(0.0);
+        return allocate(availableDrones, pendingOrderBook.feasibleFor(maxCapacity));
+    }
+
+    /**
+     * Aloca e persiste. Os pedidos devem vir em ordem de prioridade e chegada.
+     */
+    public Map<String, List<Order>> allocate(List<Drone> availableDrones, List<Order> pendingOrders) {
         Map<String, List<Order>> allocation = new HashMap<>();
         
         if (availableDrones.isEmpty() || pendingOrders.isEmpty()) {
@@ -90,68 +154,503 @@ public class AllocationService {
             return allocation;
         }
 
-        availableDrones.sort((d1, d2) -> 
-            d2.getCurrentBattery().compareTo(d1.getCurrentBattery()));
+        Map<String, Drone> dronesById = new HashMap<>();
+        availableDrones.forEach(drone -> dronesById.put(drone.getId(), drone));
 
-        pendingOrders.sort((o1, o2) -> {
-            int priorityCompare = o2.getPriority().compareTo(o1.getPriority());
-            if (priorityCompare != 0) return priorityCompare;
-            return o1.getCreatedAt().compareTo(o2.getCreatedAt());
-        });
+        AllocationResult result = planAllocation(availableDrones, pendingOrders);
+        log.info("Alocação {}: valor {} (limite {}, gap {}%) em {} ms{}", result.getStrategy(),
+            String.format("%.2f", result.getObjective()), String.format("%.2f", result.getUpperBound()),
+            String.format("%.1f", result.getGap() * 100), result.getElapsedMs(), result.isTimedOut() ? " (prazo esgotado)" : "");
+        allocation.putAll(allocationWriter.persist(result.getAllocation()));
 
-        for (Drone drone : availableDrones) {
-            if (pendingOrders.isEmpty()) break;
+        for (Map.Entry<String, List<Order>> entry : allocation.entrySet()) {
+            Drone drone = dronesById.get(entry.getKey());
+            List<Order> optimized = entry.getValue();
 
-            List<Order> feasibleOrders = new ArrayList<>();
-            for (Order order : pendingOrders) {
-                if (order.getWeight() <= drone.getMaxWeight()) {
-                    feasibleOrders.add(order);
-                }
-            }
+            optimized.forEach(order -> {
+                Order.OrderStatus previous = order.getStatus();
+                order.setStatus(Order.OrderStatus.ASSIGNED);
+                order.setAssignedDroneId(drone.getId());
+                pendingOrderBook.remove(order.getId());
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(order, previous));
+            });
+
+            Drone.DroneStatus previous = drone.getStatus();
+            drone.setStatus(Drone.DroneStatus.LOADING);
+            eventPublisher.publishEvent(new DroneStatusChangedEvent(drone, previous));
             
-            if (!feasibleOrders.isEmpty()) {
-                List<Order> optimized = optimizePackagesForDrone(drone, feasibleOrders);
-                
-                if (!optimized.isEmpty()) {
-                    allocation.put(drone.getId(), optimized);
-                    List<Order> ordersToRemove = new ArrayList<>(optimized);
-                    pendingOrders.removeAll(ordersToRemove);
-
-                    optimized.forEach(order -> {
-                        order.setStatus(Order.OrderStatus.ASSIGNED);
-                        order.setAssignedDroneId(drone.getId());
-                        orderRepository.save(order);
-                    });
-
-                    drone.setStatus(Drone.DroneStatus.LOADING);
-                    droneRepository.save(drone);
-                    
-                    log.info("Drone {} recebeu {} pedidos", drone.getName(), optimized.size());
-                }
-            }
+            log.info("Drone {} recebeu {} pedidos", drone.getName(), optimized.size());
         }
         
         log.info("Alocação concluída: {} drones receberam pedidos", allocation.size());
         return allocation;
     }
 
-    public List<double[]> calculateRouteWithObstacles(double startX, double startY, 
-                                                     double endX, double endY) {
-        List<double[]> route = new ArrayList<>();
-        route.add(new double[]{startX, startY});
+    /**
+     * Preempção para urgentes sem drone ocioso: o pedido entra na carga de um
+     * drone ainda em LOADING no lugar de pedidos de menor valor, que voltam a
+     * PENDING. Só os drones candidatos mais valiosos para o pedido (até o
+     * limite configurado) são reotimizados, cada um por uma mochila pequena
+     * sobre a própria carga mais o urgente.
+     *
+     * Drones e cargas vêm do estado vivo da frota, à frente do banco em até
+     * uma descarga; o compare-and-set do {@link AllocationWriter} continua
+     * sendo a guarda contra um drone que decolou no meio do caminho.
+     */
+    public Map<String, List<Order>> preemptForUrgent(List<Order> urgentOrders) {
+        Map<String, List<Order>> preempted = new LinkedHashMap<>();
+        List<Drone> loadingDrones = new ArrayList<>();
+        for (Drone drone : fleetStateEngine.drones()) {
+            if (drone.getStatus() == Drone.DroneStatus.LOADING) loadingDrones.add(drone);
+        }
+        if (loadingDrones.isEmpty()) return preempted;
+
+        AllocationContext context = buildContext(clock.now(), timeBudgetMs, this::calculateLegDistance);
+        Map<String, List<Order>> loads = new HashMap<>();
+
+        for (Order urgent : urgentOrders) {
+            if (context.isExpired()) break;
+            if (urgent.getStatus() != Order.OrderStatus.PENDING) continue;
+
+            List<Drone> candidates = new ArrayList<>();
+            for (Drone drone : loadingDrones) {
+                if (context.isFeasible(drone, urgent)) candidates.add(drone);
+            }
+            candidates.sort((a, b) -> Double.compare(context.value(b, urgent), context.value(a, urgent)));
 
-        if (!obstacleService.hasObstacleBetween(startX, startY, endX, endY)) {
-            route.add(new double[]{endX, endY});
-            return route;
+            Drone bestDrone = null;
+            List<Order> bestLoad = null;
+            double bestGain = 0;
+            for (Drone drone : candidates.subList(0, Math.min(preemptionMaxDrones, candidates.size()))) {
+                List<Order> load = loads.computeIfAbsent(drone.getId(), this::currentLoad);
+                List<Order> pool = new ArrayList<>(load);
+                pool.add(urgent);
+
+                List<Order> repacked = context.pack(drone, pool, drone.getMaxWeight());
+                if (!repacked.contains(urgent)) continue;
+                double gain = context.totalValue(drone, repacked) - context.totalValue(drone, load);
+                if (bestDrone == null || gain > bestGain) {
+                    bestDrone = drone;
+                    bestLoad = repacked;
+                    bestGain = gain;
+                }
+            }
+            if (bestDrone == null || bestGain <= 1e-9) continue;
+
+            List<Order> previousLoad = loads.get(bestDrone.getId());
+            List<Order> displaced = new ArrayList<>(previousLoad);
+            displaced.removeAll(bestLoad);
+            List<Order> sequence = sequenceDeliveries(bestDrone, bestLoad);
+
+            if (!allocationWriter.preempt(bestDrone.getId(), urgent, displaced, sequence)) {
+                loads.remove(bestDrone.getId());
+                continue;
+            }
+            applyPreemption(bestDrone, urgent, displaced, sequence);
+            loads.put(bestDrone.getId(), sequence);
+            preempted.put(bestDrone.getId(), sequence);
+            log.info("🚨 Urgente {} entrou no drone {} deslocando {} pedidos", 
+                urgent.getId(), bestDrone.getName(), displaced.size());
         }
+        return preempted;
+    }
 
-        double midX = (startX + endX) / 2;
-        double midY = (startY + endY) / 2 + 1.0;
-        
-        route.add(new double[]{midX, midY});
-        route.add(new double[]{endX, endY});
-        
-        return route;
+    private List<Order> currentLoad(String droneId) {
+        List<Order> load = new ArrayList<>();
+        for (Order order : fleetStateEngine.stops(droneId)) {
+            if (order.getStatus() == Order.OrderStatus.ASSIGNED) load.add(order);
+        }
+        return load;
+    }
+
+    private void applyPreemption(Drone drone, Order urgent, List<Order> displaced, List<Order> sequence) {
+        for (Order order : displaced) {
+            order.setStatus(Order.OrderStatus.PENDING);
+            order.setAssignedDroneId(null);
+            order.setDeliverySequence(null);
+            pendingOrderBook.add(order);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(order, Order.OrderStatus.ASSIGNED));
+        }
+        for (int i = 0; i < sequence.size(); i++) {
+            sequence.get(i).setDeliverySequence(i);
+        }
+        urgent.setStatus(Order.OrderStatus.ASSIGNED);
+        urgent.setAssignedDroneId(drone.getId());
+        pendingOrderBook.remove(urgent.getId());
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(urgent, Order.OrderStatus.PENDING));
+    }
+
+    /**
+     * Simula a alocação dos pendentes sem persistir nada, opcionalmente com
+     * drones hipotéticos somados à frota disponível.
+     */
+    public AllocationResult previewAllocation(List<Drone> hypotheticalDrones, boolean includeFleet) {
+        List<Drone> drones = new ArrayList<>();
+        if (includeFleet) drones.addAll(droneRepository.findAvailableDrones(MIN_BATTERY));
+        int index = 1;
+        for (Drone drone : hypotheticalDrones) {
+            drones.add(asHypothetical(drone, index++));
+        }
+
+        double maxCapacity = drones.stream()
+            .mapToDouble(Drone::getMaxWeight)
+            .max()
+            .orElse(0.0);
+        return planAllocation(drones, pendingOrderBook.feasibleFor(maxCapacity));
+    }
+
+    /**
+     * Melhor alocação encontrada dentro do prazo configurado, já sequenciada,
+     * sem tocar no banco nem nos pedidos.
+     */
+    public AllocationResult planAllocation(List<Drone> drones, List<Order> orders) {
+        return planAllocation(drones, orders, clock.now());
+    }
+
+    /**
+     * Como {@link #planAllocation(List, List)}, avaliando espera e janelas
+     * no instante informado (ex.: o relógio virtual do simulador).
+     */
+    public AllocationResult planAllocation(List<Drone> drones, List<Order> orders, java.time.LocalDateTime now) {
+        return planAllocation(drones, orders, now, strategyName);
+    }
+
+    /**
+     * Com os trechos medidos por {@code legs} em vez do roteamento sobre o
+     * conjunto quente de obstáculos (ex.: o simulador, com as zonas vigentes
+     * no relógio virtual).
+     */
+    public AllocationResult planAllocation(List<Drone> drones, List<Order> orders, java.time.LocalDateTime now,
+                                           DeliveryRoutePlanner.DistanceMetric legs) {
+        return planAllocation(drones, orders, now, strategyName, timeBudgetMs, legs);
+    }
+
+    /**
+     * Com uma estratégia escolhida pelo nome, no prazo configurado.
+     */
+    public AllocationResult planAllocation(List<Drone> drones, List<Order> orders, java.time.LocalDateTime now,
+                                           String strategyName) {
+        return planAllocation(drones, orders, now, strategyName, timeBudgetMs);
+    }
+
+    /**
+     * Com estratégia e prazo explícitos; {@link #NO_TIME_BUDGET} roda sem
+     * prazo, para que o resultado não dependa da velocidade da máquina (ex.:
+     * comparar alocadores no replay).
+     */
+    public AllocationResult planAllocation(List<Drone> drones, List<Order> orders, java.time.LocalDateTime now,
+                                           String strategyName, long budgetMs) {
+        return planAllocation(drones, orders, now, strategyName, budgetMs, this::calculateLegDistance);
+    }
+
+    private AllocationResult planAllocation(List<Drone> drones, List<Order> orders, java.time.LocalDateTime now,
+                                            String strategyName, long budgetMs, DeliveryRoutePlanner.DistanceMetric legs) {
+        long start = System.nanoTime();
+        AllocationContext context = buildContext(now, budgetMs, legs);
+        AssignmentStrategy strategy = strategy(strategyName);
+        // O limite é barato (linha reta) e sai antes da estratégia, dentro do prazo
+        double upperBound = context.upperBound(drones, orders);
+
+        AtomicBoolean fellBack = new AtomicBoolean(false);
+        Map<String, List<Order>> proposed = assignByZone(strategy, drones, orders, context, fellBack);
+        if (fellBack.get()) strategy = greedyAssignmentStrategy;
+        boolean timedOut = context.isExpired();
+
+        Map<String, Drone> dronesById = new HashMap<>();
+        drones.forEach(drone -> dronesById.put(drone.getId(), drone));
+
+        Map<String, List<Order>> sequenced = new LinkedHashMap<>();
+        double objective = 0;
+        for (Map.Entry<String, List<Order>> entry : proposed.entrySet()) {
+            Drone drone = dronesById.get(entry.getKey());
+            sequenced.put(entry.getKey(), sequenceDeliveries(drone, entry.getValue(), legs));
+            objective += context.totalValue(drone, entry.getValue());
+        }
+
+        return AllocationResult.builder()
+            .allocation(sequenced)
+            .strategy(strategy.getName())
+            .objective(objective)
+            .upperBound(upperBound)
+            .elapsedMs((System.nanoTime() - start) / 1_000_000)
+            .timedOut(timedOut)
+            .build();
+    }
+
+    /**
+     * Particiona frota e pedidos em zonas, uma por base: cada pedido vai para
+     * a base mais próxima. As zonas são alocadas em paralelo e, em seguida,
+     * uma passada entre zonas tenta encaixar só os pedidos que sobraram.
+     */
+    private Map<String, List<Order>> assignByZone(AssignmentStrategy strategy, List<Drone> drones,
+                                                  List<Order> orders, AllocationContext context,
+                                                  AtomicBoolean fellBack) {
+        Map<String, List<Drone>> dronesByZone = new LinkedHashMap<>();
+        for (Drone drone : drones) {
+            dronesByZone.computeIfAbsent(zoneOf(drone), z -> new ArrayList<>()).add(drone);
+        }
+        if (dronesByZone.size() <= 1) {
+            return assignWithFallback(strategy, drones, orders, context, fellBack);
+        }
+
+        Map<String, List<Order>> ordersByZone = new HashMap<>();
+        for (Order order : orders) {
+            ordersByZone.computeIfAbsent(nearestZone(order, dronesByZone), z -> new ArrayList<>()).add(order);
+        }
+
+        List<Callable<Map<String, List<Order>>>> tasks = new ArrayList<>();
+        for (Map.Entry<String, List<Drone>> zone : dronesByZone.entrySet()) {
+            List<Order> zoneOrders = ordersByZone.getOrDefault(zone.getKey(), List.of());
+            if (zoneOrders.isEmpty()) continue;
+            tasks.add(() -> assignWithFallback(strategy, zone.getValue(), zoneOrders, context, fellBack));
+        }
+
+        Map<String, List<Order>> allocation = new LinkedHashMap<>();
+        try {
+            for (Future<Map<String, List<Order>>> future : zonePool().invokeAll(tasks)) {
+                allocation.putAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Alocação por zonas interrompida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro na alocação por zonas: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        // Passada entre zonas: sobras vão para os drones que ficaram sem carga
+        Set<Order> assigned = Collections.newSetFromMap(new IdentityHashMap<>());
+        allocation.values().forEach(assigned::addAll);
+        List<Order> spillOver = new ArrayList<>();
+        for (Order order : orders) {
+            if (!assigned.contains(order)) spillOver.add(order);
+        }
+        List<Drone> freeDrones = new ArrayList<>();
+        for (Drone drone : drones) {
+            if (!allocation.containsKey(drone.getId())) freeDrones.add(drone);
+        }
+        if (!spillOver.isEmpty() && !freeDrones.isEmpty() && !context.isExpired()) {
+            Map<String, List<Order>> crossZone = assignWithFallback(strategy, freeDrones, spillOver, context, fellBack);
+            log.debug("Passada entre zonas: {} sobras, {} drones livres, {} cargas", 
+                spillOver.size(), freeDrones.size(), crossZone.size());
+            allocation.putAll(crossZone);
+        }
+        return allocation;
+    }
+
+    private Map<String, List<Order>> assignWithFallback(AssignmentStrategy strategy, List<Drone> drones,
+                                                        List<Order> orders, AllocationContext context,
+                                                        AtomicBoolean fellBack) {
+        try {
+            return strategy.assign(drones, orders, context);
+        } catch (RuntimeException e) {
+            if (strategy == greedyAssignmentStrategy) throw e;
+            log.warn("Estratégia {} falhou ({}), usando {}", strategy.getName(), e.getMessage(), GreedyAssignmentStrategy.NAME);
+            fellBack.set(true);
+            return greedyAssignmentStrategy.assign(drones, orders, context);
+        }
+    }
+
+    private String zoneOf(Drone drone) {
+        return drone.getBaseX() + ":" + drone.getBaseY();
+    }
+
+    private String nearestZone(Order order, Map<String, List<Drone>> dronesByZone) {
+        String nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (Map.Entry<String, List<Drone>> zone : dronesByZone.entrySet()) {
+            Drone base = zone.getValue().get(0);
+            double distance = calculateDistance(base.getBaseX(), base.getBaseY(), order.getLocationX(), order.getLocationY());
+            if (distance < nearestDistance) {
+                nearest = zone.getKey();
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    private ForkJoinPool zonePool() {
+        if (zonePool == null) {
+            synchronized (this) {
+                if (zonePool == null) {
+                    int parallelism = zoneParallelism > 0 ? zoneParallelism : Runtime.getRuntime().availableProcessors();
+                    zonePool = new ForkJoinPool(parallelism);
+                }
+            }
+        }
+        return zonePool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (zonePool != null) zonePool.shutdown();
+    }
+
+    private Drone asHypothetical(Drone drone, int index) {
+        Drone copy = Drone.builder()
+            .id(drone.getId() != null ? drone.getId() : "preview-" + index)
+            .name(drone.getName() != null ? drone.getName() : "Preview-" + index)
+            .maxWeight(drone.getMaxWeight() != null ? drone.getMaxWeight() : 10.0)
+            .maxDistance(drone.getMaxDistance() != null ? drone.getMaxDistance() : 50.0)
+            .batteryCapacity(drone.getBatteryCapacity() != null ? drone.getBatteryCapacity() : 100.0)
+            .status(Drone.DroneStatus.IDLE)
+            .baseX(drone.getBaseX() != null ? drone.getBaseX() : 0.0)
+            .baseY(drone.getBaseY() != null ? drone.getBaseY() : 0.0)
+            .build();
+        copy.setCurrentBattery(drone.getCurrentBattery() != null ? drone.getCurrentBattery() : copy.getBatteryCapacity());
+        copy.setCurrentX(copy.getBaseX());
+        copy.setCurrentY(copy.getBaseY());
+        return copy;
+    }
+
+    /**
+     * Estratégia pelo nome; nome desconhecido é erro, não cai no guloso.
+     */
+    public AssignmentStrategy strategy(String name) {
+        return strategies.stream()
+            .filter(s -> s.getName().equalsIgnoreCase(name))
+            .findFirst()
+            .orElseThrow(() -> new RuntimeException("Estratégia de alocação desconhecida: " + name));
+    }
+
+    private AllocationContext buildContext(java.time.LocalDateTime now, long budgetMs,
+                                           DeliveryRoutePlanner.DistanceMetric legs) {
+        // Distâncias de ida e volta memorizadas durante a rodada (pedido × base);
+        // o mapa é concorrente porque as zonas rodam em paralelo
+        Map<String, Double> roundTrips = new ConcurrentHashMap<>();
+        ToDoubleBiFunction<Drone, Order> roundTrip = (drone, order) -> roundTrips.computeIfAbsent(
+            (order.getId() != null ? order.getId() : "#" + System.identityHashCode(order)) + "@" + zoneOf(drone),
+            k -> 2 * legs.distance(drone.getBaseX(), drone.getBaseY(), order.getLocationX(), order.getLocationY()));
+
+        return AllocationContext.builder()
+            // Sem prazo: meio intervalo do nanoTime à frente, longe de estourar a comparação
+            .deadlineNanos(System.nanoTime() + (budgetMs != NO_TIME_BUDGET ? budgetMs * 1_000_000 : Long.MAX_VALUE / 2))
+            .feasibility((drone, order) -> {
+                if (order.getWeight() > drone.getMaxWeight()) return false;
+                double distance = roundTrip.applyAsDouble(drone, order);
+                return isRouteFeasible(drone, distance, estimateRoundTripBattery(drone, order, distance));
+            })
+            .valueFunction((drone, order) -> calculateOrderValue(drone, order, roundTrip.applyAsDouble(drone, order), now))
+            // Limite superior em linha reta: a distância só pode crescer ao contornar
+            // obstáculos, então viabilidade e valor aqui nunca ficam abaixo dos reais
+            .boundValue((drone, order) -> {
+                if (order.getWeight() > drone.getMaxWeight()) return 0;
+                double distance = 2 * calculateDistance(drone.getBaseX(), drone.getBaseY(),
+                    order.getLocationX(), order.getLocationY());
+                if (!isRouteFeasible(drone, distance, estimateRoundTripBattery(drone, order, distance))) return 0;
+                return calculateOrderValue(drone, order, distance, now);
+            })
+            .loadFeasibility((drone, orders) -> {
+                TourEstimate tour = estimateTour(drone, orders, legs);
+                return isRouteFeasible(drone, tour.distance(), tour.battery());
+            })
+            .knapsackSolver(knapsackSolver)
+            .build();
+    }
+
+    /**
+     * Valor do pedido para o drone: prioridade + espera, descontada a fração
+     * do alcance do drone gasta na ida e volta.
+     */
+    private double calculateOrderValue(Drone drone, Order order, double roundTripDistance, java.time.LocalDateTime now) {
+        double rangeFraction = drone.getMaxDistance() != null && drone.getMaxDistance() > 0
+            ? roundTripDistance / drone.getMaxDistance()
+            : 0.0;
+        return Math.max(0.01, calculateOrderValue(order, now) - distanceWeight * rangeFraction);
+    }
+
+    /**
+     * A rota cabe no alcance do drone e na bateria atual, mantendo a reserva
+     * abaixo da qual a simulação aborta o voo.
+     */
+    public boolean isRouteFeasible(Drone drone, double distance, double batteryUsage) {
+        if (drone.getMaxDistance() != null && distance > drone.getMaxDistance()) {
+            return false;
+        }
+        double battery = drone.getCurrentBattery() != null ? drone.getCurrentBattery() : 0.0;
+        return batteryUsage + kinematics.getBatteryReserve() <= battery;
+    }
+
+    /**
+     * Bateria (%) de ida e volta a um pedido: ida com a carga, volta vazio,
+     * com o mesmo consumo da simulação.
+     */
+    public double estimateRoundTripBattery(Drone drone, Order order, double roundTripDistance) {
+        double weight = order.getWeight() != null ? order.getWeight() : 0.0;
+        double leg = roundTripDistance / 2;
+        return leg * kinematics.drainPerUnit(drone, weight) + leg * kinematics.drainPerUnit(drone, 0.0);
+    }
+
+    /** Distância e bateria (%) do circuito base → pedidos → base. */
+    public record TourEstimate(double distance, double battery) {
+    }
+
+    /**
+     * Circuito na ordem de entrega, com a carga caindo a cada parada como no
+     * voo simulado.
+     */
+    public TourEstimate estimateTour(Drone drone, List<Order> orders) {
+        return estimateTour(drone, orders, this::calculateLegDistance);
+    }
+
+    private TourEstimate estimateTour(Drone drone, List<Order> orders, DeliveryRoutePlanner.DistanceMetric legs) {
+        double payload = orders.stream().mapToDouble(o -> o.getWeight() != null ? o.getWeight() : 0.0).sum();
+        double x = drone.getBaseX();
+        double y = drone.getBaseY();
+        double distance = 0;
+        double battery = 0;
+        for (Order order : sequenceDeliveries(drone, orders, legs)) {
+            double leg = legs.distance(x, y, order.getLocationX(), order.getLocationY());
+            distance += leg;
+            battery += leg * kinematics.drainPerUnit(drone, payload);
+            payload -= order.getWeight() != null ? order.getWeight() : 0.0;
+            x = order.getLocationX();
+            y = order.getLocationY();
+        }
+        double back = legs.distance(x, y, drone.getBaseX(), drone.getBaseY());
+        return new TourEstimate(distance + back, battery + back * kinematics.drainPerUnit(drone, 0.0));
+    }
+
+    public double calculateRoundTripDistance(Drone drone, Order order) {
+        return 2 * calculateLegDistance(drone.getBaseX(), drone.getBaseY(), order.getLocationX(), order.getLocationY());
+    }
+
+    /**
+     * Ordem de entrega que minimiza o circuito base → pedidos → base.
+     */
+    public List<Order> sequenceDeliveries(Drone drone, List<Order> orders) {
+        return sequenceDeliveries(drone, orders, this::calculateLegDistance);
+    }
+
+    private List<Order> sequenceDeliveries(Drone drone, List<Order> orders, DeliveryRoutePlanner.DistanceMetric legs) {
+        return routePlanner.plan(drone.getBaseX(), drone.getBaseY(), orders, legs);
+    }
+
+    /**
+     * Distância do circuito base → pedidos → base na melhor ordem encontrada.
+     */
+    public double estimateTourDistance(Drone drone, List<Order> orders) {
+        return routePlanner.tourLength(drone.getBaseX(), drone.getBaseY(),
+            sequenceDeliveries(drone, orders), this::calculateLegDistance);
+    }
+
+    /**
+     * Distância de um trecho contornando obstáculos (infinita se não houver rota livre).
+     */
+    public double calculateLegDistance(double startX, double startY, double endX, double endY) {
+        return obstacleRoutePlanner.plan(startX, startY, endX, endY).length();
+    }
+
+    public double calculateRouteDistance(List<double[]> route) {
+        double total = 0;
+        for (int i = 1; i < route.size(); i++) {
+            total += calculateDistance(route.get(i - 1)[0], route.get(i - 1)[1], route.get(i)[0], route.get(i)[1]);
+        }
+        return total;
+    }
+
+    public List<double[]> calculateRouteWithObstacles(double startX, double startY, 
+                                                     double endX, double endY) {
+        return new ArrayList<>(obstacleRoutePlanner.plan(startX, startY, endX, endY).points());
     }
 
     public double calculateDistance(double x1, double y1, double x2, double y2) {
@@ -0,0 +1,142 @@
+package com.dti.drone_delivery.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.repository.DroneRepository;
+import com.dti.drone_delivery.repository.OrderRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Grava o resultado de uma alocação numa única transação. Cada drone só é
+ * carregado se ainda estiver IDLE, e só recebe os pedidos que conseguiu
+ * travar e reivindicar ainda PENDING, então alocadores concorrentes
+ * (scheduler, endpoints, outras instâncias) nunca atribuem o mesmo pedido
+ * duas vezes. A ordem das listas é a sequência de entrega planejada.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AllocationWriter {
+
+    private static final String UPDATE_SEQUENCE =
+        "UPDATE orders SET delivery_sequence = ? WHERE id = ? AND assigned_drone_id = ? AND status = 'ASSIGNED'";
+
+    private final OrderRepository orderRepository;
+    private final DroneRepository droneRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Devolve a parte da alocação efetivamente reivindicada. Por drone: um
+     * UPDATE em lote reivindica os pedidos travados e um batch JDBC grava a
+     * sequência de entrega.
+     */
+    @Transactional
+    public Map<String, List<Order>> persist(Map<String, List<Order>> allocation) {
+        Map<String, List<Order>> claimed = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Map.Entry<String, List<Order>> entry : allocation.entrySet()) {
+            List<String> orderIds = new ArrayList<>(entry.getValue().size());
+            entry.getValue().forEach(order -> orderIds.add(order.getId()));
+
+            Set<String> locked = new HashSet<>();
+            orderRepository.lockPendingByIdIn(orderIds).forEach(order -> locked.add(order.getId()));
+            if (locked.isEmpty()) continue;
+
+            String droneId = entry.getKey();
+            if (droneRepository.compareAndSetStatus(droneId, Drone.DroneStatus.IDLE, Drone.DroneStatus.LOADING, now) == 0) {
+                log.debug("Drone {} já não está ocioso, alocação descartada", droneId);
+                continue;
+            }
+
+            // Com as linhas travadas o total bate; se não bater, outro alocador
+            // interferiu e a carga inteira do drone é desfeita
+            if (orderRepository.claimPendingByIdIn(locked, droneId) != locked.size()) {
+                orderRepository.releaseAssignedByIdIn(locked, droneId);
+                droneRepository.compareAndSetStatus(droneId, Drone.DroneStatus.LOADING, Drone.DroneStatus.IDLE, now);
+                log.debug("Reivindicação incompleta para o drone {}, alocação descartada", droneId);
+                continue;
+            }
+
+            List<Order> orders = new ArrayList<>(locked.size());
+            for (Order order : entry.getValue()) {
+                if (locked.contains(order.getId())) orders.add(order);
+            }
+            // Sequência incompleta deixaria o drone em LOADING sem rota: desfaz como acima
+            if (!writeSequence(droneId, orders)) {
+                orderRepository.releaseAssignedByIdIn(locked, droneId);
+                droneRepository.compareAndSetStatus(droneId, Drone.DroneStatus.LOADING, Drone.DroneStatus.IDLE, now);
+                log.debug("Sequência não gravada para o drone {}, alocação descartada", droneId);
+                continue;
+            }
+            for (int i = 0; i < orders.size(); i++) {
+                orders.get(i).setDeliverySequence(i);
+            }
+            claimed.put(droneId, orders);
+        }
+
+        if (claimed.size() < allocation.size()) {
+            log.info("Reivindicação parcial: {} de {} drones mantiveram a alocação", claimed.size(), allocation.size());
+        }
+        return claimed;
+    }
+
+    /**
+     * Troca a carga de um drone ainda em LOADING: o urgente entra, os
+     * deslocados voltam a PENDING e a nova sequência é gravada. Se o drone
+     * já saiu de LOADING ou algum pedido mudou de estado, nada é gravado.
+     */
+    @Transactional
+    public boolean preempt(String droneId, Order urgent, List<Order> displaced, List<Order> sequence) {
+        if (orderRepository.lockPendingByIdIn(List.of(urgent.getId())).isEmpty()) return false;
+
+        // Atualização sem mudança de estado: confirma LOADING e trava a linha do drone
+        LocalDateTime now = LocalDateTime.now();
+        if (droneRepository.compareAndSetStatus(droneId, Drone.DroneStatus.LOADING, Drone.DroneStatus.LOADING, now) == 0) {
+            return false;
+        }
+
+        List<String> displacedIds = displaced.stream().map(Order::getId).toList();
+        if (!displacedIds.isEmpty() && orderRepository.releaseAssignedByIdIn(displacedIds, droneId) != displacedIds.size()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return false;
+        }
+        if (orderRepository.claimPendingByIdIn(List.of(urgent.getId()), droneId) != 1
+                || !writeSequence(droneId, sequence)) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Grava a posição de cada pedido na rota num único batch. Devolve false
+     * se algum pedido já não estava atribuído ao drone.
+     */
+    private boolean writeSequence(String droneId, List<Order> orders) {
+        List<Object[]> rows = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            rows.add(new Object[]{i, orders.get(i).getId(), droneId});
+        }
+        for (int count : jdbcTemplate.batchUpdate(UPDATE_SEQUENCE, rows)) {
+            // SUCCESS_NO_INFO (-2): o driver não informa o total de um comando do batch
+            if (count == 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package com.dti.drone_delivery.service;
+
+import java.util.Random;
+
+import com.dti.drone_delivery.dto.LoadProfile;
+
+/**
+ * Gera instantes de chegada (em segundos desde o início) de um processo de
+ * Poisson ou de um Poisson modulado por dois estados (calmaria/rajada), com
+ * permanência exponencial em cada estado.
+ */
+public class ArrivalProcess {
+
+    private final Random random;
+    private final double calmRate;
+    private final double burstRate;
+    private final double meanCalmSeconds;
+    private final double meanBurstSeconds;
+    private final boolean bursty;
+
+    private double now = 0;
+    private boolean inBurst = false;
+    private double stateEndsAt;
+
+    public ArrivalProcess(LoadProfile profile, Random random) {
+        if (profile.getOrdersPerSecond() <= 0) {
+            throw new RuntimeException("ordersPerSecond deve ser positivo");
+        }
+        this.random = random;
+        this.bursty = profile.getArrivalProcess() == LoadProfile.ArrivalProcess.BURSTY;
+        this.calmRate = profile.getOrdersPerSecond();
+        this.burstRate = profile.getOrdersPerSecond() * Math.max(1.0, profile.getBurstFactor());
+        this.meanCalmSeconds = Math.max(0.001, profile.getMeanCalmSeconds());
+        this.meanBurstSeconds = Math.max(0.001, profile.getMeanBurstSeconds());
+        this.stateEndsAt = bursty ? exponential(1.0 / this.meanCalmSeconds) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Próxima chegada. Como o intervalo é sem memória, ao cruzar a troca de
+     * estado basta recomeçar o sorteio a partir dela com a nova taxa.
+     */
+    public double next() {
+        while (true) {
+            double candidate = now + exponential(inBurst ? burstRate : calmRate);
+            if (candidate < stateEndsAt) {
+                now = candidate;
+                return now;
+            }
+            now = stateEndsAt;
+            inBurst = !inBurst;
+            stateEndsAt = now + exponential(1.0 / (inBurst ? meanBurstSeconds : meanCalmSeconds));
+        }
+    }
+
+    public boolean isInBurst() {
+        return inBurst;
+    }
+
+    /** Taxa média de longo prazo, em pedidos por segundo. */
+    public double meanRate() {
+        if (!bursty) return calmRate;
+        return (calmRate * meanCalmSeconds + burstRate * meanBurstSeconds) / (meanCalmSeconds + meanBurstSeconds);
+    }
+
+    private double exponential(double rate) {
+        return -Math.log(1.0 - random.nextDouble()) / rate;
+    }
+}
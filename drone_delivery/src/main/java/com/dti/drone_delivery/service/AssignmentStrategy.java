@@ -0,0 +1,18 @@
+package com.dti.drone_delivery.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+
+/**
+ * Estratégia de atribuição de pedidos pendentes aos drones disponíveis.
+ * Implementações não persistem nada: devolvem apenas o mapa droneId → pedidos.
+ */
+public interface AssignmentStrategy {
+
+    String getName();
+
+    Map<String, List<Order>> assign(List<Drone> drones, List<Order> orders, AllocationContext context);
+}
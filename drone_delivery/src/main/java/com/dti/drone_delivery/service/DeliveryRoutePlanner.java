@@ -0,0 +1,176 @@
+package com.dti.drone_delivery.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.model.Order;
+
+/**
+ * Sequencia as paradas de um drone (circuito base → pedidos → base):
+ * construção pelo vizinho mais próximo seguida de buscas locais 2-opt e
+ * Or-opt (realocação de trechos de 1 a 3 paradas) até não haver melhora.
+ */
+@Component
+public class DeliveryRoutePlanner {
+
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_ROUNDS = 50;
+
+    @FunctionalInterface
+    public interface DistanceMetric {
+        double distance(double x1, double y1, double x2, double y2);
+    }
+
+    public List<Order> plan(double baseX, double baseY, List<Order> orders, DistanceMetric metric) {
+        int k = orders.size();
+        if (k <= 1) return new ArrayList<>(orders);
+
+        double[][] d = distanceMatrix(baseX, baseY, orders, metric);
+        int[] tour = nearestNeighbour(d, k);
+
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            boolean improved = twoOpt(tour, d);
+            improved |= orOpt(tour, d);
+            if (!improved) break;
+        }
+
+        List<Order> sequence = new ArrayList<>(k);
+        for (int i = 1; i <= k; i++) {
+            sequence.add(orders.get(tour[i] - 1));
+        }
+        return sequence;
+    }
+
+    /**
+     * Comprimento do circuito visitando as paradas na ordem dada.
+     */
+    public double tourLength(double baseX, double baseY, List<Order> sequence, DistanceMetric metric) {
+        double total = 0;
+        double x = baseX;
+        double y = baseY;
+        for (Order order : sequence) {
+            total += metric.distance(x, y, order.getLocationX(), order.getLocationY());
+            x = order.getLocationX();
+            y = order.getLocationY();
+        }
+        return total + metric.distance(x, y, baseX, baseY);
+    }
+
+    private double[][] distanceMatrix(double baseX, double baseY, List<Order> orders, DistanceMetric metric) {
+        int n = orders.size() + 1;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        xs[0] = baseX;
+        ys[0] = baseY;
+        for (int i = 1; i < n; i++) {
+            xs[i] = orders.get(i - 1).getLocationX();
+            ys[i] = orders.get(i - 1).getLocationY();
+        }
+
+        double[][] d = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                d[i][j] = metric.distance(xs[i], ys[i], xs[j], ys[j]);
+                d[j][i] = d[i][j];
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Circuito fechado em tour[0..k+1], com a base (nó 0) nas duas pontas.
+     */
+    private int[] nearestNeighbour(double[][] d, int k) {
+        int[] tour = new int[k + 2];
+        boolean[] visited = new boolean[k + 1];
+        visited[0] = true;
+        int current = 0;
+        for (int pos = 1; pos <= k; pos++) {
+            int next = -1;
+            for (int j = 1; j <= k; j++) {
+                if (!visited[j] && (next < 0 || d[current][j] < d[current][next])) next = j;
+            }
+            tour[pos] = next;
+            visited[next] = true;
+            current = next;
+        }
+        return tour;
+    }
+
+    private boolean twoOpt(int[] tour, double[][] d) {
+        boolean improved = false;
+        int last = tour.length - 1;
+        for (int i = 0; i < last - 2; i++) {
+            for (int j = i + 2; j < last; j++) {
+                double delta = d[tour[i]][tour[j]] + d[tour[i + 1]][tour[j + 1]]
+                    - d[tour[i]][tour[i + 1]] - d[tour[j]][tour[j + 1]];
+                if (delta < -EPSILON) {
+                    reverse(tour, i + 1, j);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    private boolean orOpt(int[] tour, double[][] d) {
+        boolean improved = false;
+        int last = tour.length - 1;
+        for (int length = 1; length <= 3; length++) {
+            for (int start = 1; start + length - 1 < last; start++) {
+                int end = start + length - 1;
+                int prev = tour[start - 1];
+                int next = tour[end + 1];
+                int first = tour[start];
+                int tail = tour[end];
+                double removeGain = d[prev][first] + d[tail][next] - d[prev][next];
+
+                for (int pos = 0; pos < last; pos++) {
+                    if (pos >= start - 1 && pos <= end) continue;
+                    int a = tour[pos];
+                    int b = tour[pos + 1];
+                    double forward = d[a][first] + d[tail][b] - d[a][b];
+                    double reversed = d[a][tail] + d[first][b] - d[a][b];
+                    double insertCost = Math.min(forward, reversed);
+                    if (insertCost - removeGain < -EPSILON) {
+                        moveSegment(tour, start, end, pos, reversed < forward);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    private void moveSegment(int[] tour, int start, int end, int pos, boolean reverse) {
+        int length = end - start + 1;
+        int[] segment = new int[length];
+        for (int i = 0; i < length; i++) {
+            segment[i] = reverse ? tour[end - i] : tour[start + i];
+        }
+
+        List<Integer> rest = new ArrayList<>(tour.length - length);
+        int insertAfter = -1;
+        for (int i = 0; i < tour.length; i++) {
+            if (i >= start && i <= end) continue;
+            rest.add(tour[i]);
+            if (i == pos) insertAfter = rest.size() - 1;
+        }
+
+        int idx = 0;
+        for (int i = 0; i <= insertAfter; i++) tour[idx++] = rest.get(i);
+        for (int node : segment) tour[idx++] = node;
+        for (int i = insertAfter + 1; i < rest.size(); i++) tour[idx++] = rest.get(i);
+    }
+
+    private void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int tmp = tour[from];
+            tour[from++] = tour[to];
+            tour[to--] = tmp;
+        }
+    }
+}
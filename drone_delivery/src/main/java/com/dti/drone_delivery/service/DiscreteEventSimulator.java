@@ -0,0 +1,445 @@
+package com.dti.drone_delivery.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.springframework.stereotype.Service;
+
+import com.dti.drone_delivery.dto.SimulationScenario;
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Obstacle;
+import com.dti.drone_delivery.model.Order;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Simulação acelerada por eventos discretos: em vez de ticks de relógio de
+ * parede, uma fila de prioridade de eventos com carimbo de tempo (chegada
+ * de pedido, chegada à parada, bateria no limite, fim da recarga) e um
+ * {@link VirtualClock} que salta de evento em evento. Usa a mesma alocação
+ * e o mesmo roteamento com obstáculos do sistema ao vivo; do banco só lê os
+ * obstáculos cadastrados, uma vez por execução.
+ *
+ * As zonas temporárias seguem o relógio virtual, não o de parede: cada
+ * execução mantém um índice próprio com as zonas vigentes e o reconstrói a
+ * cada início ou fim de janela dentro do dia simulado. Triagem de pedidos,
+ * alocação e trechos consultam esse índice, então os KPIs não dependem da
+ * hora em que o cenário roda.
+ *
+ * O modelo de voo é o do {@link DroneKinematics}: velocidade de cruzeiro,
+ * consumo com a carga a bordo e a reserva abaixo da qual o voo aborta. O
+ * que muda é só o avanço do tempo: cada trecho é resolvido de uma vez, em
+ * vez de passo a passo, e a posição ao abortar é interpolada na reta.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DiscreteEventSimulator {
+
+    private final AllocationService allocationService;
+    private final ObstacleService obstacleService;
+    private final ObstacleIndex obstacleIndex;
+    private final DroneKinematics kinematics;
+
+    enum EventType {
+        ORDER_ARRIVAL, ALLOCATE, DEPART, STOP_ARRIVAL, BATTERY_LOW, BASE_ARRIVAL, CHARGE_COMPLETE, OBSTACLE_BOUNDARY
+    }
+
+    private record SimEvent(double time, long sequence, EventType type, Drone drone) {
+    }
+
+    public SimulationReport run(SimulationScenario scenario) {
+        validate(scenario);
+        long start = System.currentTimeMillis();
+        Run run = new Run(scenario);
+        run.execute();
+        SimulationReport report = run.report(System.currentTimeMillis() - start);
+        log.info("🧪 Simulação de {}h concluída em {} ms: {}/{} pedidos entregues, {} eventos",
+            String.format("%.1f", scenario.getDurationHours()), report.getWallClockMs(),
+            report.getDeliveredOrders(), report.getTotalOrders(), report.getEventsProcessed());
+        return report;
+    }
+
+    private void validate(SimulationScenario scenario) {
+        if (scenario.getDurationHours() <= 0 || scenario.getDrones() <= 0 || scenario.getCruiseSpeed() <= 0
+                || scenario.getOrdersPerHour() < 0 || scenario.getChargePercentPerSecond() <= 0) {
+            throw new RuntimeException("Cenário de simulação inválido");
+        }
+    }
+
+    /**
+     * Estado de uma execução; cada chamada de {@link #run} tem o seu.
+     */
+    private class Run {
+        private final SimulationScenario scenario;
+        private final VirtualClock clock = new VirtualClock(LocalDate.now().atStartOfDay());
+        private final Random random;
+        private final double endSeconds;
+        private final PriorityQueue<SimEvent> queue = new PriorityQueue<>(
+            Comparator.comparingDouble(SimEvent::time).thenComparingLong(SimEvent::sequence));
+
+        private final List<Drone> fleet = new ArrayList<>();
+        private final Map<String, Flight> flights = new HashMap<>();
+        private final Map<String, Order> pending = new LinkedHashMap<>();
+        private final List<Double> deliveryMinutes = new ArrayList<>();
+        private final List<Obstacle> obstacles;
+
+        // Zonas vigentes no instante virtual; trocados a cada OBSTACLE_BOUNDARY
+        private ObstacleIndex activeZones;
+        private ObstacleRoutePlanner router;
+
+        private long sequence;
+        private long events;
+        private boolean allocationScheduled;
+        private int totalOrders;
+        private int rejectedOrders;
+        private int assignedOpen;
+        private int allocationRounds;
+        private int batteryAborts;
+        private int chargeCycles;
+        private double totalDistance;
+        private double busySeconds;
+
+        Run(SimulationScenario scenario) {
+            this.scenario = scenario;
+            this.random = scenario.getSeed() != null ? new Random(scenario.getSeed()) : new Random();
+            this.endSeconds = scenario.getDurationHours() * 3600;
+            this.obstacles = obstacleService.getAllObstacles();
+            for (int i = 1; i <= scenario.getDrones(); i++) {
+                Drone drone = Drone.builder()
+                    .id("sim-drone-" + i)
+                    .name("Sim-" + i)
+                    .maxWeight(scenario.getMaxWeight())
+                    .maxDistance(scenario.getMaxDistance())
+                    .batteryCapacity(scenario.getBatteryCapacity())
+                    .currentBattery(scenario.getBatteryCapacity())
+                    .cruiseSpeed(scenario.getCruiseSpeed())
+                    .status(Drone.DroneStatus.IDLE)
+                    .baseX(0.0)
+                    .baseY(0.0)
+                    .currentX(0.0)
+                    .currentY(0.0)
+                    .build();
+                fleet.add(drone);
+                flights.put(drone.getId(), new Flight());
+            }
+        }
+
+        void execute() {
+            refreshObstacles();
+            scheduleObstacleBoundaries();
+            scheduleNextArrival(0);
+            while (!queue.isEmpty() && queue.peek().time() <= endSeconds) {
+                SimEvent event = queue.poll();
+                clock.advanceTo(event.time());
+                events++;
+                switch (event.type()) {
+                    case ORDER_ARRIVAL -> onOrderArrival();
+                    case ALLOCATE -> onAllocate();
+                    case DEPART -> onDepart(event.drone());
+                    case STOP_ARRIVAL -> onStopArrival(event.drone());
+                    case BATTERY_LOW -> onBatteryLow(event.drone());
+                    case BASE_ARRIVAL -> onBaseArrival(event.drone());
+                    case CHARGE_COMPLETE -> onChargeComplete(event.drone());
+                    case OBSTACLE_BOUNDARY -> refreshObstacles();
+                }
+            }
+            clock.advanceTo(Math.max(clock.getElapsedSeconds(), endSeconds));
+            for (Drone drone : fleet) setStatus(drone, drone.getStatus());
+        }
+
+        private void schedule(double time, EventType type, Drone drone) {
+            queue.add(new SimEvent(time, sequence++, type, drone));
+        }
+
+        private void scheduleObstacleBoundaries() {
+            TreeSet<LocalDateTime> boundaries = new TreeSet<>();
+            for (Obstacle obstacle : obstacles) {
+                if (obstacle.getActiveFrom() != null) boundaries.add(obstacle.getActiveFrom());
+                if (obstacle.getActiveUntil() != null) boundaries.add(obstacle.getActiveUntil());
+            }
+            for (LocalDateTime boundary : boundaries) {
+                double at = Duration.between(clock.at(0), boundary).toMillis() / 1000.0;
+                if (at > 0 && at <= endSeconds) schedule(at, EventType.OBSTACLE_BOUNDARY, null);
+            }
+        }
+
+        private void refreshObstacles() {
+            LocalDateTime now = clock.now();
+            List<Obstacle> active = obstacles.stream().filter(o -> o.isActiveAt(now)).toList();
+            activeZones = obstacleIndex.withObstacles(active);
+            router = new ObstacleRoutePlanner(activeZones, new RouteCache());
+        }
+
+        private double legDistance(double startX, double startY, double endX, double endY) {
+            return router.plan(startX, startY, endX, endY).length();
+        }
+
+        // Chegadas de Poisson: intervalos exponenciais
+        private void scheduleNextArrival(double from) {
+            if (scenario.getOrdersPerHour() <= 0) return;
+            double gap = -Math.log(1 - random.nextDouble()) * 3600 / scenario.getOrdersPerHour();
+            if (from + gap <= endSeconds) schedule(from + gap, EventType.ORDER_ARRIVAL, null);
+        }
+
+        private void onOrderArrival() {
+            double radius = scenario.getAreaRadius();
+            Order order = Order.builder()
+                .id("sim-order-" + (++totalOrders))
+                .customerName("Cliente-" + random.nextInt(1000))
+                .locationX(random.nextDouble() * 2 * radius - radius)
+                .locationY(random.nextDouble() * 2 * radius - radius)
+                .weight(scenario.getMinOrderWeight()
+                    + random.nextDouble() * (scenario.getMaxOrderWeight() - scenario.getMinOrderWeight()))
+                .priority(Order.Priority.values()[random.nextInt(Order.Priority.values().length)])
+                .status(Order.OrderStatus.PENDING)
+                .createdAt(clock.now())
+                .build();
+            scheduleNextArrival(clock.getElapsedSeconds());
+
+            if (activeZones.containsPoint(order.getLocationX(), order.getLocationY())) {
+                rejectedOrders++;
+                return;
+            }
+            pending.put(order.getId(), order);
+            requestAllocation();
+        }
+
+        private void requestAllocation() {
+            if (allocationScheduled || pending.isEmpty()) return;
+            if (fleet.stream().noneMatch(this::isAvailable)) return;
+            allocationScheduled = true;
+            schedule(clock.getElapsedSeconds() + scenario.getAllocationDelaySeconds(), EventType.ALLOCATE, null);
+        }
+
+        private boolean isAvailable(Drone drone) {
+            return drone.getStatus() == Drone.DroneStatus.IDLE && drone.getCurrentBattery() > AllocationService.MIN_BATTERY;
+        }
+
+        private void onAllocate() {
+            allocationScheduled = false;
+            List<Drone> idle = fleet.stream().filter(this::isAvailable).toList();
+            if (idle.isEmpty() || pending.isEmpty()) return;
+
+            double capacity = idle.stream().mapToDouble(Drone::getMaxWeight).max().orElse(0);
+            List<Order> candidates = new ArrayList<>();
+            for (Order order : pending.values()) {
+                if (order.getWeight() <= capacity) candidates.add(order);
+            }
+            candidates.sort(Comparator.comparing(Order::getPriority).reversed()
+                .thenComparing(Order::getCreatedAt));
+
+            AllocationResult result = allocationService.planAllocation(idle, candidates, clock.now(), this::legDistance);
+            allocationRounds++;
+            for (Drone drone : idle) {
+                List<Order> load = result.getAllocation().get(drone.getId());
+                if (load == null || load.isEmpty()) continue;
+                Flight flight = flights.get(drone.getId());
+                flight.route = new ArrayDeque<>(load);
+                for (Order order : load) {
+                    order.setStatus(Order.OrderStatus.ASSIGNED);
+                    order.setAssignedDroneId(drone.getId());
+                    pending.remove(order.getId());
+                    assignedOpen++;
+                }
+                setStatus(drone, Drone.DroneStatus.LOADING);
+                schedule(clock.getElapsedSeconds() + scenario.getLoadingSeconds(), EventType.DEPART, drone);
+            }
+        }
+
+        private void onDepart(Drone drone) {
+            setStatus(drone, Drone.DroneStatus.FLYING);
+            flyToNextStop(drone, clock.getElapsedSeconds());
+        }
+
+        private void flyToNextStop(Drone drone, double departure) {
+            Flight flight = flights.get(drone.getId());
+            while (!flight.route.isEmpty()) {
+                Order next = flight.route.peek();
+                double distance = legDistance(
+                    drone.getCurrentX(), drone.getCurrentY(), next.getLocationX(), next.getLocationY());
+                if (Double.isFinite(distance)) {
+                    startLeg(drone, next.getLocationX(), next.getLocationY(), distance, departure, true);
+                    return;
+                }
+                // Sem rota livre até a parada: o pedido volta para a fila
+                release(flight.route.poll());
+            }
+            returnToBase(drone, departure);
+        }
+
+        /**
+         * Agenda a chegada do trecho; se a bateria for cruzar o limite antes,
+         * agenda o evento de bateria baixa no ponto do cruzamento.
+         */
+        private void startLeg(Drone drone, double targetX, double targetY, double distance,
+                              double departure, boolean toStop) {
+            Flight flight = flights.get(drone.getId());
+            flight.fromX = drone.getCurrentX();
+            flight.fromY = drone.getCurrentY();
+            flight.toX = targetX;
+            flight.toY = targetY;
+            flight.distance = distance;
+            flight.flown = distance;
+            // Pedidos ainda não entregues seguem a bordo, como no tick ao vivo
+            double payload = flight.route.stream().mapToDouble(Order::getWeight).sum();
+            flight.drain = kinematics.drainPerUnit(drone, payload);
+            double speed = kinematics.cruiseSpeed(drone);
+
+            double spendable = drone.getCurrentBattery() - kinematics.getBatteryReserve();
+            if (toStop && distance * flight.drain > spendable) {
+                flight.flown = Math.max(0, spendable / flight.drain);
+                schedule(departure + flight.flown / speed, EventType.BATTERY_LOW, drone);
+                return;
+            }
+            schedule(departure + distance / speed, toStop ? EventType.STOP_ARRIVAL : EventType.BASE_ARRIVAL, drone);
+        }
+
+        private void completeLeg(Drone drone) {
+            Flight flight = flights.get(drone.getId());
+            double fraction = flight.distance > 0 ? flight.flown / flight.distance : 1.0;
+            // Posição interpolada na reta entre as pontas (o desvio real não é reconstituído)
+            drone.setCurrentX(flight.fromX + (flight.toX - flight.fromX) * fraction);
+            drone.setCurrentY(flight.fromY + (flight.toY - flight.fromY) * fraction);
+            double used = flight.flown * flight.drain;
+            drone.setCurrentBattery(Math.max(0, drone.getCurrentBattery() - used));
+            totalDistance += flight.flown;
+        }
+
+        private void onStopArrival(Drone drone) {
+            completeLeg(drone);
+            Flight flight = flights.get(drone.getId());
+            Order order = flight.route.poll();
+            if (order != null) {
+                order.setStatus(Order.OrderStatus.DELIVERED);
+                order.setDeliveredAt(clock.now());
+                assignedOpen--;
+                deliveryMinutes.add(Duration.between(order.getCreatedAt(), order.getDeliveredAt()).toMillis() / 60_000.0);
+            }
+            setStatus(drone, Drone.DroneStatus.DELIVERING);
+            double departure = clock.getElapsedSeconds() + scenario.getServiceSeconds();
+            if (flight.route.isEmpty()) {
+                returnToBase(drone, departure);
+            } else {
+                setStatus(drone, Drone.DroneStatus.FLYING);
+                flyToNextStop(drone, departure);
+            }
+        }
+
+        private void onBatteryLow(Drone drone) {
+            completeLeg(drone);
+            Flight flight = flights.get(drone.getId());
+            while (!flight.route.isEmpty()) release(flight.route.poll());
+            batteryAborts++;
+            returnToBase(drone, clock.getElapsedSeconds());
+        }
+
+        private void returnToBase(Drone drone, double departure) {
+            setStatus(drone, Drone.DroneStatus.RETURNING);
+            double distance = legDistance(
+                drone.getCurrentX(), drone.getCurrentY(), drone.getBaseX(), drone.getBaseY());
+            if (!Double.isFinite(distance)) {
+                distance = allocationService.calculateDistance(
+                    drone.getCurrentX(), drone.getCurrentY(), drone.getBaseX(), drone.getBaseY());
+            }
+            startLeg(drone, drone.getBaseX(), drone.getBaseY(), distance, departure, false);
+        }
+
+        private void onBaseArrival(Drone drone) {
+            completeLeg(drone);
+            drone.setCurrentX(drone.getBaseX());
+            drone.setCurrentY(drone.getBaseY());
+            if (drone.getCurrentBattery() < scenario.getChargeThreshold()) {
+                setStatus(drone, Drone.DroneStatus.CHARGING);
+                chargeCycles++;
+                double seconds = (scenario.getChargeTarget() - drone.getCurrentBattery()) / scenario.getChargePercentPerSecond();
+                schedule(clock.getElapsedSeconds() + Math.max(0, seconds), EventType.CHARGE_COMPLETE, drone);
+            } else {
+                setStatus(drone, Drone.DroneStatus.IDLE);
+                requestAllocation();
+            }
+        }
+
+        private void onChargeComplete(Drone drone) {
+            drone.setCurrentBattery(Math.max(drone.getCurrentBattery(), scenario.getChargeTarget()));
+            setStatus(drone, Drone.DroneStatus.IDLE);
+            requestAllocation();
+        }
+
+        private void release(Order order) {
+            order.setStatus(Order.OrderStatus.PENDING);
+            order.setAssignedDroneId(null);
+            order.setDeliverySequence(null);
+            pending.put(order.getId(), order);
+            assignedOpen--;
+        }
+
+        /**
+         * Troca o status acumulando o tempo em operação (fora de IDLE e CHARGING).
+         */
+        private void setStatus(Drone drone, Drone.DroneStatus status) {
+            Flight flight = flights.get(drone.getId());
+            double now = clock.getElapsedSeconds();
+            Drone.DroneStatus current = drone.getStatus();
+            if (current != Drone.DroneStatus.IDLE && current != Drone.DroneStatus.CHARGING) {
+                busySeconds += now - flight.statusSince;
+            }
+            flight.statusSince = now;
+            drone.setStatus(status);
+        }
+
+        SimulationReport report(long wallClockMs) {
+            List<Double> sorted = new ArrayList<>(deliveryMinutes);
+            sorted.sort(null);
+            double average = sorted.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            double p95 = sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(0.95 * sorted.size()) - 1);
+            int accepted = totalOrders - rejectedOrders;
+
+            return SimulationReport.builder()
+                .simulatedHours(scenario.getDurationHours())
+                .wallClockMs(wallClockMs)
+                .eventsProcessed(events)
+                .allocationRounds(allocationRounds)
+                .totalOrders(totalOrders)
+                .deliveredOrders(deliveryMinutes.size())
+                .pendingOrders(pending.size() + assignedOpen)
+                .rejectedOrders(rejectedOrders)
+                .deliveryRate(accepted == 0 ? 0 : (double) deliveryMinutes.size() / accepted)
+                .averageDeliveryTimeMinutes(average)
+                .p95DeliveryTimeMinutes(p95)
+                .totalDistance(totalDistance)
+                .droneUtilization(busySeconds / (fleet.size() * endSeconds))
+                .batteryAborts(batteryAborts)
+                .chargeCycles(chargeCycles)
+                .build();
+        }
+    }
+
+    /**
+     * Rota restante e trecho em voo de um drone.
+     */
+    private static class Flight {
+        private Deque<Order> route = new ArrayDeque<>();
+        private double statusSince;
+        private double fromX;
+        private double fromY;
+        private double toX;
+        private double toY;
+        private double distance;
+        private double flown;
+        private double drain;
+    }
+}
@@ -0,0 +1,173 @@
+package com.dti.drone_delivery.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.dto.PositionSample;
+import com.dti.drone_delivery.model.Drone;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Modelo cinemático do voo: o drone segue a rota planejada até o alvo
+ * (contornando obstáculos) à sua velocidade de cruzeiro, avançando
+ * velocidade × dt por tick. A bateria cai com a distância voada, mais
+ * depressa quanto mais carga houver a bordo.
+ *
+ * Cada drone só é avançado pela thread da sua partição do tick; o mapa de
+ * voos é concorrente porque partições diferentes o alteram ao mesmo tempo.
+ */
+@Component
+@RequiredArgsConstructor
+public class DroneKinematics {
+
+    private static final double EPSILON = 1e-9;
+
+    private final ObstacleRoutePlanner routePlanner;
+
+    @Value("${drone.kinematics.default-cruise-speed:0.5}")
+    private double defaultCruiseSpeed = 0.5;
+
+    // Consumo extra com carga máxima: 0.3 = 30% a mais por unidade voada
+    @Value("${drone.kinematics.payload-drain-factor:0.3}")
+    private double payloadDrainFactor = 0.3;
+
+    // Bateria (%) que precisa sobrar ao pousar: a alocação planeja com ela
+    // e o voo aborta para a base se cair abaixo dela
+    @Value("${drone.kinematics.battery-reserve:10.0}")
+    private double batteryReserve = 10.0;
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Trecho em andamento: pontos restantes da rota até o alvo, rumo e
+     * velocidade atuais.
+     */
+    private static final class Flight {
+        private final String target;
+        private final List<double[]> waypoints;
+        private int next;
+        private double heading;
+        private double speed;
+
+        Flight(String target, List<double[]> waypoints, double heading) {
+            this.target = target;
+            this.waypoints = waypoints;
+            this.heading = heading;
+        }
+    }
+
+    /** Resultado de um avanço: distância voada e se o alvo foi alcançado. */
+    public record Step(double distance, boolean arrived) {
+    }
+
+    /**
+     * Avança o drone por {@code dt} segundos rumo ao alvo. O alvo é
+     * identificado por {@code target} (ex.: id do pedido ou "base"); a rota
+     * é replanejada quando ele muda ou quando o trecho anterior terminou.
+     */
+    public Step advance(Drone drone, String target, double targetX, double targetY, double payload, double dt) {
+        double x = orZero(drone.getCurrentX());
+        double y = orZero(drone.getCurrentY());
+        Flight flight = flights.get(drone.getId());
+        if (flight == null || !flight.target.equals(target) || flight.next >= flight.waypoints.size()) {
+            flight = plan(target, x, y, targetX, targetY, flight != null ? flight.heading : 0.0);
+            flights.put(drone.getId(), flight);
+        }
+
+        double budget = cruiseSpeed(drone) * Math.max(0, dt);
+        double flown = 0;
+        while (budget > EPSILON && flight.next < flight.waypoints.size()) {
+            double[] waypoint = flight.waypoints.get(flight.next);
+            double dx = waypoint[0] - x;
+            double dy = waypoint[1] - y;
+            double distance = Math.hypot(dx, dy);
+            if (distance > EPSILON) flight.heading = Math.toDegrees(Math.atan2(dy, dx));
+            if (distance <= budget) {
+                x = waypoint[0];
+                y = waypoint[1];
+                budget -= distance;
+                flown += distance;
+                flight.next++;
+            } else {
+                x += dx / distance * budget;
+                y += dy / distance * budget;
+                flown += budget;
+                budget = 0;
+            }
+        }
+
+        boolean arrived = flight.next >= flight.waypoints.size();
+        flight.speed = arrived ? 0 : cruiseSpeed(drone);
+        drone.setCurrentX(x);
+        drone.setCurrentY(y);
+        double battery = orZero(drone.getCurrentBattery());
+        drone.setCurrentBattery(Math.max(0, battery - flown * drainPerUnit(drone, payload)));
+        return new Step(flown, arrived);
+    }
+
+    /**
+     * Bateria (%) gasta por unidade voada: a carga cheia cobre maxDistance
+     * vazio, com acréscimo proporcional à carga. A alocação e o simulador de
+     * eventos discretos usam o mesmo consumo.
+     */
+    public double drainPerUnit(Drone drone, double payload) {
+        double capacity = drone.getBatteryCapacity() != null ? drone.getBatteryCapacity() : 100.0;
+        double range = drone.getMaxDistance() != null && drone.getMaxDistance() > 0 ? drone.getMaxDistance() : 50.0;
+        double loadFraction = drone.getMaxWeight() != null && drone.getMaxWeight() > 0
+            ? Math.min(1.0, payload / drone.getMaxWeight()) : 0.0;
+        return capacity / range * (1 + payloadDrainFactor * loadFraction);
+    }
+
+    public double getBatteryReserve() {
+        return batteryReserve;
+    }
+
+    public double cruiseSpeed(Drone drone) {
+        return drone.getCruiseSpeed() != null && drone.getCruiseSpeed() > 0 ? drone.getCruiseSpeed() : defaultCruiseSpeed;
+    }
+
+    /**
+     * Drone parado (na base ou carregando): velocidade zero, mantendo o rumo.
+     */
+    public void land(String droneId) {
+        Flight flight = flights.get(droneId);
+        if (flight != null) flight.speed = 0;
+    }
+
+    public void clear() {
+        flights.clear();
+    }
+
+    public PositionSample sample(Drone drone, long epochMillis) {
+        Flight flight = flights.get(drone.getId());
+        return new PositionSample(
+            drone.getId(),
+            round(orZero(drone.getCurrentX())),
+            round(orZero(drone.getCurrentY())),
+            flight != null ? round(flight.heading) : 0.0,
+            flight != null ? round(flight.speed) : 0.0,
+            round(orZero(drone.getCurrentBattery())),
+            drone.getStatus() != null ? drone.getStatus().name() : null,
+            epochMillis);
+    }
+
+    private Flight plan(String target, double x, double y, double targetX, double targetY, double heading) {
+        ObstacleRoutePlanner.Route route = routePlanner.plan(x, y, targetX, targetY);
+        List<double[]> points = route.points();
+        // O primeiro ponto é a posição atual
+        return new Flight(target, points.subList(1, points.size()), heading);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static double orZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -3,9 +3,11 @@ package com.dti.drone_delivery.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.dti.drone_delivery.dto.DroneResponse;
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
 import com.dti.drone_delivery.model.Drone;
 import com.dti.drone_delivery.repository.DroneRepository;
 
@@ -16,9 +18,13 @@ import lombok.RequiredArgsConstructor;
 public class DroneService {
     
     private final DroneRepository droneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FleetStateEngine fleetStateEngine;
     
     public Drone createDrone(Drone drone) {
-        return droneRepository.save(drone);
+        Drone saved = droneRepository.save(drone);
+        eventPublisher.publishEvent(new DroneStatusChangedEvent(saved, null));
+        return saved;
     }
     
     public List<DroneResponse> getAllDrones() {
@@ -41,20 +47,26 @@ public class DroneService {
             .collect(Collectors.toList());
     }
     
+    // Status e bateria passam pelo estado vivo, descarregado antes do evento (a alocação lê do banco)
     public Drone updateDroneStatus(String id, Drone.DroneStatus status) {
-        Drone drone = droneRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Drone não encontrado"));
-        drone.setStatus(status);
-        drone.setLastUpdate(java.time.LocalDateTime.now());
-        return droneRepository.save(drone);
+        Drone.DroneStatus previousStatus = fleetStateEngine.update(id, drone -> {
+            drone.setStatus(status);
+            drone.setLastUpdate(java.time.LocalDateTime.now());
+        });
+        fleetStateEngine.flush();
+        Drone drone = fleetStateEngine.drone(id);
+        eventPublisher.publishEvent(new DroneStatusChangedEvent(drone, previousStatus));
+        return drone;
     }
     
     public void rechargeDrone(String id) {
-        Drone drone = droneRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Drone não encontrado"));
-        drone.setCurrentBattery(100.0);
-        drone.setStatus(Drone.DroneStatus.IDLE);
-        droneRepository.save(drone);
+        Drone.DroneStatus previousStatus = fleetStateEngine.update(id, drone -> {
+            drone.setCurrentBattery(100.0);
+            drone.setStatus(Drone.DroneStatus.IDLE);
+            drone.setLastUpdate(java.time.LocalDateTime.now());
+        });
+        fleetStateEngine.flush();
+        eventPublisher.publishEvent(new DroneStatusChangedEvent(fleetStateEngine.drone(id), previousStatus));
     }
     
     public long countByStatus(Drone.DroneStatus status) {
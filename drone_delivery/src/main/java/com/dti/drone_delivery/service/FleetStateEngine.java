@@ -0,0 +1,270 @@
+package com.dti.drone_delivery.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.repository.DroneRepository;
+import com.dti.drone_delivery.repository.OrderRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Estado vivo da frota em memória: drones e as paradas de cada um. O tick
+ * da simulação só lê e altera este estado; o banco recebe as mudanças por
+ * escrita atrasada (write-behind), em lotes, a cada intervalo de descarga.
+ *
+ * Mudanças de fora do tick (API de drones, eventos da alocação) são
+ * aplicadas na thread da partição dona do drone, via
+ * {@link FleetTickExecutor#submitTo}, nunca em paralelo com o passo dele.
+ *
+ * A API de drones altera status e bateria por {@link #update}, então o
+ * motor é o único a gravar bateria e posição. A alocação troca o status
+ * direto no banco e avisa pelo evento de status; para não sobrescrever essa
+ * troca, o motor guarda o último status que sabe estar no banco e só grava
+ * um status novo sobre ele. Na subida, o estado é recarregado do que foi
+ * descarregado por último.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FleetStateEngine {
+
+    private static final Comparator<Order> BY_SEQUENCE =
+        Comparator.comparing(Order::getDeliverySequence, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final DroneRepository droneRepository;
+    private final OrderRepository orderRepository;
+    private final FleetStateWriter fleetStateWriter;
+    private final FleetTickExecutor fleetTickExecutor;
+
+    private final Map<String, Drone> drones = new ConcurrentHashMap<>();
+    // Último status sabidamente gravado no banco, por drone
+    private final Map<String, Drone.DroneStatus> persistedStatus = new ConcurrentHashMap<>();
+    // Listas imutáveis, trocadas inteiras a cada mudança
+    private final Map<String, List<Order>> stops = new ConcurrentHashMap<>();
+    private final Set<String> dirtyDrones = ConcurrentHashMap.newKeySet();
+    private final Map<String, Order> deliveries = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @Value("${drone.fleet.flush-interval-ms:1000}")
+    private long flushIntervalMs = 1000;
+
+    /**
+     * (Re)carrega drones e rotas em andamento do banco.
+     */
+    public synchronized void load() {
+        drones.clear();
+        persistedStatus.clear();
+        stops.clear();
+        dirtyDrones.clear();
+        deliveries.clear();
+
+        droneRepository.findAll().forEach(drone -> {
+            drones.put(drone.getId(), drone);
+            persistedStatus.put(drone.getId(), drone.getStatus());
+        });
+        List<Order> open = new ArrayList<>(orderRepository.findByStatus(Order.OrderStatus.ASSIGNED));
+        open.addAll(orderRepository.findByStatus(Order.OrderStatus.IN_TRANSIT));
+        for (Order order : open) {
+            if (order.getAssignedDroneId() != null) upsertStop(order.getAssignedDroneId(), order);
+        }
+        log.info("🛰️ Estado da frota carregado: {} drones, {} pedidos em rota", drones.size(), open.size());
+    }
+
+    public synchronized void start() {
+        if (flusher != null) return;
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fleet-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Exception e) {
+                log.error("Erro ao descarregar estado da frota: {}", e.getMessage());
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) flusher.shutdownNow();
+        flush();
+    }
+
+    public List<Drone> drones() {
+        return new ArrayList<>(drones.values());
+    }
+
+    /**
+     * Paradas ainda não entregues do drone, na sequência planejada.
+     */
+    public List<Order> stops(String droneId) {
+        return stops.getOrDefault(droneId, List.of());
+    }
+
+    public void markDirty(Drone drone) {
+        dirtyDrones.add(drone.getId());
+    }
+
+    /**
+     * Aplica uma mudança vinda de fora do tick (API de drones) no drone vivo
+     * e agenda a gravação. Devolve o status anterior à mudança.
+     */
+    public Drone.DroneStatus update(String droneId, Consumer<Drone> change) {
+        Drone drone = drone(droneId);
+        return fleetTickExecutor.submitTo(droneId, () -> {
+            Drone.DroneStatus previousStatus = drone.getStatus();
+            change.accept(drone);
+            markDirty(drone);
+            return previousStatus;
+        });
+    }
+
+    public Drone drone(String droneId) {
+        Drone drone = drones.get(droneId);
+        if (drone == null) throw new RuntimeException("Drone não encontrado: " + droneId);
+        return drone;
+    }
+
+    public void completeStop(String droneId, Order order, LocalDateTime deliveredAt) {
+        order.setStatus(Order.OrderStatus.DELIVERED);
+        order.setDeliveredAt(deliveredAt);
+        deliveries.put(order.getId(), order);
+        removeStop(droneId, order.getId());
+    }
+
+    public void clearAssignments() {
+        stops.clear();
+        deliveries.clear();
+    }
+
+    public int pendingWrites() {
+        return dirtyDrones.size() + deliveries.size();
+    }
+
+    /**
+     * Grava tudo o que estiver sujo num único lote. Em caso de falha as
+     * entradas voltam para a fila e seguem na próxima descarga.
+     */
+    public synchronized void flush() {
+        if (dirtyDrones.isEmpty() && deliveries.isEmpty()) return;
+
+        List<String> droneIds = new ArrayList<>(dirtyDrones);
+        dirtyDrones.removeAll(droneIds);
+        List<FleetStateWriter.DroneState> states = new ArrayList<>(droneIds.size());
+        for (String id : droneIds) {
+            Drone drone = drones.get(id);
+            if (drone != null) states.add(FleetStateWriter.DroneState.of(drone, persistedStatus.get(id)));
+        }
+        List<Order> delivered = new ArrayList<>(deliveries.values());
+        delivered.forEach(order -> deliveries.remove(order.getId(), order));
+        List<FleetStateWriter.Delivery> rows = delivered.stream().map(FleetStateWriter.Delivery::of).toList();
+
+        List<String> rejected;
+        try {
+            rejected = fleetStateWriter.flush(states, rows);
+        } catch (RuntimeException e) {
+            dirtyDrones.addAll(droneIds);
+            delivered.forEach(order -> deliveries.putIfAbsent(order.getId(), order));
+            throw e;
+        }
+        for (FleetStateWriter.DroneState state : states) {
+            if (rejected.contains(state.id())) {
+                // Quem trocou no banco publica o evento, que atualiza o drone vivo
+                log.debug("Status de {} mudou no banco; {} não foi gravado", state.id(), state.status());
+            } else if (state.status() != null) {
+                persistedStatus.put(state.id(), state.status());
+            }
+        }
+    }
+
+    /**
+     * Incorpora trocas de status feitas fora do tick. Os eventos do próprio
+     * tick e da API de drones (que altera a bateria por {@link #update})
+     * carregam a instância viva e não alteram nada. Dos demais só o status
+     * vale: a bateria deles vem de uma linha do banco que pode estar uma
+     * descarga atrasada e faria o estado vivo voltar no tempo.
+     */
+    @EventListener
+    public void onDroneStatusChanged(DroneStatusChangedEvent event) {
+        Drone incoming = event.getDrone();
+        if (incoming.getId() == null) return;
+        Drone live = drones.putIfAbsent(incoming.getId(), incoming);
+        if (live == incoming) return;
+        persistedStatus.put(incoming.getId(), incoming.getStatus());
+        if (live == null) return;
+        Drone.DroneStatus status = incoming.getStatus();
+        fleetTickExecutor.submitTo(live.getId(), () -> {
+            live.setStatus(status);
+            return null;
+        });
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Order order = event.getOrder();
+        if (order.getStatus() == Order.OrderStatus.ASSIGNED && order.getAssignedDroneId() != null) {
+            String droneId = order.getAssignedDroneId();
+            Drone drone = drones.get(droneId);
+            if (drone != null && drone.getStatus() == Drone.DroneStatus.LOADING) {
+                // Entrou numa carga já montada (preempção): a sequência das demais mudou no banco
+                reloadStops(droneId);
+            } else {
+                upsertStop(droneId, order);
+            }
+        } else if (order.getStatus() != Order.OrderStatus.IN_TRANSIT) {
+            for (String droneId : stops.keySet()) removeStop(droneId, order.getId());
+        }
+    }
+
+    private void reloadStops(String droneId) {
+        List<Order> route = new ArrayList<>();
+        for (Order order : orderRepository.findByAssignedDroneId(droneId)) {
+            boolean open = order.getStatus() == Order.OrderStatus.ASSIGNED
+                || order.getStatus() == Order.OrderStatus.IN_TRANSIT;
+            if (open && !deliveries.containsKey(order.getId())) route.add(order);
+        }
+        route.sort(BY_SEQUENCE);
+        stops.put(droneId, List.copyOf(route));
+    }
+
+    private void upsertStop(String droneId, Order order) {
+        stops.compute(droneId, (id, current) -> {
+            List<Order> route = new ArrayList<>(current == null ? List.of() : current);
+            route.removeIf(o -> o.getId().equals(order.getId()));
+            route.add(order);
+            route.sort(BY_SEQUENCE);
+            return List.copyOf(route);
+        });
+    }
+
+    private void removeStop(String droneId, String orderId) {
+        stops.computeIfPresent(droneId, (id, current) -> {
+            if (current.stream().noneMatch(o -> o.getId().equals(orderId))) return current;
+            List<Order> route = new ArrayList<>(current);
+            route.removeIf(o -> o.getId().equals(orderId));
+            return route.isEmpty() ? null : List.copyOf(route);
+        });
+    }
+}
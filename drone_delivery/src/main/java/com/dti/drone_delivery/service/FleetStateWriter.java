@@ -0,0 +1,97 @@
+package com.dti.drone_delivery.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Grava o estado acumulado pelo {@link FleetStateEngine} em lotes JDBC,
+ * numa transação por descarga.
+ *
+ * O status não é sobrescrito às cegas: a alocação troca IDLE → LOADING
+ * direto no banco, então a troca só vale se o banco ainda tiver o status que
+ * o motor conhecia. Bateria e posição só são escritas pelo motor.
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetStateWriter {
+
+    private static final String UPDATE_DRONE =
+        "UPDATE drones SET current_battery = ?, currentx = ?, currenty = ?, last_update = ? WHERE id = ?";
+
+    private static final String UPDATE_STATUS =
+        "UPDATE drones SET status = ? WHERE id = ? AND status = ?";
+
+    // Só fecha pedidos que ainda estão na rota; um cancelamento no meio do caminho prevalece
+    private static final String DELIVER_ORDER =
+        "UPDATE orders SET status = 'DELIVERED', delivered_at = ? WHERE id = ? AND status IN ('ASSIGNED', 'IN_TRANSIT')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cópia imutável do que será gravado de um drone. {@code expectedStatus}
+     * é o status que o motor sabe estar no banco.
+     */
+    public record DroneState(String id, Drone.DroneStatus status, Drone.DroneStatus expectedStatus,
+            Double battery, Double x, Double y, LocalDateTime updatedAt) {
+        public static DroneState of(Drone drone, Drone.DroneStatus expectedStatus) {
+            return new DroneState(drone.getId(), drone.getStatus(), expectedStatus, drone.getCurrentBattery(),
+                drone.getCurrentX(), drone.getCurrentY(), drone.getLastUpdate());
+        }
+
+        boolean statusChanged() {
+            return status != null && expectedStatus != null && status != expectedStatus;
+        }
+    }
+
+    public record Delivery(String orderId, LocalDateTime deliveredAt) {
+        public static Delivery of(Order order) {
+            return new Delivery(order.getId(), order.getDeliveredAt());
+        }
+    }
+
+    /**
+     * Devolve os drones cuja troca de status foi recusada porque o banco já
+     * tinha outro status.
+     */
+    @Transactional
+    public List<String> flush(List<DroneState> drones, List<Delivery> deliveries) {
+        List<String> rejected = new ArrayList<>();
+        if (!drones.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(drones.size());
+            List<DroneState> changed = new ArrayList<>();
+            List<Object[]> statusRows = new ArrayList<>();
+            for (DroneState drone : drones) {
+                rows.add(new Object[]{drone.battery(), drone.x(), drone.y(), drone.updatedAt(), drone.id()});
+                if (drone.statusChanged()) {
+                    changed.add(drone);
+                    statusRows.add(new Object[]{drone.status().name(), drone.id(), drone.expectedStatus().name()});
+                }
+            }
+            jdbcTemplate.batchUpdate(UPDATE_DRONE, rows);
+            if (!statusRows.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS, statusRows);
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) rejected.add(changed.get(i).id());
+                }
+            }
+        }
+        if (!deliveries.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(deliveries.size());
+            for (Delivery delivery : deliveries) {
+                rows.add(new Object[]{delivery.deliveredAt(), delivery.orderId()});
+            }
+            jdbcTemplate.batchUpdate(DELIVER_ORDER, rows);
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,203 @@
+package com.dti.drone_delivery.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.model.Drone;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executa o tick da frota em partições fixas por hash do id do drone, cada
+ * partição na sua própria thread. Um drone é sempre atualizado pela mesma
+ * thread (escritor único da sua máquina de estados) e o tick só termina
+ * quando todas as partições terminam (barreira). Mudanças vindas de fora do
+ * tick entram pela mesma fila com {@link #submitTo}.
+ */
+@Component
+@Slf4j
+public class FleetTickExecutor {
+
+    @Value("${drone.fleet.tick.partitions:0}")
+    private int partitions = 0; // 0 = um por núcleo
+
+    @Value("${drone.fleet.tick.warn-ms:1000}")
+    private long warnMs = 1000;
+
+    private ExecutorService[] workers;
+    // Partição atendida pela thread corrente (só nas threads deste executor)
+    private final ThreadLocal<Integer> currentPartition = new ThreadLocal<>();
+
+    private volatile TickStats lastTick;
+    private long ticks;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * Duração de um tick: total (até a barreira) e da partição mais lenta.
+     */
+    public record TickStats(int drones, int partitions, long elapsedNanos, long slowestPartitionNanos) {
+        public double elapsedMs() {
+            return elapsedNanos / 1e6;
+        }
+    }
+
+    public FleetTickExecutor() {
+    }
+
+    public FleetTickExecutor(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public int partitionCount() {
+        return partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int partitionOf(Drone drone, int count) {
+        return partitionOf(drone.getId(), count);
+    }
+
+    private static int partitionOf(String droneId, int count) {
+        return droneId != null ? Math.floorMod(droneId.hashCode(), count) : 0;
+    }
+
+    /**
+     * Roda {@code action} na thread da partição do drone e espera o
+     * resultado, serializado com o tick: se um tick estiver em andamento, a
+     * ação entra depois da partição terminar. Chamado da própria partição,
+     * roda direto.
+     */
+    public <T> T submitTo(String droneId, Supplier<T> action) {
+        ExecutorService[] pool = workers();
+        int partition = partitionOf(droneId, pool.length);
+        if (Integer.valueOf(partition).equals(currentPartition.get())) return action.get();
+
+        try {
+            return pool[partition].submit(action::get).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Atualização do drone " + droneId + " interrompida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException("Erro ao atualizar drone " + droneId + ": " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Aplica {@code step} a cada drone na thread da sua partição e devolve os
+     * resultados não nulos, agrupados na ordem das partições. Falha num drone
+     * é registrada e não interrompe os demais.
+     */
+    public <T> List<T> tick(List<Drone> drones, Function<Drone, T> step) {
+        long start = System.nanoTime();
+        ExecutorService[] pool = workers();
+        int count = pool.length;
+
+        List<List<Drone>> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) buckets.add(new ArrayList<>());
+        for (Drone drone : drones) buckets.get(partitionOf(drone, count)).add(drone);
+
+        List<Future<Partition<T>>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Drone> bucket = buckets.get(i);
+            if (bucket.isEmpty()) continue;
+            futures.add(pool[i].submit(() -> runPartition(bucket, step)));
+        }
+
+        List<T> results = new ArrayList<>();
+        long slowest = 0;
+        for (Future<Partition<T>> future : futures) {
+            try {
+                Partition<T> partition = future.get();
+                results.addAll(partition.results());
+                slowest = Math.max(slowest, partition.elapsedNanos());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Tick da frota interrompido");
+            } catch (ExecutionException e) {
+                log.error("Erro numa partição do tick: {}", e.getCause().getMessage());
+            }
+        }
+
+        record(new TickStats(drones.size(), count, System.nanoTime() - start, slowest));
+        return results;
+    }
+
+    public TickStats getLastTick() {
+        return lastTick;
+    }
+
+    public synchronized double averageTickMs() {
+        return ticks > 0 ? totalNanos / 1e6 / ticks : 0;
+    }
+
+    public synchronized double maxTickMs() {
+        return maxNanos / 1e6;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (workers == null) return;
+        for (ExecutorService worker : workers) worker.shutdownNow();
+        workers = null;
+    }
+
+    private record Partition<T>(List<T> results, long elapsedNanos) {
+    }
+
+    private <T> Partition<T> runPartition(List<Drone> drones, Function<Drone, T> step) {
+        long start = System.nanoTime();
+        List<T> results = new ArrayList<>();
+        for (Drone drone : drones) {
+            try {
+                T result = step.apply(drone);
+                if (result != null) results.add(result);
+            } catch (RuntimeException e) {
+                log.error("Erro ao atualizar drone {}: {}", drone.getName(), e.getMessage());
+            }
+        }
+        return new Partition<>(results, System.nanoTime() - start);
+    }
+
+    private synchronized ExecutorService[] workers() {
+        if (workers == null) {
+            int count = partitionCount();
+            workers = new ExecutorService[count];
+            for (int i = 0; i < count; i++) {
+                String name = "fleet-tick-" + i;
+                int partition = i;
+                workers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(() -> {
+                        currentPartition.set(partition);
+                        runnable.run();
+                    }, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            log.info("🧵 Tick da frota em {} partições", count);
+        }
+        return workers;
+    }
+
+    private synchronized void record(TickStats stats) {
+        lastTick = stats;
+        ticks++;
+        totalNanos += stats.elapsedNanos();
+        maxNanos = Math.max(maxNanos, stats.elapsedNanos());
+        if (stats.elapsedMs() > warnMs) {
+            log.warn("⏱️ Tick da frota lento: {} ms para {} drones em {} partições",
+                String.format("%.1f", stats.elapsedMs()), stats.drones(), stats.partitions());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.dti.drone_delivery.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Atribuição global (heurística MTHM para múltiplas mochilas): os pedidos,
+ * em ordem de densidade de valor, vão para o drone de maior valor onde ainda
+ * cabem; depois cada drone é reotimizado por mochila sobre a própria carga
+ * mais os pedidos que sobraram, enquanto houver prazo.
+ */
+@Component
+@Slf4j
+public class GlobalAssignmentStrategy implements AssignmentStrategy {
+
+    public static final String NAME = "global";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, List<Order>> assign(List<Drone> drones, List<Order> orders, AllocationContext context) {
+        int m = drones.size();
+        double[] remainingCapacity = new double[m];
+        List<List<Order>> loads = new ArrayList<>(m);
+        for (int j = 0; j < m; j++) {
+            remainingCapacity[j] = drones.get(j).getMaxWeight();
+            loads.add(new ArrayList<>());
+        }
+
+        // Construção: pedidos mais densos primeiro, drone de maior valor com melhor encaixe
+        // Se o prazo acabar, os pedidos ainda não avaliados ficam para a próxima rodada
+        List<Order> candidates = new ArrayList<>(orders.size());
+        Map<Order, Double> density = new IdentityHashMap<>();
+        for (Order order : orders) {
+            if (context.isExpired()) {
+                log.debug("Prazo de alocação esgotado na avaliação ({} de {} pedidos)", candidates.size(), orders.size());
+                break;
+            }
+            candidates.add(order);
+            double best = 0;
+            for (Drone drone : drones) {
+                if (context.isFeasible(drone, order)) best = Math.max(best, context.value(drone, order));
+            }
+            density.put(order, best / Math.max(order.getWeight(), 1e-6));
+        }
+        candidates.sort((a, b) -> Double.compare(density.get(b), density.get(a)));
+
+        List<Order> unassigned = new ArrayList<>();
+        for (Order order : candidates) {
+            int bestDrone = -1;
+            double bestValue = 0;
+            for (int j = 0; j < m; j++) {
+                Drone drone = drones.get(j);
+                if (order.getWeight() > remainingCapacity[j] || !context.isFeasible(drone, order)) continue;
+                double value = context.value(drone, order);
+                if (bestDrone < 0 || value > bestValue
+                        || (value == bestValue && remainingCapacity[j] < remainingCapacity[bestDrone])) {
+                    bestDrone = j;
+                    bestValue = value;
+                }
+            }
+            if (bestDrone >= 0) {
+                loads.get(bestDrone).add(order);
+                remainingCapacity[bestDrone] -= order.getWeight();
+            } else {
+                unassigned.add(order);
+            }
+        }
+
+        for (int j = 0; j < m; j++) {
+            unassigned.addAll(context.trimToRange(drones.get(j), loads.get(j)));
+        }
+
+        // Melhoria: reotimiza cada drone com a própria carga + pedidos não atribuídos
+        for (int j = 0; j < m && !unassigned.isEmpty(); j++) {
+            if (context.isExpired()) {
+                log.debug("Prazo de alocação esgotado na fase de melhoria ({} de {} drones)", j, m);
+                break;
+            }
+            Drone drone = drones.get(j);
+            List<Order> pool = new ArrayList<>(loads.get(j));
+            for (Order order : unassigned) {
+                if (context.isFeasible(drone, order)) pool.add(order);
+            }
+            if (pool.size() == loads.get(j).size()) continue;
+
+            List<Order> repacked = context.pack(drone, pool, drone.getMaxWeight());
+            if (context.totalValue(drone, repacked) > context.totalValue(drone, loads.get(j)) + 1e-9) {
+                Set<Order> picked = Collections.newSetFromMap(new IdentityHashMap<>());
+                picked.addAll(repacked);
+                unassigned.removeIf(picked::contains);
+                for (Order order : loads.get(j)) {
+                    if (!picked.contains(order)) unassigned.add(order);
+                }
+                loads.set(j, repacked);
+            }
+        }
+
+        Map<String, List<Order>> allocation = new LinkedHashMap<>();
+        for (int j = 0; j < m; j++) {
+            if (!loads.get(j).isEmpty()) allocation.put(drones.get(j).getId(), loads.get(j));
+        }
+        return allocation;
+    }
+}
@@ -0,0 +1,60 @@
+package com.dti.drone_delivery.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+
+/**
+ * Estratégia original: drones em ordem decrescente de bateria, cada um
+ * escolhe por mochila entre os pedidos que sobraram. Serve de fallback.
+ * Ao fim do prazo, devolve as cargas já montadas.
+ */
+@Component
+public class GreedyAssignmentStrategy implements AssignmentStrategy {
+
+    public static final String NAME = "greedy";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, List<Order>> assign(List<Drone> drones, List<Order> orders, AllocationContext context) {
+        List<Drone> sortedDrones = new ArrayList<>(drones);
+        sortedDrones.sort((d1, d2) -> d2.getCurrentBattery().compareTo(d1.getCurrentBattery()));
+
+        List<Order> remaining = new ArrayList<>(orders);
+        Map<String, List<Order>> allocation = new LinkedHashMap<>();
+
+        for (Drone drone : sortedDrones) {
+            if (remaining.isEmpty() || context.isExpired()) break;
+
+            List<Order> feasibleOrders = new ArrayList<>();
+            for (Order order : remaining) {
+                if (context.isFeasible(drone, order)) {
+                    feasibleOrders.add(order);
+                }
+            }
+            if (feasibleOrders.isEmpty()) continue;
+
+            List<Order> optimized = context.pack(drone, feasibleOrders, drone.getMaxWeight());
+            if (!optimized.isEmpty()) {
+                allocation.put(drone.getId(), optimized);
+                Set<Order> taken = Collections.newSetFromMap(new IdentityHashMap<>());
+                taken.addAll(optimized);
+                remaining.removeIf(taken::contains);
+            }
+        }
+        return allocation;
+    }
+}
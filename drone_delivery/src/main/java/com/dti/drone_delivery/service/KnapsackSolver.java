@@ -0,0 +1,240 @@
+package com.dti.drone_delivery.service;
+
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor de mochila 0/1 usado na otimização de carga dos drones.
+ *
+ * Os pesos são convertidos para unidades inteiras na resolução configurada
+ * (arredondando o item para cima e a capacidade para baixo, para nunca
+ * exceder o limite real). A DP usa uma única linha rolante de valores e um
+ * bitset compactado para a reconstrução. A estratégia é escolhida pelo
+ * tamanho do problema: exata, FPTAS (aproximação limitada por epsilon)
+ * ou gulosa.
+ */
+@Component
+@Slf4j
+public class KnapsackSolver {
+
+    public enum Strategy {
+        EXACT, FPTAS, GREEDY
+    }
+
+    @Value("${drone.allocation.knapsack.weight-resolution:0.01}")
+    private double weightResolution = 0.01;
+
+    @Value("${drone.allocation.knapsack.exact-cell-limit:20000000}")
+    private long exactCellLimit = 20_000_000L;
+
+    @Value("${drone.allocation.knapsack.fptas-epsilon:0.1}")
+    private double fptasEpsilon = 0.1;
+
+    public KnapsackSolver() {
+    }
+
+    public KnapsackSolver(double weightResolution, long exactCellLimit, double fptasEpsilon) {
+        this.weightResolution = weightResolution;
+        this.exactCellLimit = exactCellLimit;
+        this.fptasEpsilon = fptasEpsilon;
+    }
+
+    /**
+     * Resolve a mochila e devolve os índices escolhidos em ordem crescente.
+     */
+    public int[] solve(double[] weights, double[] values, double capacity) {
+        int n = weights.length;
+        if (n == 0 || capacity < 0) {
+            return new int[0];
+        }
+
+        Strategy strategy = chooseStrategy(weights, values, capacity);
+        int[] selected = switch (strategy) {
+            case EXACT -> solveExact(weights, values, capacity);
+            case FPTAS -> solveFptas(weights, values, capacity);
+            case GREEDY -> solveGreedy(weights, values, capacity);
+        };
+
+        log.debug("Knapsack {}: {} de {} itens escolhidos", strategy, selected.length, n);
+        return selected;
+    }
+
+    public Strategy chooseStrategy(double[] weights, double[] values, double capacity) {
+        long n = weights.length;
+        long scaledCapacity = scaleCapacity(capacity);
+        if (n * (scaledCapacity + 1) <= exactCellLimit) {
+            return Strategy.EXACT;
+        }
+        long profitSum = scaledProfitSum(weights, values, capacity);
+        if (profitSum >= 0 && n * (profitSum + 1) <= exactCellLimit) {
+            return Strategy.FPTAS;
+        }
+        return Strategy.GREEDY;
+    }
+
+    private int[] solveExact(double[] weights, double[] values, double capacity) {
+        int n = weights.length;
+        int cap = (int) scaleCapacity(capacity);
+        int row = cap + 1;
+
+        double[] best = new double[row];
+        long[] keep = new long[(int) (((long) n * row + 63) / 64)];
+        int[] scaled = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            long w = scaleWeight(weights[i]);
+            if (w > cap || values[i] <= 0) {
+                scaled[i] = -1;
+                continue;
+            }
+            scaled[i] = (int) w;
+            long base = (long) i * row;
+            for (int c = cap; c >= w; c--) {
+                double candidate = best[c - (int) w] + values[i];
+                if (candidate > best[c]) {
+                    best[c] = candidate;
+                    setBit(keep, base + c);
+                }
+            }
+        }
+
+        boolean[] chosen = new boolean[n];
+        int c = cap;
+        for (int i = n - 1; i >= 0; i--) {
+            if (scaled[i] >= 0 && getBit(keep, (long) i * row + c)) {
+                chosen[i] = true;
+                c -= scaled[i];
+            }
+        }
+        return toIndices(chosen);
+    }
+
+    private int[] solveFptas(double[] weights, double[] values, double capacity) {
+        int n = weights.length;
+        double factor = profitFactor(weights, values, capacity);
+        int[] profits = new int[n];
+        int profitSum = 0;
+        for (int i = 0; i < n; i++) {
+            if (weights[i] <= capacity && values[i] > 0) {
+                profits[i] = (int) Math.floor(values[i] / factor);
+                profitSum += profits[i];
+            }
+        }
+
+        int row = profitSum + 1;
+        double[] minWeight = new double[row];
+        Arrays.fill(minWeight, Double.POSITIVE_INFINITY);
+        minWeight[0] = 0;
+        long[] keep = new long[(int) (((long) n * row + 63) / 64)];
+
+        for (int i = 0; i < n; i++) {
+            int p = profits[i];
+            if (p == 0) continue;
+            long base = (long) i * row;
+            for (int q = profitSum; q >= p; q--) {
+                double candidate = minWeight[q - p] + weights[i];
+                if (candidate < minWeight[q]) {
+                    minWeight[q] = candidate;
+                    setBit(keep, base + q);
+                }
+            }
+        }
+
+        int q = profitSum;
+        while (q > 0 && minWeight[q] > capacity) {
+            q--;
+        }
+
+        boolean[] chosen = new boolean[n];
+        for (int i = n - 1; i >= 0 && q > 0; i--) {
+            if (profits[i] > 0 && getBit(keep, (long) i * row + q)) {
+                chosen[i] = true;
+                q -= profits[i];
+            }
+        }
+        return toIndices(chosen);
+    }
+
+    private int[] solveGreedy(double[] weights, double[] values, double capacity) {
+        int n = weights.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(density(weights[b], values[b]), density(weights[a], values[a])));
+
+        boolean[] chosen = new boolean[n];
+        double load = 0;
+        double total = 0;
+        int bestSingle = -1;
+        for (int i : order) {
+            if (weights[i] > capacity || values[i] <= 0) continue;
+            if (bestSingle < 0 || values[i] > values[bestSingle]) bestSingle = i;
+            if (load + weights[i] <= capacity) {
+                chosen[i] = true;
+                load += weights[i];
+                total += values[i];
+            }
+        }
+
+        // Garante aproximação 1/2: compara com o melhor item isolado
+        if (bestSingle >= 0 && values[bestSingle] > total) {
+            chosen = new boolean[n];
+            chosen[bestSingle] = true;
+        }
+        return toIndices(chosen);
+    }
+
+    private long scaleWeight(double weight) {
+        return (long) Math.ceil(weight / weightResolution - 1e-9);
+    }
+
+    private long scaleCapacity(double capacity) {
+        return (long) Math.floor(capacity / weightResolution + 1e-9);
+    }
+
+    private double profitFactor(double[] weights, double[] values, double capacity) {
+        double maxValue = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] <= capacity) maxValue = Math.max(maxValue, values[i]);
+        }
+        return Math.max(fptasEpsilon * maxValue / weights.length, Double.MIN_VALUE);
+    }
+
+    private long scaledProfitSum(double[] weights, double[] values, double capacity) {
+        double factor = profitFactor(weights, values, capacity);
+        long sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] <= capacity && values[i] > 0) {
+                sum += (long) Math.floor(values[i] / factor);
+                if (sum > Integer.MAX_VALUE - 1) return -1;
+            }
+        }
+        return sum;
+    }
+
+    private static double density(double weight, double value) {
+        return weight <= 0 ? Double.POSITIVE_INFINITY : value / weight;
+    }
+
+    private static void setBit(long[] bits, long index) {
+        bits[(int) (index >>> 6)] |= 1L << (index & 63);
+    }
+
+    private static boolean getBit(long[] bits, long index) {
+        return (bits[(int) (index >>> 6)] & (1L << (index & 63))) != 0;
+    }
+
+    private static int[] toIndices(boolean[] chosen) {
+        int count = 0;
+        for (boolean c : chosen) if (c) count++;
+        int[] result = new int[count];
+        int k = 0;
+        for (int i = 0; i < chosen.length; i++) {
+            if (chosen[i]) result[k++] = i;
+        }
+        return result;
+    }
+}
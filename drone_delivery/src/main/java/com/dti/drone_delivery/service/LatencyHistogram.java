@@ -0,0 +1,71 @@
+package com.dti.drone_delivery.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências com baldes log-lineares, no estilo do HdrHistogram:
+ * cada potência de dois é dividida em 64 sub-baldes, então um percentil erra
+ * no máximo ~1,6% do valor real. A memória é fixa e todas as amostras da
+ * execução contam, ao contrário de um buffer circular. A gravação não trava
+ * e a leitura pode acontecer durante a carga.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_HALF = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_COUNT = SUB_BUCKET_HALF * 2;
+    private static final int BUCKETS = 64 - SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS * SUB_BUCKET_HALF + SUB_BUCKET_HALF);
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(indexOf(v));
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Menor valor abaixo do qual está a fração {@code p} das amostras,
+     * arredondado para o topo do balde e limitado ao máximo gravado.
+     */
+    public long percentile(double p) {
+        long total = 0;
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(total * p));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    // Valores abaixo de 128 ficam exatos; acima, guardamos os 7 bits mais altos.
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int bucket = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> bucket);
+        return bucket * SUB_BUCKET_HALF + sub;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int bucket = index / SUB_BUCKET_HALF - 1;
+        long sub = index - (long) bucket * SUB_BUCKET_HALF;
+        return ((sub + 1) << bucket) - 1;
+    }
+}
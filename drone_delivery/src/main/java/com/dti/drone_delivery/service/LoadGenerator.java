@@ -0,0 +1,278 @@
+package com.dti.drone_delivery.service;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dti.drone_delivery.dto.LoadProfile;
+import com.dti.drone_delivery.dto.OrderRequest;
+import com.dti.drone_delivery.model.Order;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gerador de carga sintética em malha aberta: um marcapasso sorteia os
+ * instantes de chegada e os pedidos, e um pool de workers os envia pelo
+ * caminho real de ingestão (OrderService). Se a ingestão não acompanha, a
+ * fila enche e os excedentes são descartados e contados, em vez de frear a
+ * geração; é assim que aparece o teto de vazão.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoadGenerator {
+
+    private final OrderService orderService;
+    private final SimulationRandom simulationRandom;
+
+    @Value("${drone.loadgen.workers:4}")
+    private int workers = 4;
+
+    @Value("${drone.loadgen.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    private volatile Run current;
+
+    public synchronized LoadGeneratorReport start(LoadProfile profile) {
+        validate(profile);
+        if (current != null) current.stop();
+        long seed = profile.getSeed() != null ? profile.getSeed() : simulationRandom.nextLong();
+        current = new Run(profile, seed);
+        current.start();
+        log.info("🏭 Gerador de carga iniciado: {} a {} pedidos/s (semente {})",
+            profile.getArrivalProcess(), String.format("%.1f", current.arrivals.meanRate()), seed);
+        return current.report();
+    }
+
+    public synchronized LoadGeneratorReport stop() {
+        if (current == null) return null;
+        current.stop();
+        LoadGeneratorReport report = current.report();
+        log.info("🏭 Gerador de carga parado: {} gerados, {} aceitos, {} descartados, {} pedidos/s",
+            report.getGenerated(), report.getAccepted(), report.getDropped(),
+            String.format("%.1f", report.getAchievedRate()));
+        return report;
+    }
+
+    public LoadGeneratorReport status() {
+        Run run = current;
+        return run != null ? run.report() : null;
+    }
+
+    public boolean isRunning() {
+        Run run = current;
+        return run != null && run.isRunning();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Run run = current;
+        if (run != null) run.stop();
+    }
+
+    /**
+     * Sorteia um pedido do perfil: local num foco gaussiano (com a fração de
+     * cada foco) ou no fundo uniforme, peso uniforme e prioridade pelo mix.
+     */
+    OrderRequest sample(LoadProfile profile, Random random, long sequence) {
+        double radius = profile.getAreaRadius();
+        double x;
+        double y;
+        LoadProfile.Hotspot hotspot = pickHotspot(profile, random.nextDouble());
+        if (hotspot != null) {
+            x = clamp(hotspot.getX() + random.nextGaussian() * hotspot.getSigma(), radius);
+            y = clamp(hotspot.getY() + random.nextGaussian() * hotspot.getSigma(), radius);
+        } else {
+            x = random.nextDouble() * 2 * radius - radius;
+            y = random.nextDouble() * 2 * radius - radius;
+        }
+
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Carga-" + sequence);
+        request.setLocationX(x);
+        request.setLocationY(y);
+        request.setWeight(profile.getMinWeight() + random.nextDouble() * (profile.getMaxWeight() - profile.getMinWeight()));
+        request.setPriority(pickPriority(profile.getPriorityMix(), random.nextDouble()));
+        return request;
+    }
+
+    private LoadProfile.Hotspot pickHotspot(LoadProfile profile, double u) {
+        double cumulative = 0;
+        for (LoadProfile.Hotspot hotspot : profile.getHotspots()) {
+            cumulative += hotspot.getShare();
+            if (u < cumulative) return hotspot;
+        }
+        return null;
+    }
+
+    private Order.Priority pickPriority(Map<Order.Priority, Double> mix, double u) {
+        if (mix == null || mix.isEmpty()) return Order.Priority.MEDIUM;
+        double total = mix.values().stream().mapToDouble(Double::doubleValue).sum();
+        double cumulative = 0;
+        Order.Priority last = Order.Priority.MEDIUM;
+        for (Order.Priority priority : Order.Priority.values()) {
+            Double share = mix.get(priority);
+            if (share == null || share <= 0) continue;
+            cumulative += share / total;
+            last = priority;
+            if (u < cumulative) return priority;
+        }
+        return last;
+    }
+
+    private double clamp(double value, double radius) {
+        return Math.max(-radius, Math.min(radius, value));
+    }
+
+    private void validate(LoadProfile profile) {
+        if (profile.getOrdersPerSecond() <= 0) {
+            throw new RuntimeException("ordersPerSecond deve ser positivo");
+        }
+        if (profile.getMinWeight() <= 0 || profile.getMaxWeight() < profile.getMinWeight()) {
+            throw new RuntimeException("Faixa de peso inválida");
+        }
+        double shares = profile.getHotspots().stream().mapToDouble(LoadProfile.Hotspot::getShare).sum();
+        if (shares > 1.0 + 1e-9) {
+            throw new RuntimeException("A soma das frações dos focos não pode passar de 1");
+        }
+    }
+
+    private class Run {
+        private final LoadProfile profile;
+        private final long seed;
+        private final Random random;
+        private final ArrivalProcess arrivals;
+        private final ThreadPoolExecutor pool;
+        private final Thread pacer;
+
+        private final LongAdder generated = new LongAdder();
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder latencyTotalNanos = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+        private volatile String lastError;
+
+        private volatile boolean stopped;
+        private volatile long startNanos;
+        private volatile long endNanos;
+
+        Run(LoadProfile profile, long seed) {
+            this.profile = profile;
+            this.seed = seed;
+            this.random = new Random(seed);
+            this.arrivals = new ArrivalProcess(profile, random);
+            this.pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "load-generator-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            this.pacer = new Thread(this::pace, "load-generator");
+            this.pacer.setDaemon(true);
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+            pacer.start();
+        }
+
+        void stop() {
+            stopped = true;
+            pacer.interrupt();
+            try {
+                pacer.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pool.shutdownNow();
+            if (endNanos == 0) endNanos = System.nanoTime();
+        }
+
+        boolean isRunning() {
+            return !stopped && endNanos == 0;
+        }
+
+        private void pace() {
+            long sequence = 0;
+            while (!stopped) {
+                double at = arrivals.next();
+                if (profile.getDurationSeconds() > 0 && at > profile.getDurationSeconds()) break;
+
+                long due = startNanos + (long) (at * 1e9);
+                long wait = due - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                if (stopped) break;
+                maxLagNanos.accumulateAndGet(System.nanoTime() - due, Math::max);
+
+                OrderRequest request = sample(profile, random, ++sequence);
+                generated.increment();
+                try {
+                    pool.execute(() -> ingest(request));
+                } catch (RejectedExecutionException e) {
+                    dropped.increment();
+                }
+            }
+            // Deixa a fila escoar antes de encerrar a medição
+            pool.shutdown();
+            try {
+                pool.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (endNanos == 0) endNanos = System.nanoTime();
+        }
+
+        private void ingest(OrderRequest request) {
+            long start = System.nanoTime();
+            try {
+                orderService.createOrder(request);
+                accepted.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                lastError = e.getMessage();
+            }
+            long elapsed = System.nanoTime() - start;
+            latencyTotalNanos.add(elapsed);
+            latencies.record(elapsed);
+        }
+
+        LoadGeneratorReport report() {
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            double elapsedSeconds = (end - startNanos) / 1e9;
+            long done = accepted.sum() + failed.sum();
+
+            return LoadGeneratorReport.builder()
+                .running(isRunning())
+                .arrivalProcess(profile.getArrivalProcess().name())
+                .seed(seed)
+                .targetRate(arrivals.meanRate())
+                .elapsedSeconds(elapsedSeconds)
+                .generated(generated.sum())
+                .accepted(accepted.sum())
+                .failed(failed.sum())
+                .dropped(dropped.sum())
+                .inFlight(pool.getQueue().size() + pool.getActiveCount())
+                .achievedRate(elapsedSeconds > 0 ? accepted.sum() / elapsedSeconds : 0)
+                .latencyAvgMs(done > 0 ? latencyTotalNanos.sum() / 1e6 / done : 0)
+                .latencyP50Ms(latencies.percentile(0.50) / 1e6)
+                .latencyP99Ms(latencies.percentile(0.99) / 1e6)
+                .latencyMaxMs(latencies.max() / 1e6)
+                .maxLagMs(maxLagNanos.get() / 1e6)
+                .lastError(lastError)
+                .build();
+        }
+    }
+}
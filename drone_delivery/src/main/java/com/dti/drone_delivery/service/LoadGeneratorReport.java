@@ -0,0 +1,32 @@
+package com.dti.drone_delivery.service;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Situação do gerador de carga: o que foi gerado, o que a ingestão aceitou e
+ * os sinais de saturação (descartes, fila e atraso do marcapasso).
+ */
+@Getter
+@Builder
+public class LoadGeneratorReport {
+    private final boolean running;
+    private final String arrivalProcess;
+    private final long seed;
+    private final double targetRate;
+    private final double elapsedSeconds;
+
+    private final long generated;
+    private final long accepted;
+    private final long failed;
+    private final long dropped;
+    private final int inFlight;
+    private final double achievedRate;
+
+    private final double latencyAvgMs;
+    private final double latencyP50Ms;
+    private final double latencyP99Ms;
+    private final double latencyMaxMs;
+    private final double maxLagMs;
+    private final String lastError;
+}
@@ -0,0 +1,260 @@
+package com.dti.drone_delivery.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dti.drone_delivery.model.Obstacle;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importação em massa de obstáculos: lê o arquivo em fluxo (CSV ou
+ * GeoJSON) e grava em lotes JDBC, sem passar pelo contexto de persistência.
+ * Tudo numa transação só; os índices em memória são reconstruídos por
+ * quem chama, uma vez ao final.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ObstacleImporter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO obstacles (id, name, centerx, centery, radius, type, active_from, active_until) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${drone.obstacles.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    public enum Format {
+        CSV, GEOJSON
+    }
+
+    @Transactional
+    public int importStream(InputStream input, Format format) {
+        Batch batch = new Batch();
+        try {
+            if (format == Format.CSV) {
+                readCsv(input, batch);
+            } else {
+                readGeoJson(input, batch);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao ler arquivo de obstáculos", e);
+        }
+        batch.flush();
+        log.info("📥 {} obstáculos importados ({})", batch.total, format);
+        return batch.total;
+    }
+
+    @Transactional
+    public List<Obstacle> insertAll(List<Obstacle> obstacles) {
+        Batch batch = new Batch();
+        for (Obstacle obstacle : obstacles) {
+            validate(obstacle, obstacle.getName());
+            batch.add(obstacle);
+        }
+        batch.flush();
+        return obstacles;
+    }
+
+    /**
+     * Uma linha por obstáculo: name,centerX,centerY,radius[,type[,activeFrom[,activeUntil]]],
+     * com datas em ISO-8601. Um cabeçalho na primeira linha é ignorado.
+     */
+    private void readCsv(InputStream input, Batch batch) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            String[] columns = line.split(",", -1);
+            if (lineNumber == 1 && !isNumeric(columns.length > 1 ? columns[1] : "")) continue;
+            if (columns.length < 4) {
+                throw new RuntimeException("Linha " + lineNumber + " inválida: esperado name,centerX,centerY,radius[,type]");
+            }
+            try {
+                Obstacle obstacle = Obstacle.builder()
+                    .name(blankToNull(columns[0]))
+                    .centerX(Double.parseDouble(columns[1].trim()))
+                    .centerY(Double.parseDouble(columns[2].trim()))
+                    .radius(Double.parseDouble(columns[3].trim()))
+                    .type(columns.length > 4 ? blankToNull(columns[4]) : null)
+                    .activeFrom(columns.length > 5 ? parseTime(columns[5]) : null)
+                    .activeUntil(columns.length > 6 ? parseTime(columns[6]) : null)
+                    .build();
+                validate(obstacle, "linha " + lineNumber);
+                batch.add(obstacle);
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new RuntimeException("Linha " + lineNumber + " inválida: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * FeatureCollection (ou array de features) lida feature a feature. Point
+     * usa properties.radius; Polygon vira o círculo centrado na média dos
+     * vértices que cobre todos eles.
+     */
+    private void readGeoJson(InputStream input, Batch batch) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                while ((token = parser.nextToken()) != JsonToken.END_OBJECT && token != null) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("features".equals(field)) {
+                        readFeatures(parser, batch);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                readFeatures(parser, batch);
+            } else {
+                throw new RuntimeException("GeoJSON inválido: esperado FeatureCollection");
+            }
+        }
+    }
+
+    private void readFeatures(JsonParser parser, Batch batch) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new RuntimeException("GeoJSON inválido: features deve ser uma lista");
+        }
+        int index = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            JsonNode feature = parser.readValueAsTree();
+            batch.add(toObstacle(feature, index++));
+        }
+    }
+
+    private Obstacle toObstacle(JsonNode feature, int index) {
+        JsonNode geometry = feature.path("geometry");
+        JsonNode properties = feature.path("properties");
+        JsonNode coordinates = geometry.path("coordinates");
+        String label = "feature " + index;
+
+        double centerX;
+        double centerY;
+        double radius;
+        switch (geometry.path("type").asText()) {
+            case "Point" -> {
+                centerX = coordinates.path(0).asDouble(Double.NaN);
+                centerY = coordinates.path(1).asDouble(Double.NaN);
+                radius = properties.path("radius").asDouble(Double.NaN);
+            }
+            case "Polygon" -> {
+                JsonNode ring = coordinates.path(0);
+                if (ring.size() == 0) throw new RuntimeException("Polígono vazio na " + label);
+                double sumX = 0;
+                double sumY = 0;
+                for (JsonNode vertex : ring) {
+                    sumX += vertex.path(0).asDouble();
+                    sumY += vertex.path(1).asDouble();
+                }
+                centerX = sumX / ring.size();
+                centerY = sumY / ring.size();
+                double reach = 0;
+                for (JsonNode vertex : ring) {
+                    reach = Math.max(reach, Math.hypot(vertex.path(0).asDouble() - centerX, vertex.path(1).asDouble() - centerY));
+                }
+                radius = reach;
+            }
+            default -> throw new RuntimeException("Geometria não suportada na " + label + ": " + geometry.path("type").asText());
+        }
+
+        Obstacle obstacle;
+        try {
+            obstacle = Obstacle.builder()
+                .name(properties.hasNonNull("name") ? properties.get("name").asText() : null)
+                .type(properties.hasNonNull("type") ? properties.get("type").asText() : null)
+                .centerX(centerX)
+                .centerY(centerY)
+                .radius(radius)
+                .activeFrom(properties.hasNonNull("activeFrom") ? parseTime(properties.get("activeFrom").asText()) : null)
+                .activeUntil(properties.hasNonNull("activeUntil") ? parseTime(properties.get("activeUntil").asText()) : null)
+                .build();
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Data inválida na " + label + ": " + e.getParsedString());
+        }
+        validate(obstacle, label);
+        return obstacle;
+    }
+
+    private void validate(Obstacle obstacle, String label) {
+        if (obstacle.getCenterX() == null || obstacle.getCenterY() == null || obstacle.getRadius() == null
+                || !Double.isFinite(obstacle.getCenterX()) || !Double.isFinite(obstacle.getCenterY())
+                || !Double.isFinite(obstacle.getRadius()) || obstacle.getRadius() <= 0) {
+            throw new RuntimeException("Obstáculo inválido (" + label + "): centro e raio positivo são obrigatórios");
+        }
+        if (obstacle.getActiveFrom() != null && obstacle.getActiveUntil() != null
+                && !obstacle.getActiveUntil().isAfter(obstacle.getActiveFrom())) {
+            throw new RuntimeException("Obstáculo inválido (" + label + "): activeUntil deve ser posterior a activeFrom");
+        }
+    }
+
+    private static boolean isNumeric(String value) {
+        try {
+            Double.parseDouble(value.trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        String trimmed = blankToNull(value);
+        return trimmed == null ? null : LocalDateTime.parse(trimmed);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Acumula linhas e envia ao banco a cada {@code batchSize}.
+     */
+    private class Batch {
+        private final List<Object[]> rows = new ArrayList<>();
+        private int total;
+
+        void add(Obstacle obstacle) {
+            if (obstacle.getId() == null) obstacle.setId(UUID.randomUUID().toString());
+            rows.add(new Object[]{
+                obstacle.getId(), obstacle.getName(), obstacle.getCenterX(),
+                obstacle.getCenterY(), obstacle.getRadius(), obstacle.getType(),
+                obstacle.getActiveFrom(), obstacle.getActiveUntil()
+            });
+            total++;
+            if (rows.size() >= batchSize) flush();
+        }
+
+        void flush() {
+            if (rows.isEmpty()) return;
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            rows.clear();
+        }
+    }
+}
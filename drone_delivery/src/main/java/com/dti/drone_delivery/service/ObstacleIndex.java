@@ -0,0 +1,287 @@
+package com.dti.drone_delivery.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.model.Obstacle;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice espacial dos obstáculos em grade uniforme. Cada obstáculo é
+ * registrado em todas as células cobertas pelo seu círculo inflado pela
+ * folga de segurança. Consultas de segmento percorrem só as células que o
+ * segmento atravessa (DDA) e usam a distância exata ponto-segmento.
+ *
+ * As escritas publicam um novo snapshot imutável (copy-on-write), então as
+ * consultas, muito mais frequentes, não travam.
+ */
+@Component
+@Slf4j
+public class ObstacleIndex {
+
+    @Value("${drone.obstacles.index.cell-size:5.0}")
+    private double cellSize = 5.0;
+
+    @Value("${drone.obstacles.clearance:0.5}")
+    private double clearance = 0.5;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), 0);
+
+    /**
+     * A versão cresce a cada escrita; quem guarda resultados derivados dos
+     * obstáculos (ex.: cache de rotas) a usa para invalidar preguiçosamente.
+     */
+    private record Snapshot(Map<Long, List<Obstacle>> cells, Map<String, Obstacle> byId, long version) {
+    }
+
+    public ObstacleIndex() {
+    }
+
+    public ObstacleIndex(double cellSize, double clearance) {
+        this.cellSize = cellSize;
+        this.clearance = clearance;
+    }
+
+    /**
+     * Índice avulso com a mesma grade e folga, só com os obstáculos
+     * informados (ex.: o conjunto vigente num instante simulado).
+     */
+    public ObstacleIndex withObstacles(Collection<Obstacle> obstacles) {
+        ObstacleIndex index = new ObstacleIndex(cellSize, clearance);
+        index.rebuild(obstacles);
+        return index;
+    }
+
+    public synchronized void rebuild(Collection<Obstacle> obstacles) {
+        Map<Long, List<Obstacle>> cells = new HashMap<>();
+        Map<String, Obstacle> byId = new HashMap<>();
+        for (Obstacle obstacle : obstacles) {
+            byId.put(obstacle.getId(), obstacle);
+            forEachCell(obstacle, key -> cells.computeIfAbsent(key, k -> new ArrayList<>()).add(obstacle));
+        }
+        snapshot = new Snapshot(cells, byId, snapshot.version() + 1);
+        log.info("🗺️ Índice de obstáculos reconstruído: {} obstáculos em {} células", byId.size(), cells.size());
+    }
+
+    public synchronized void add(Obstacle obstacle) {
+        Snapshot current = snapshot;
+        Map<Long, List<Obstacle>> cells = new HashMap<>(current.cells());
+        Map<String, Obstacle> byId = new HashMap<>(current.byId());
+
+        Obstacle previous = byId.put(obstacle.getId(), obstacle);
+        if (previous != null) forEachCell(previous, key -> removeFromCell(cells, key, previous));
+        forEachCell(obstacle, key -> {
+            List<Obstacle> cell = new ArrayList<>(cells.getOrDefault(key, List.of()));
+            cell.add(obstacle);
+            cells.put(key, cell);
+        });
+        snapshot = new Snapshot(cells, byId, current.version() + 1);
+    }
+
+    public synchronized boolean remove(String obstacleId) {
+        Snapshot current = snapshot;
+        Obstacle removed = current.byId().get(obstacleId);
+        if (removed == null) return false;
+
+        Map<Long, List<Obstacle>> cells = new HashMap<>(current.cells());
+        Map<String, Obstacle> byId = new HashMap<>(current.byId());
+        byId.remove(obstacleId);
+        forEachCell(removed, key -> removeFromCell(cells, key, removed));
+        snapshot = new Snapshot(cells, byId, current.version() + 1);
+        return true;
+    }
+
+    public long getVersion() {
+        return snapshot.version();
+    }
+
+    /**
+     * Consultas presas ao snapshot atual: mesmo que o índice mude no meio,
+     * todas as respostas refletem a mesma versão.
+     */
+    public View view() {
+        return new View(snapshot);
+    }
+
+    public final class View {
+        private final Snapshot snapshot;
+
+        private View(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        public long getVersion() {
+            return snapshot.version();
+        }
+
+        public boolean intersectsSegment(double x1, double y1, double x2, double y2) {
+            return ObstacleIndex.this.intersectsSegment(snapshot, x1, y1, x2, y2, List.of());
+        }
+
+        public boolean containsPoint(double x, double y) {
+            return ObstacleIndex.this.containsPoint(snapshot, x, y);
+        }
+    }
+
+    public int size() {
+        return snapshot.byId().size();
+    }
+
+    public Collection<Obstacle> all() {
+        return Collections.unmodifiableCollection(snapshot.byId().values());
+    }
+
+    /**
+     * Algum obstáculo (com a folga) toca o segmento?
+     */
+    public boolean intersectsSegment(double x1, double y1, double x2, double y2) {
+        return intersectsSegment(x1, y1, x2, y2, List.of());
+    }
+
+    /**
+     * Como {@link #intersectsSegment(double, double, double, double)}, desconsiderando
+     * os obstáculos informados (ex.: os que já contêm a origem do trecho).
+     */
+    public boolean intersectsSegment(double x1, double y1, double x2, double y2, Collection<Obstacle> ignored) {
+        return intersectsSegment(snapshot, x1, y1, x2, y2, ignored);
+    }
+
+    private boolean intersectsSegment(Snapshot snapshot, double x1, double y1, double x2, double y2,
+                                      Collection<Obstacle> ignored) {
+        Map<Long, List<Obstacle>> cells = snapshot.cells();
+        if (cells.isEmpty()) return false;
+
+        long cx = cell(x1);
+        long cy = cell(y1);
+        long endX = cell(x2);
+        long endY = cell(y2);
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        double tMaxX = stepX != 0 ? ((stepX > 0 ? cx + 1 : cx) * cellSize - x1) / dx : Double.POSITIVE_INFINITY;
+        double tMaxY = stepY != 0 ? ((stepY > 0 ? cy + 1 : cy) * cellSize - y1) / dy : Double.POSITIVE_INFINITY;
+        double tDeltaX = stepX != 0 ? cellSize / Math.abs(dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = stepY != 0 ? cellSize / Math.abs(dy) : Double.POSITIVE_INFINITY;
+
+        long steps = Math.abs(endX - cx) + Math.abs(endY - cy);
+        for (long i = 0; i <= steps; i++) {
+            List<Obstacle> cell = cells.get(key(cx, cy));
+            if (cell != null) {
+                for (Obstacle obstacle : cell) {
+                    if (blocks(obstacle, x1, y1, x2, y2) && !containsIdentity(ignored, obstacle)) return true;
+                }
+            }
+            if (cx == endX && cy == endY) break;
+            if (tMaxX < tMaxY) {
+                tMaxX += tDeltaX;
+                cx += stepX;
+            } else {
+                tMaxY += tDeltaY;
+                cy += stepY;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obstáculos cujo círculo inflado toca o retângulo informado.
+     */
+    public List<Obstacle> within(double minX, double minY, double maxX, double maxY) {
+        Map<Long, List<Obstacle>> cells = snapshot.cells();
+        Set<Obstacle> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Obstacle> result = new ArrayList<>();
+        for (long cx = cell(minX); cx <= cell(maxX); cx++) {
+            for (long cy = cell(minY); cy <= cell(maxY); cy++) {
+                List<Obstacle> cell = cells.get(key(cx, cy));
+                if (cell == null) continue;
+                for (Obstacle obstacle : cell) {
+                    if (found.add(obstacle)) result.add(obstacle);
+                }
+            }
+        }
+        return result;
+    }
+
+    public double getClearance() {
+        return clearance;
+    }
+
+    public boolean containsPoint(double x, double y) {
+        return containsPoint(snapshot, x, y);
+    }
+
+    private boolean containsPoint(Snapshot snapshot, double x, double y) {
+        List<Obstacle> cell = snapshot.cells().get(key(cell(x), cell(y)));
+        if (cell == null) return false;
+        for (Obstacle obstacle : cell) {
+            if (obstacle.isPointInside(x, y)) return true;
+        }
+        return false;
+    }
+
+    private boolean blocks(Obstacle obstacle, double x1, double y1, double x2, double y2) {
+        double distance = distancePointToSegment(obstacle.getCenterX(), obstacle.getCenterY(), x1, y1, x2, y2);
+        return distance <= obstacle.getRadius() + clearance;
+    }
+
+    static double distancePointToSegment(double px, double py, double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double lengthSq = dx * dx + dy * dy;
+        double t = lengthSq == 0 ? 0 : ((px - x1) * dx + (py - y1) * dy) / lengthSq;
+        t = Math.max(0, Math.min(1, t));
+        double nearestX = x1 + t * dx;
+        double nearestY = y1 + t * dy;
+        return Math.hypot(px - nearestX, py - nearestY);
+    }
+
+    private void forEachCell(Obstacle obstacle, LongConsumer action) {
+        double reach = obstacle.getRadius() + clearance;
+        long minX = cell(obstacle.getCenterX() - reach);
+        long maxX = cell(obstacle.getCenterX() + reach);
+        long minY = cell(obstacle.getCenterY() - reach);
+        long maxY = cell(obstacle.getCenterY() + reach);
+        for (long x = minX; x <= maxX; x++) {
+            for (long y = minY; y <= maxY; y++) {
+                action.accept(key(x, y));
+            }
+        }
+    }
+
+    private static boolean containsIdentity(Collection<Obstacle> obstacles, Obstacle obstacle) {
+        for (Obstacle o : obstacles) {
+            if (o == obstacle) return true;
+        }
+        return false;
+    }
+
+    private static void removeFromCell(Map<Long, List<Obstacle>> cells, long key, Obstacle obstacle) {
+        List<Obstacle> cell = new ArrayList<>(cells.getOrDefault(key, List.of()));
+        cell.removeIf(o -> o == obstacle);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        } else {
+            cells.put(key, cell);
+        }
+    }
+
+    private long cell(double coordinate) {
+        return (long) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(long cx, long cy) {
+        return (cx << 32) ^ (cy & 0xffffffffL);
+    }
+}
@@ -0,0 +1,159 @@
+package com.dti.drone_delivery.service;
+
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.model.Obstacle;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mapa rasterizado das zonas de exclusão para consultas de ponto em O(1).
+ * Dois bitsets sobre a área configurada: células inteiramente dentro de
+ * algum obstáculo e células de borda, onde a resposta cai para o teste
+ * exato de círculo no {@link ObstacleIndex}. Pontos fora da área também
+ * usam o índice.
+ *
+ * Como o índice, cada escrita publica uma cópia nova dos bitsets; só as
+ * células do obstáculo alterado são repintadas.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ObstacleRaster {
+
+    private final ObstacleIndex obstacleIndex;
+
+    @Value("${drone.obstacles.raster.min-x:-100}")
+    private double minX = -100;
+
+    @Value("${drone.obstacles.raster.min-y:-100}")
+    private double minY = -100;
+
+    @Value("${drone.obstacles.raster.max-x:100}")
+    private double maxX = 100;
+
+    @Value("${drone.obstacles.raster.max-y:100}")
+    private double maxY = 100;
+
+    @Value("${drone.obstacles.raster.resolution:0.25}")
+    private double resolution = 0.25;
+
+    private volatile Grid grid;
+
+    private record Grid(int cols, int rows, long[] inside, long[] border) {
+    }
+
+    public synchronized void rebuild() {
+        int cols = (int) Math.ceil((maxX - minX) / resolution);
+        int rows = (int) Math.ceil((maxY - minY) / resolution);
+        int words = (int) (((long) cols * rows + 63) / 64);
+        Grid fresh = new Grid(cols, rows, new long[words], new long[words]);
+        for (Obstacle obstacle : obstacleIndex.all()) {
+            paint(fresh, obstacle);
+        }
+        grid = fresh;
+        log.info("🗺️ Raster de obstáculos reconstruído: {}x{} células de {}", cols, rows, resolution);
+    }
+
+    public synchronized void add(Obstacle obstacle) {
+        if (grid == null) return;
+        Grid next = copy(grid);
+        paint(next, obstacle);
+        grid = next;
+    }
+
+    /**
+     * Repinta as células do obstáculo removido a partir do que restou no índice.
+     */
+    public synchronized void remove(Obstacle obstacle) {
+        if (grid == null) return;
+        Grid next = copy(grid);
+        int[] range = cellRange(next, obstacle);
+        for (int col = range[0]; col <= range[1]; col++) {
+            for (int row = range[2]; row <= range[3]; row++) {
+                int bit = row * next.cols() + col;
+                clear(next.inside(), bit);
+                clear(next.border(), bit);
+                double x0 = minX + col * resolution;
+                double y0 = minY + row * resolution;
+                for (Obstacle other : obstacleIndex.within(x0, y0, x0 + resolution, y0 + resolution)) {
+                    paintCell(next, other, col, row);
+                }
+            }
+        }
+        grid = next;
+    }
+
+    public boolean contains(double x, double y) {
+        Grid current = grid;
+        if (current == null || x < minX || y < minY || x >= maxX || y >= maxY) {
+            return obstacleIndex.containsPoint(x, y);
+        }
+        int col = (int) ((x - minX) / resolution);
+        int row = (int) ((y - minY) / resolution);
+        int bit = row * current.cols() + col;
+        if (get(current.inside(), bit)) return true;
+        if (get(current.border(), bit)) return obstacleIndex.containsPoint(x, y);
+        return false;
+    }
+
+    private void paint(Grid target, Obstacle obstacle) {
+        int[] range = cellRange(target, obstacle);
+        for (int col = range[0]; col <= range[1]; col++) {
+            for (int row = range[2]; row <= range[3]; row++) {
+                paintCell(target, obstacle, col, row);
+            }
+        }
+    }
+
+    private void paintCell(Grid target, Obstacle obstacle, int col, int row) {
+        double x0 = minX + col * resolution;
+        double y0 = minY + row * resolution;
+        double cx = obstacle.getCenterX();
+        double cy = obstacle.getCenterY();
+        double r = obstacle.getRadius();
+
+        double nearX = Math.max(x0, Math.min(cx, x0 + resolution));
+        double nearY = Math.max(y0, Math.min(cy, y0 + resolution));
+        if (Math.hypot(nearX - cx, nearY - cy) > r) return;
+
+        double farX = Math.max(Math.abs(x0 - cx), Math.abs(x0 + resolution - cx));
+        double farY = Math.max(Math.abs(y0 - cy), Math.abs(y0 + resolution - cy));
+        int bit = row * target.cols() + col;
+        if (Math.hypot(farX, farY) <= r) {
+            set(target.inside(), bit);
+        } else {
+            set(target.border(), bit);
+        }
+    }
+
+    private int[] cellRange(Grid target, Obstacle obstacle) {
+        double r = obstacle.getRadius();
+        int minCol = Math.max(0, (int) Math.floor((obstacle.getCenterX() - r - minX) / resolution));
+        int maxCol = Math.min(target.cols() - 1, (int) Math.floor((obstacle.getCenterX() + r - minX) / resolution));
+        int minRow = Math.max(0, (int) Math.floor((obstacle.getCenterY() - r - minY) / resolution));
+        int maxRow = Math.min(target.rows() - 1, (int) Math.floor((obstacle.getCenterY() + r - minY) / resolution));
+        return new int[]{minCol, maxCol, minRow, maxRow};
+    }
+
+    private static Grid copy(Grid grid) {
+        return new Grid(grid.cols(), grid.rows(),
+            Arrays.copyOf(grid.inside(), grid.inside().length), Arrays.copyOf(grid.border(), grid.border().length));
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << (index & 63);
+    }
+
+    private static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << (index & 63));
+    }
+
+    private static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << (index & 63))) != 0;
+    }
+}
@@ -0,0 +1,274 @@
+package com.dti.drone_delivery.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.model.Obstacle;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rota mais curta entre dois pontos contornando obstáculos: grafo de
+ * visibilidade cujos vértices são os polígonos circunscritos aos círculos
+ * inflados (raio + folga + margem), buscado com A*. Só entram no grafo os
+ * obstáculos perto do trecho; a visibilidade de cada aresta é validada
+ * contra o índice inteiro. Origem ou destino dentro da folga de um
+ * obstáculo saem dela radialmente, e só esse trecho dispensa o obstáculo.
+ *
+ * Trechos bloqueados passam pelo {@link RouteCache}: a busca roda sobre os
+ * extremos quantizados e a rota é reancorada nos extremos reais. A
+ * reancoragem muda o primeiro e o último trecho, então os dois são
+ * revalidados no índice; se algum cruzar um obstáculo, a rota é recalculada
+ * sem cache a partir dos extremos reais.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ObstacleRoutePlanner {
+
+    private static final int MAX_EXPANSIONS = 3;
+    private static final int MAX_EXIT_PUSHES = 3;
+
+    private final ObstacleIndex obstacleIndex;
+    private final RouteCache routeCache;
+
+    @Value("${drone.routing.margin:0.1}")
+    private double margin = 0.1;
+
+    @Value("${drone.routing.polygon-sides:12}")
+    private int polygonSides = 12;
+
+    @Value("${drone.routing.search-padding:10.0}")
+    private double searchPadding = 10.0;
+
+    /**
+     * Polilinha da origem ao destino e seu comprimento; comprimento infinito
+     * quando não há caminho livre.
+     */
+    public record Route(List<double[]> points, double length) {
+
+        public boolean isReachable() {
+            return !Double.isInfinite(length);
+        }
+    }
+
+    public Route plan(double startX, double startY, double endX, double endY) {
+        if (!obstacleIndex.intersectsSegment(startX, startY, endX, endY)) {
+            return new Route(List.of(new double[]{startX, startY}, new double[]{endX, endY}),
+                Math.hypot(endX - startX, endY - startY));
+        }
+
+        double sx = routeCache.snap(startX);
+        double sy = routeCache.snap(startY);
+        double ex = routeCache.snap(endX);
+        double ey = routeCache.snap(endY);
+        Route route = routeCache.get(sx, sy, ex, ey, obstacleIndex.getVersion(), () -> computeDetour(sx, sy, ex, ey));
+        Route anchored = anchor(route, startX, startY, endX, endY);
+        if (!anchored.isReachable() || endsAreClear(anchored)) return anchored;
+
+        log.debug("Rota em cache inválida após reancorar em ({}, {}) → ({}, {}), recalculando",
+            startX, startY, endX, endY);
+        return computeDetour(startX, startY, endX, endY);
+    }
+
+    /**
+     * A quantização desloca os extremos em até meio quantum por eixo; com
+     * quantum menor que a folga, o deslocamento cabe na folga dos obstáculos.
+     */
+    @PostConstruct
+    public void validateConfig() {
+        if (routeCache.getQuantum() >= obstacleIndex.getClearance()) {
+            throw new RuntimeException("drone.routing.cache.quantum (" + routeCache.getQuantum()
+                + ") deve ser menor que drone.obstacles.clearance (" + obstacleIndex.getClearance() + ")");
+        }
+    }
+
+    private boolean endsAreClear(Route route) {
+        List<double[]> points = route.points();
+        return isClearExit(points.get(0), points.get(1))
+            && isClearExit(points.get(points.size() - 1), points.get(points.size() - 2));
+    }
+
+    private Route computeDetour(double startX, double startY, double endX, double endY) {
+        double padding = Math.max(searchPadding, Math.hypot(endX - startX, endY - startY) / 2);
+        for (int attempt = 0; attempt < MAX_EXPANSIONS; attempt++) {
+            List<Obstacle> local = obstacleIndex.within(
+                Math.min(startX, endX) - padding, Math.min(startY, endY) - padding,
+                Math.max(startX, endX) + padding, Math.max(startY, endY) + padding);
+            Route route = search(startX, startY, endX, endY, local);
+            if (route != null) return route;
+            padding *= 2;
+        }
+
+        log.warn("Sem rota livre de ({}, {}) até ({}, {})", startX, startY, endX, endY);
+        return new Route(List.of(new double[]{startX, startY}, new double[]{endX, endY}), Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Troca os extremos quantizados pelos reais e recalcula o comprimento.
+     */
+    private static Route anchor(Route route, double startX, double startY, double endX, double endY) {
+        List<double[]> points = new ArrayList<>(route.points());
+        points.set(0, new double[]{startX, startY});
+        points.set(points.size() - 1, new double[]{endX, endY});
+        if (!route.isReachable()) return new Route(points, Double.POSITIVE_INFINITY);
+        return new Route(points, length(points));
+    }
+
+    /**
+     * Origem ou destino dentro da folga de um obstáculo: a busca parte do
+     * ponto projetado radialmente para fora do círculo inflado, e só esse
+     * trecho de saída (ou de chegada) é dispensado daquele obstáculo. Todas
+     * as outras arestas são checadas contra o índice inteiro.
+     */
+    private Route search(double startX, double startY, double endX, double endY, List<Obstacle> obstacles) {
+        List<double[]> head = exitPath(startX, startY, endX, endY);
+        List<double[]> tail = exitPath(endX, endY, startX, startY);
+        if (head == null || tail == null) return null;
+
+        List<double[]> nodes = new ArrayList<>();
+        nodes.add(head.get(head.size() - 1));
+        nodes.add(tail.get(tail.size() - 1));
+        double clearance = obstacleIndex.getClearance();
+        double stretch = 1.0 / Math.cos(Math.PI / polygonSides);
+        for (Obstacle obstacle : obstacles) {
+            double radius = (obstacle.getRadius() + clearance + margin) * stretch;
+            for (int i = 0; i < polygonSides; i++) {
+                double angle = 2 * Math.PI * i / polygonSides;
+                double x = obstacle.getCenterX() + radius * Math.cos(angle);
+                double y = obstacle.getCenterY() + radius * Math.sin(angle);
+                if (!obstacleIndex.intersectsSegment(x, y, x, y)) nodes.add(new double[]{x, y});
+            }
+        }
+
+        int n = nodes.size();
+        double[] cost = new double[n];
+        int[] previous = new int[n];
+        boolean[] closed = new boolean[n];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+        cost[0] = 0;
+        PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        open.add(new double[]{heuristic(nodes, 0), 0});
+
+        while (!open.isEmpty()) {
+            int u = (int) open.poll()[1];
+            if (closed[u]) continue;
+            if (u == 1) return join(head, toPath(nodes, previous), tail);
+            closed[u] = true;
+
+            double[] from = nodes.get(u);
+            for (int v = 1; v < n; v++) {
+                if (closed[v]) continue;
+                double[] to = nodes.get(v);
+                double candidate = cost[u] + Math.hypot(to[0] - from[0], to[1] - from[1]);
+                if (candidate >= cost[v]) continue;
+                if (obstacleIndex.intersectsSegment(from[0], from[1], to[0], to[1])) continue;
+                cost[v] = candidate;
+                previous[v] = u;
+                open.add(new double[]{candidate + heuristic(nodes, v), v});
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Do ponto até fora de todos os círculos inflados que o contêm, empurrando
+     * radialmente a partir do centro de cada um (ou na direção do outro
+     * extremo, se o ponto for o próprio centro). Nulo se não houver saída.
+     */
+    private List<double[]> exitPath(double x, double y, double towardX, double towardY) {
+        List<double[]> path = new ArrayList<>();
+        path.add(new double[]{x, y});
+        for (int push = 0; push < MAX_EXIT_PUSHES; push++) {
+            double[] point = path.get(path.size() - 1);
+            List<Obstacle> containing = containing(point[0], point[1]);
+            if (containing.isEmpty()) return path;
+
+            Obstacle obstacle = containing.get(0);
+            double dx = point[0] - obstacle.getCenterX();
+            double dy = point[1] - obstacle.getCenterY();
+            if (dx == 0 && dy == 0) {
+                dx = towardX - obstacle.getCenterX();
+                dy = towardY - obstacle.getCenterY();
+                if (dx == 0 && dy == 0) dx = 1;
+            }
+            double distance = Math.hypot(dx, dy);
+            double reach = obstacle.getRadius() + obstacleIndex.getClearance() + margin;
+            double[] exit = {obstacle.getCenterX() + dx / distance * reach, obstacle.getCenterY() + dy / distance * reach};
+            if (!isClearExit(point, exit)) return null;
+            path.add(exit);
+        }
+        double[] last = path.get(path.size() - 1);
+        return containing(last[0], last[1]).isEmpty() ? path : null;
+    }
+
+    /**
+     * Trecho que sai de {@code inside} rumo a {@code outside}. Os obstáculos
+     * cuja folga contém {@code inside} são tolerados desde que o trecho nunca
+     * chegue mais perto do centro deles do que o próprio ponto; qualquer
+     * outro obstáculo bloqueia.
+     */
+    private boolean isClearExit(double[] inside, double[] outside) {
+        List<Obstacle> containing = containing(inside[0], inside[1]);
+        for (Obstacle obstacle : containing) {
+            double cx = obstacle.getCenterX();
+            double cy = obstacle.getCenterY();
+            double depth = Math.hypot(inside[0] - cx, inside[1] - cy);
+            double closest = ObstacleIndex.distancePointToSegment(cx, cy, inside[0], inside[1], outside[0], outside[1]);
+            if (closest < depth - 1e-9) return false;
+        }
+        return !obstacleIndex.intersectsSegment(inside[0], inside[1], outside[0], outside[1], containing);
+    }
+
+    private List<Obstacle> containing(double x, double y) {
+        double clearance = obstacleIndex.getClearance();
+        List<Obstacle> containing = new ArrayList<>();
+        for (Obstacle obstacle : obstacleIndex.within(x, y, x, y)) {
+            if (Math.hypot(x - obstacle.getCenterX(), y - obstacle.getCenterY()) <= obstacle.getRadius() + clearance) {
+                containing.add(obstacle);
+            }
+        }
+        return containing;
+    }
+
+    private static double heuristic(List<double[]> nodes, int node) {
+        double[] point = nodes.get(node);
+        double[] end = nodes.get(1);
+        return Math.hypot(end[0] - point[0], end[1] - point[1]);
+    }
+
+    private static List<double[]> toPath(List<double[]> nodes, int[] previous) {
+        List<double[]> points = new ArrayList<>();
+        for (int node = 1; node >= 0; node = previous[node]) {
+            points.add(nodes.get(node));
+        }
+        Collections.reverse(points);
+        return points;
+    }
+
+    private static Route join(List<double[]> head, List<double[]> middle, List<double[]> tail) {
+        List<double[]> points = new ArrayList<>(head.subList(0, head.size() - 1));
+        points.addAll(middle);
+        for (int i = tail.size() - 2; i >= 0; i--) {
+            points.add(tail.get(i));
+        }
+        return new Route(points, length(points));
+    }
+
+    private static double length(List<double[]> points) {
+        double length = 0;
+        for (int i = 1; i < points.size(); i++) {
+            length += Math.hypot(points.get(i)[0] - points.get(i - 1)[0], points.get(i)[1] - points.get(i - 1)[1]);
+        }
+        return length;
+    }
+}
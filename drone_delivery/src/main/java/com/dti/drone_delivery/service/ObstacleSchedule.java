@@ -0,0 +1,153 @@
+package com.dti.drone_delivery.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.model.Obstacle;
+
+/**
+ * Índice de intervalos das zonas temporárias. Obstáculos que ainda vão
+ * entrar em vigor ficam ordenados pelo início; os já vigentes com prazo
+ * ficam ordenados pelo fim. Assim cada fronteira (ativação ou expiração)
+ * é tratada uma vez, quando o relógio passa por ela, e consultas num
+ * instante futuro olham só as pontas relevantes das duas árvores.
+ */
+@Component
+public class ObstacleSchedule {
+
+    private final NavigableMap<LocalDateTime, List<Obstacle>> activations = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, List<Obstacle>> expirations = new TreeMap<>();
+    private final Map<String, Obstacle> byId = new HashMap<>();
+
+    public record Transition(List<Obstacle> activated, List<Obstacle> expired) {
+        public boolean isEmpty() {
+            return activated.isEmpty() && expired.isEmpty();
+        }
+    }
+
+    public synchronized void clear() {
+        activations.clear();
+        expirations.clear();
+        byId.clear();
+    }
+
+    /**
+     * Registra o obstáculo e diz se ele está vigente em {@code now}, isto
+     * é, se deve entrar no conjunto quente já.
+     */
+    public synchronized boolean register(Obstacle obstacle, LocalDateTime now) {
+        unregister(obstacle.getId());
+        if (obstacle.getActiveUntil() != null && !now.isBefore(obstacle.getActiveUntil())) return false;
+
+        if (obstacle.getActiveFrom() != null && now.isBefore(obstacle.getActiveFrom())) {
+            put(activations, obstacle.getActiveFrom(), obstacle);
+            byId.put(obstacle.getId(), obstacle);
+            return false;
+        }
+        if (obstacle.getActiveUntil() != null) {
+            put(expirations, obstacle.getActiveUntil(), obstacle);
+            byId.put(obstacle.getId(), obstacle);
+        }
+        return true;
+    }
+
+    public synchronized void unregister(String obstacleId) {
+        Obstacle previous = byId.remove(obstacleId);
+        if (previous == null) return;
+        if (previous.getActiveFrom() != null) take(activations, previous.getActiveFrom(), previous);
+        if (previous.getActiveUntil() != null) take(expirations, previous.getActiveUntil(), previous);
+    }
+
+    /**
+     * Consome as fronteiras até {@code now}: quem começou entra, quem venceu sai.
+     * Um obstáculo cuja janela inteira já passou não aparece em nenhuma lista.
+     */
+    public synchronized Transition advance(LocalDateTime now) {
+        List<Obstacle> activated = new ArrayList<>();
+        List<Obstacle> expired = new ArrayList<>();
+
+        NavigableMap<LocalDateTime, List<Obstacle>> started = activations.headMap(now, true);
+        for (List<Obstacle> bucket : started.values()) {
+            for (Obstacle obstacle : bucket) {
+                if (obstacle.getActiveUntil() != null && !now.isBefore(obstacle.getActiveUntil())) {
+                    byId.remove(obstacle.getId());
+                    continue;
+                }
+                activated.add(obstacle);
+                if (obstacle.getActiveUntil() != null) {
+                    put(expirations, obstacle.getActiveUntil(), obstacle);
+                } else {
+                    byId.remove(obstacle.getId());
+                }
+            }
+        }
+        started.clear();
+
+        NavigableMap<LocalDateTime, List<Obstacle>> ended = expirations.headMap(now, true);
+        for (List<Obstacle> bucket : ended.values()) {
+            for (Obstacle obstacle : bucket) {
+                expired.add(obstacle);
+                byId.remove(obstacle.getId());
+            }
+        }
+        ended.clear();
+        return new Transition(activated, expired);
+    }
+
+    /**
+     * Próximo instante em que o conjunto quente muda, ou nulo.
+     */
+    public synchronized LocalDateTime nextBoundary() {
+        LocalDateTime next = activations.isEmpty() ? null : activations.firstKey();
+        if (!expirations.isEmpty() && (next == null || expirations.firstKey().isBefore(next))) {
+            next = expirations.firstKey();
+        }
+        return next;
+    }
+
+    /**
+     * Vigentes agora que já terão expirado em {@code time}.
+     */
+    public synchronized List<Obstacle> expiredBy(LocalDateTime time) {
+        List<Obstacle> result = new ArrayList<>();
+        expirations.headMap(time, true).values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Ainda não vigentes que estarão ativos em {@code time}.
+     */
+    public synchronized List<Obstacle> upcomingAt(LocalDateTime time) {
+        List<Obstacle> result = new ArrayList<>();
+        for (List<Obstacle> bucket : activations.headMap(time, true).values()) {
+            for (Obstacle obstacle : bucket) {
+                if (obstacle.isActiveAt(time)) result.add(obstacle);
+            }
+        }
+        return result;
+    }
+
+    public synchronized int pendingCount() {
+        int count = 0;
+        for (List<Obstacle> bucket : activations.values()) count += bucket.size();
+        return count;
+    }
+
+    private static void put(Map<LocalDateTime, List<Obstacle>> tree, LocalDateTime key, Obstacle obstacle) {
+        tree.computeIfAbsent(key, k -> new ArrayList<>()).add(obstacle);
+    }
+
+    private static void take(Map<LocalDateTime, List<Obstacle>> tree, LocalDateTime key, Obstacle obstacle) {
+        List<Obstacle> bucket = tree.get(key);
+        if (bucket == null) return;
+        bucket.removeIf(o -> o.getId().equals(obstacle.getId()));
+        if (bucket.isEmpty()) tree.remove(key);
+    }
+}
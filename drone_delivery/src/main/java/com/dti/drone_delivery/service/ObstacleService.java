@@ -1,58 +1,234 @@
 package com.dti.drone_delivery.service;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.dti.drone_delivery.model.Obstacle;
 import com.dti.drone_delivery.repository.ObstacleRepository;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class ObstacleService {
     
     private final ObstacleRepository obstacleRepository;
+    private final ObstacleIndex obstacleIndex;
+    private final ObstacleRaster obstacleRaster;
+    private final ObstacleImporter obstacleImporter;
+    private final ObstacleSchedule obstacleSchedule;
+    
+    private ScheduledExecutorService timer;
+    private ScheduledFuture<?> boundaryTask;
+    private LocalDateTime boundaryAt;
+    
+    @Value("${drone.obstacles.raster.enabled:true}")
+    private boolean rasterEnabled = true;
+    
+    @Value("${drone.obstacles.batch.parallel-threshold:2048}")
+    private int parallelThreshold = 2048;
+    
+    /**
+     * Índices (na ordem da requisição) dos pontos e trechos bloqueados e a
+     * versão dos obstáculos usada na avaliação.
+     */
+    public record BatchCheck(int[] blockedPoints, int[] blockedSegments, long version) {
+    }
+    
+    /**
+     * Só os obstáculos vigentes entram no índice e no raster; os demais
+     * ficam no {@link ObstacleSchedule} até a sua fronteira.
+     */
+    @PostConstruct
+    public void loadIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        obstacleSchedule.clear();
+        List<Obstacle> active = new ArrayList<>();
+        for (Obstacle obstacle : obstacleRepository.findAll()) {
+            if (obstacleSchedule.register(obstacle, now)) active.add(obstacle);
+        }
+        obstacleIndex.rebuild(active);
+        if (rasterEnabled) obstacleRaster.rebuild();
+        scheduleBoundary();
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (timer != null) timer.shutdownNow();
+    }
     
     public Obstacle createObstacle(Obstacle obstacle) {
-        return obstacleRepository.save(obstacle);
+        Obstacle saved = obstacleRepository.save(obstacle);
+        if (obstacleSchedule.register(saved, LocalDateTime.now())) {
+            obstacleIndex.add(saved);
+            if (rasterEnabled) obstacleRaster.add(saved);
+        }
+        scheduleBoundary();
+        return saved;
+    }
+    
+    /**
+     * Grava em lote e reconstrói índice e raster uma vez só, ao final.
+     */
+    public List<Obstacle> createObstacles(List<Obstacle> obstacles) {
+        List<Obstacle> saved = obstacleImporter.insertAll(obstacles);
+        loadIndex();
+        return saved;
+    }
+    
+    public int importObstacles(InputStream input, ObstacleImporter.Format format) {
+        int imported = obstacleImporter.importStream(input, format);
+        loadIndex();
+        return imported;
     }
     
     public List<Obstacle> getAllObstacles() {
         return obstacleRepository.findAll();
     }
     
+    public void deleteObstacle(String id) {
+        Obstacle obstacle = obstacleRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Obstáculo não encontrado"));
+        obstacleRepository.delete(obstacle);
+        obstacleSchedule.unregister(id);
+        if (obstacleIndex.remove(id) && rasterEnabled) obstacleRaster.remove(obstacle);
+    }
+    
+    /**
+     * Aplica as ativações e expirações vencidas ao conjunto quente e agenda
+     * a próxima fronteira. Chamado pelo timer; nenhuma consulta faz varredura.
+     */
+    public void applyBoundaries() {
+        ObstacleSchedule.Transition transition = obstacleSchedule.advance(LocalDateTime.now());
+        for (Obstacle obstacle : transition.expired()) {
+            if (obstacleIndex.remove(obstacle.getId()) && rasterEnabled) obstacleRaster.remove(obstacle);
+        }
+        for (Obstacle obstacle : transition.activated()) {
+            obstacleIndex.add(obstacle);
+            if (rasterEnabled) obstacleRaster.add(obstacle);
+        }
+        if (!transition.isEmpty()) {
+            log.info("⏱️ Zonas temporárias: {} ativadas, {} expiradas",
+                transition.activated().size(), transition.expired().size());
+        }
+        scheduleBoundary();
+    }
+    
+    synchronized void scheduleBoundary() {
+        LocalDateTime next = obstacleSchedule.nextBoundary();
+        if (next == null) return;
+        if (boundaryTask != null && !boundaryTask.isDone() && !next.isBefore(boundaryAt)) return;
+        
+        if (timer == null) {
+            timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "obstacle-schedule");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (boundaryTask != null) boundaryTask.cancel(false);
+        // Arredonda para cima: disparar antes da fronteira não aplicaria nada
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), next).toMillis() + 1);
+        boundaryAt = next;
+        boundaryTask = timer.schedule(() -> {
+            synchronized (this) {
+                boundaryTask = null;
+            }
+            try {
+                applyBoundaries();
+            } catch (Exception e) {
+                log.error("Erro ao aplicar janelas de obstáculos: {}", e.getMessage());
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Consulta o índice em memória: distância exata do segmento a cada
+     * obstáculo das células atravessadas, com a folga de segurança.
+     */
     public boolean hasObstacleBetween(double x1, double y1, double x2, double y2) {
-        List<Obstacle> obstacles = obstacleRepository.findAll();
-
-        for (Obstacle obstacle : obstacles) {
-            double distanceToLine = distancePointToLine(
-                obstacle.getCenterX(), obstacle.getCenterY(),
-                x1, y1, x2, y2
-            );
-            
-            if (distanceToLine <= obstacle.getRadius() + 0.5) {
-                return true;
+        return obstacleIndex.intersectsSegment(x1, y1, x2, y2);
+    }
+    
+    public boolean isPointInObstacle(double x, double y) {
+        return rasterEnabled ? obstacleRaster.contains(x, y) : obstacleIndex.containsPoint(x, y);
+    }
+    
+    /**
+     * Trecho bloqueado no instante {@code time} (de agora em diante): o
+     * conjunto quente menos o que terá expirado, mais o que terá começado.
+     */
+    public boolean hasObstacleBetween(double x1, double y1, double x2, double y2, LocalDateTime time) {
+        if (obstacleIndex.intersectsSegment(x1, y1, x2, y2, obstacleSchedule.expiredBy(time))) return true;
+        for (Obstacle obstacle : obstacleSchedule.upcomingAt(time)) {
+            double distance = ObstacleIndex.distancePointToSegment(
+                obstacle.getCenterX(), obstacle.getCenterY(), x1, y1, x2, y2);
+            if (distance <= obstacle.getRadius() + obstacleIndex.getClearance()) return true;
+        }
+        return false;
+    }
+    
+    public boolean isPointInObstacle(double x, double y, LocalDateTime time) {
+        if (isPointInObstacle(x, y)) {
+            for (Obstacle obstacle : obstacleIndex.within(x, y, x, y)) {
+                if (obstacle.isPointInside(x, y) && obstacle.isActiveAt(time)) return true;
             }
         }
+        for (Obstacle obstacle : obstacleSchedule.upcomingAt(time)) {
+            if (obstacle.isPointInside(x, y)) return true;
+        }
         return false;
     }
     
-    private double distancePointToLine(double px, double py, 
-                                       double x1, double y1, double x2, double y2) {
-        double numerator = Math.abs(
-            (y2 - y1) * px - (x2 - x1) * py + x2 * y1 - y2 * x1
-        );
-        double denominator = Math.sqrt(
-            Math.pow(y2 - y1, 2) + Math.pow(x2 - x1, 2)
-        );
-        return numerator / denominator;
+    /**
+     * Avalia pontos e trechos numa só passada, em paralelo acima do limiar.
+     * Todo o lote roda sobre um único snapshot do índice, então reflete uma
+     * só versão dos obstáculos mesmo com escritas concorrentes. Os pontos
+     * usam o círculo exato do índice, não o raster, que é atualizado depois.
+     */
+    public BatchCheck checkBatch(List<double[]> points, List<double[]> segments) {
+        for (int i = 0; i < points.size(); i++) {
+            if (points.get(i) == null || points.get(i).length != 2) {
+                throw new RuntimeException("Ponto inválido na posição " + i);
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i) == null || segments.get(i).length != 4) {
+                throw new RuntimeException("Trecho inválido na posição " + i);
+            }
+        }
+        
+        ObstacleIndex.View view = obstacleIndex.view();
+        int[] blockedPoints = indices(points.size(), i -> {
+            double[] p = points.get(i);
+            return view.containsPoint(p[0], p[1]);
+        });
+        int[] blockedSegments = indices(segments.size(), i -> {
+            double[] s = segments.get(i);
+            return view.intersectsSegment(s[0], s[1], s[2], s[3]);
+        });
+        return new BatchCheck(blockedPoints, blockedSegments, view.getVersion());
     }
     
-    public boolean isPointInObstacle(double x, double y) {
-        return obstacleRepository.findNearbyObstacles(x, y)
-            .stream()
-            .anyMatch(obstacle -> obstacle.isPointInside(x, y));
+    private int[] indices(int size, IntPredicate blocked) {
+        IntStream range = IntStream.range(0, size);
+        if (size >= parallelThreshold) range = range.parallel();
+        return range.filter(blocked).toArray();
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,12 @@ package com.dti.drone_delivery.service;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.dti.drone_delivery.dto.OrderRequest;
+import com.dti.drone_delivery.event.OrderCreatedEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
 import com.dti.drone_delivery.model.Order;
 import com.dti.drone_delivery.repository.OrderRepository;
 
@@ -15,10 +18,20 @@ import lombok.RequiredArgsConstructor;
 public class OrderService {
     
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PendingOrderBook pendingOrderBook;
+    private final ObstacleService obstacleService;
     
     public Order createOrder(OrderRequest request) {
         Order order = request.toEntity();
-        return orderRepository.save(order);
+        if (order.getLocationX() != null && order.getLocationY() != null
+                && obstacleService.isPointInObstacle(order.getLocationX(), order.getLocationY())) {
+            throw new RuntimeException("Local de entrega dentro de zona de exclusão");
+        }
+        Order saved = orderRepository.save(order);
+        pendingOrderBook.update(saved);
+        eventPublisher.publishEvent(new OrderCreatedEvent(saved));
+        return saved;
     }
     
     public List<Order> getAllOrders() {
@@ -32,20 +45,27 @@ public class OrderService {
     public Order updateOrderStatus(String id, Order.OrderStatus status) {
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Pedido não encontrado"));
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
         
         if (status == Order.OrderStatus.DELIVERED) {
             order.setDeliveredAt(java.time.LocalDateTime.now());
         }
         
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        pendingOrderBook.update(saved);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(saved, previousStatus));
+        return saved;
     }
     
     public void cancelOrder(String id) {
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Pedido não encontrado"));
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
         orderRepository.save(order);
+        pendingOrderBook.remove(id);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order, previousStatus));
     }
     
     public long countPendingOrders() {
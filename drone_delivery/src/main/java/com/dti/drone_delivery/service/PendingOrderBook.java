@@ -0,0 +1,255 @@
+package com.dti.drone_delivery.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.model.Order;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Livro de pedidos pendentes mantido em memória. Para cada prioridade há
+ * uma fila FIFO particionada em faixas de peso, de modo que a consulta
+ * "pedidos que cabem em W kg" só visita as faixas abaixo de W e já devolve
+ * o resultado na ordem de alocação (prioridade desc, chegada asc).
+ *
+ * Pedidos agendados ({@code scheduledFor}) ficam num índice separado,
+ * ordenado pelo instante de liberação (início da janela menos a
+ * antecedência), e só entram nas filas quando {@link #releaseDue} os libera.
+ */
+@Component
+@Slf4j
+public class PendingOrderBook {
+
+    private static final Order.Priority[] PRIORITY_ORDER = {
+        Order.Priority.URGENT, Order.Priority.HIGH, Order.Priority.MEDIUM, Order.Priority.LOW
+    };
+
+    private final Map<Order.Priority, NavigableMap<Long, LinkedHashMap<String, Entry>>> queues =
+        new EnumMap<>(Order.Priority.class);
+    private final Map<String, Entry> byId = new HashMap<>();
+    private final NavigableMap<LocalDateTime, LinkedHashMap<String, Order>> scheduled = new TreeMap<>();
+    private final Map<String, LocalDateTime> scheduledById = new HashMap<>();
+    private long sequence;
+
+    @Value("${drone.allocation.order-book.bucket-kg:0.5}")
+    private double bucketKg = 0.5;
+
+    @Value("${drone.allocation.time-window.lead-minutes:5}")
+    private long leadMinutes = 5;
+
+    private record Entry(Order order, long sequence, Order.Priority priority, long bucket) {
+    }
+
+    public PendingOrderBook() {
+        for (Order.Priority priority : Order.Priority.values()) {
+            queues.put(priority, new TreeMap<>());
+        }
+    }
+
+    public synchronized void add(Order order) {
+        if (order.getId() == null) return;
+        remove(order.getId());
+
+        LocalDateTime releaseAt = releaseTimeOf(order);
+        if (releaseAt != null && releaseAt.isAfter(LocalDateTime.now())) {
+            scheduled.computeIfAbsent(releaseAt, t -> new LinkedHashMap<>()).put(order.getId(), order);
+            scheduledById.put(order.getId(), releaseAt);
+            return;
+        }
+        enqueue(order);
+    }
+
+    private void enqueue(Order order) {
+        Order.Priority priority = order.getPriority() != null ? order.getPriority() : Order.Priority.MEDIUM;
+        Entry entry = new Entry(order, sequence++, priority, bucketOf(order.getWeight()));
+        queues.get(priority)
+            .computeIfAbsent(entry.bucket(), b -> new LinkedHashMap<>())
+            .put(order.getId(), entry);
+        byId.put(order.getId(), entry);
+    }
+
+    public synchronized boolean remove(String orderId) {
+        LocalDateTime releaseAt = scheduledById.remove(orderId);
+        if (releaseAt != null) {
+            LinkedHashMap<String, Order> slot = scheduled.get(releaseAt);
+            slot.remove(orderId);
+            if (slot.isEmpty()) scheduled.remove(releaseAt);
+            return true;
+        }
+
+        Entry entry = byId.remove(orderId);
+        if (entry == null) return false;
+
+        NavigableMap<Long, LinkedHashMap<String, Entry>> buckets = queues.get(entry.priority());
+        LinkedHashMap<String, Entry> bucket = buckets.get(entry.bucket());
+        bucket.remove(orderId);
+        if (bucket.isEmpty()) buckets.remove(entry.bucket());
+        return true;
+    }
+
+    /**
+     * Atualiza o livro conforme o status do pedido: entra se PENDING, sai caso contrário.
+     */
+    public void update(Order order) {
+        if (order.getStatus() == Order.OrderStatus.PENDING) {
+            add(order);
+        } else if (order.getId() != null) {
+            remove(order.getId());
+        }
+    }
+
+    /**
+     * Move para as filas os agendados cuja liberação já chegou; devolve quantos.
+     */
+    public synchronized int releaseDue(LocalDateTime now) {
+        int released = 0;
+        while (!scheduled.isEmpty() && !scheduled.firstKey().isAfter(now)) {
+            for (Order order : scheduled.pollFirstEntry().getValue().values()) {
+                scheduledById.remove(order.getId());
+                enqueue(order);
+                released++;
+            }
+        }
+        if (released > 0) log.debug("{} pedidos agendados liberados para alocação", released);
+        return released;
+    }
+
+    /**
+     * Próximo instante em que algum pedido agendado será liberado, ou null.
+     */
+    public synchronized LocalDateTime nextReleaseAt() {
+        return scheduled.isEmpty() ? null : scheduled.firstKey();
+    }
+
+    public synchronized boolean isScheduled(String orderId) {
+        return scheduledById.containsKey(orderId);
+    }
+
+    public synchronized int scheduledCount() {
+        return scheduledById.size();
+    }
+
+    public synchronized boolean contains(String orderId) {
+        return byId.containsKey(orderId) || scheduledById.containsKey(orderId);
+    }
+
+    /**
+     * Pedidos já liberados para alocação (sem os agendados).
+     */
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        queues.values().forEach(Map::clear);
+        scheduledById.clear();
+        scheduled.clear();
+    }
+
+    public synchronized void rebuild(List<Order> pendingOrders) {
+        clear();
+        List<Order> sorted = new ArrayList<>(pendingOrders);
+        sorted.sort(Comparator.comparing(Order::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        sorted.forEach(this::add);
+        log.info("📚 Livro de pedidos reconstruído com {} pedidos pendentes ({} agendados)",
+            byId.size() + scheduledById.size(), scheduledById.size());
+    }
+
+    public synchronized List<Order> snapshot() {
+        return feasibleFor(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Pedidos liberados de uma prioridade, em ordem de chegada.
+     */
+    public synchronized List<Order> withPriority(Order.Priority priority) {
+        List<Order> result = new ArrayList<>();
+        mergeBySequence(queues.get(priority).values(), Double.POSITIVE_INFINITY, result);
+        return result;
+    }
+
+    /**
+     * Pedidos com peso <= capacity, em ordem de prioridade e chegada. O filtro
+     * é só por peso; alcance e bateria de cada drone ficam com a alocação.
+     */
+    public synchronized List<Order> feasibleFor(double capacity) {
+        List<Order> result = new ArrayList<>();
+        long maxBucket = Double.isInfinite(capacity) ? Long.MAX_VALUE : bucketOf(capacity);
+
+        for (Order.Priority priority : PRIORITY_ORDER) {
+            mergeBySequence(queues.get(priority).headMap(maxBucket, true).values(), capacity, result);
+        }
+        return result;
+    }
+
+    /**
+     * Cada faixa já está em ordem de chegada, então basta intercalá-las pela
+     * sequência (k-way merge): O(k log f) para k pedidos em f faixas, sem
+     * ordenar a fatia inteira a cada consulta.
+     */
+    private static void mergeBySequence(Collection<LinkedHashMap<String, Entry>> buckets, double capacity,
+                                        List<Order> result) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, buckets.size()),
+            Comparator.comparingLong(cursor -> cursor.head.sequence()));
+        for (LinkedHashMap<String, Entry> bucket : buckets) {
+            Cursor cursor = new Cursor(bucket.values().iterator());
+            if (cursor.advance(capacity)) heads.add(cursor);
+        }
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            result.add(cursor.head.order());
+            if (cursor.advance(capacity)) heads.add(cursor);
+        }
+    }
+
+    private static final class Cursor {
+        private final Iterator<Entry> entries;
+        private Entry head;
+
+        Cursor(Iterator<Entry> entries) {
+            this.entries = entries;
+        }
+
+        // Pula os pedidos acima da capacidade (só existem na faixa da fronteira)
+        boolean advance(double capacity) {
+            while (entries.hasNext()) {
+                Entry next = entries.next();
+                Double weight = next.order().getWeight();
+                if (weight == null || weight <= capacity) {
+                    head = next;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private LocalDateTime releaseTimeOf(Order order) {
+        return order.getScheduledFor() != null ? order.getScheduledFor().minusMinutes(leadMinutes) : null;
+    }
+
+    private long bucketOf(Double weight) {
+        if (weight == null) return 0;
+        return (long) Math.floor(weight / bucketKg);
+    }
+}
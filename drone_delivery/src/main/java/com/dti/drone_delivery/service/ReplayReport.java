@@ -0,0 +1,24 @@
+package com.dti.drone_delivery.service;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Resultado do replay de um log de eventos contra uma estratégia de alocação.
+ */
+@Getter
+@Builder
+public class ReplayReport {
+    private final String strategy;
+    private final int entries;
+    private final int rounds;
+    private final int totalOrders;
+    private final int assignedOrders;
+    private final int unassignedOrders;
+    private final double totalObjective;
+    private final double averageWaitSeconds;
+    private final double planTimeTotalMs;
+    private final double planTimeMaxMs;
+    private final double planTimeP95Ms;
+    private final long wallClockMs;
+}
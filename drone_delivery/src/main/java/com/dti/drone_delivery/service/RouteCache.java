@@ -0,0 +1,108 @@
+package com.dti.drone_delivery.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache LRU limitado de rotas, com extremos quantizados na resolução
+ * configurada. Cada entrada guarda a versão do conjunto de obstáculos em
+ * que foi calculada; entradas de versões anteriores são descartadas na
+ * leitura, sem varrer o cache a cada mudança de obstáculo.
+ */
+@Component
+public class RouteCache {
+
+    @Value("${drone.routing.cache.capacity:10000}")
+    private int capacity = 10_000;
+
+    @Value("${drone.routing.cache.quantum:0.1}")
+    private double quantum = 0.1;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > capacity) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private record Key(long startX, long startY, long endX, long endY) {
+    }
+
+    private record Entry(long version, ObstacleRoutePlanner.Route route) {
+    }
+
+    public RouteCache() {
+    }
+
+    public RouteCache(int capacity, double quantum) {
+        this.capacity = capacity;
+        this.quantum = quantum;
+    }
+
+    public double getQuantum() {
+        return quantum;
+    }
+
+    public double snap(double coordinate) {
+        return Math.round(coordinate / quantum) * quantum;
+    }
+
+    /**
+     * Rota em cache para os extremos (já quantizados) e a versão atual dos
+     * obstáculos, ou calculada por {@code loader} e guardada.
+     */
+    public ObstacleRoutePlanner.Route get(double startX, double startY, double endX, double endY, long version,
+                                          Supplier<ObstacleRoutePlanner.Route> loader) {
+        Key key = new Key(Math.round(startX / quantum), Math.round(startY / quantum),
+            Math.round(endX / quantum), Math.round(endY / quantum));
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version() == version) {
+                hits++;
+                return entry.route();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                invalidations++;
+            }
+            misses++;
+        }
+
+        // Calcula fora do lock: duas threads podem calcular a mesma rota, sem prejuízo
+        ObstacleRoutePlanner.Route route = loader.get();
+        synchronized (this) {
+            entries.put(key, new Entry(version, route));
+        }
+        return route;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        long requests = hits + misses;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("capacity", capacity);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hits / requests);
+        stats.put("evictions", evictions);
+        stats.put("invalidations", invalidations);
+        return stats;
+    }
+}
@@ -0,0 +1,17 @@
+package com.dti.drone_delivery.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fonte de tempo da simulação: o relógio de parede na simulação ao vivo,
+ * ou um relógio virtual que o simulador de eventos discretos avança.
+ */
+@FunctionalInterface
+public interface SimulationClock {
+
+    LocalDateTime now();
+
+    static SimulationClock system() {
+        return LocalDateTime::now;
+    }
+}
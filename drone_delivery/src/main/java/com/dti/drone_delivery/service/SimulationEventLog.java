@@ -0,0 +1,285 @@
+package com.dti.drone_delivery.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
+import com.dti.drone_delivery.event.OrderCreatedEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Log binário, só de acréscimo, das chegadas de pedido e de toda transição
+ * de estado publicada no barramento de eventos. Serve de entrada para o
+ * {@link AllocationReplayer}.
+ *
+ * Formato: cabeçalho (magic + versão) e registros {@code tipo, instante,
+ * campos}; strings e números opcionais levam um byte de presença.
+ */
+@Component
+@Slf4j
+public class SimulationEventLog {
+
+    private static final int MAGIC = 0x44524F4E; // "DRON"
+    private static final short VERSION = 1;
+
+    private static final byte ORDER_ARRIVAL = 1;
+    private static final byte ORDER_TRANSITION = 2;
+    private static final byte DRONE_TRANSITION = 3;
+
+    @Value("${drone.simulation.event-log.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${drone.simulation.event-log.path:logs/simulation-events.bin}")
+    private String path = "logs/simulation-events.bin";
+
+    private DataOutputStream out;
+
+    public sealed interface Entry permits OrderArrival, OrderTransition, DroneTransition {
+        LocalDateTime at();
+    }
+
+    public record OrderArrival(LocalDateTime at, String orderId, String customerName, double x, double y,
+            double weight, Order.Priority priority, LocalDateTime scheduledFor) implements Entry {
+    }
+
+    public record OrderTransition(LocalDateTime at, String orderId, Order.OrderStatus status,
+            String droneId, Integer sequence) implements Entry {
+    }
+
+    public record DroneTransition(LocalDateTime at, String droneId, String name, Drone.DroneStatus status,
+            double battery, double x, double y, double baseX, double baseY,
+            double maxWeight, double maxDistance, double batteryCapacity) implements Entry {
+    }
+
+    public SimulationEventLog() {
+    }
+
+    public SimulationEventLog(String path) {
+        this.enabled = true;
+        this.path = path;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path getPath() {
+        return Path.of(path);
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        LocalDateTime at = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        append(new OrderArrival(at, order.getId(), order.getCustomerName(), order.getLocationX(),
+            order.getLocationY(), order.getWeight(), order.getPriority(), order.getScheduledFor()));
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Order order = event.getOrder();
+        append(new OrderTransition(LocalDateTime.now(), order.getId(), order.getStatus(),
+            order.getAssignedDroneId(), order.getDeliverySequence()));
+    }
+
+    @EventListener
+    public void onDroneStatusChanged(DroneStatusChangedEvent event) {
+        append(toTransition(LocalDateTime.now(), event.getDrone()));
+    }
+
+    /**
+     * Registra o estado atual de cada drone, para o replay partir da frota
+     * existente e não só dos drones que mudaram de estado depois.
+     */
+    public void snapshot(Collection<Drone> drones) {
+        if (!enabled) return;
+        LocalDateTime now = LocalDateTime.now();
+        for (Drone drone : drones) append(toTransition(now, drone));
+    }
+
+    public synchronized void append(Entry entry) {
+        if (!enabled) return;
+        try {
+            if (out == null) open();
+            write(out, entry);
+            out.flush();
+        } catch (IOException e) {
+            log.error("Falha ao gravar log de eventos da simulação: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar log de eventos: {}", e.getMessage());
+        }
+        out = null;
+    }
+
+    public static List<Entry> read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        List<Entry> entries = new ArrayList<>();
+        int magic;
+        try {
+            magic = in.readInt();
+        } catch (EOFException e) {
+            return entries;
+        }
+        if (magic != MAGIC) throw new IOException("Arquivo não é um log de eventos da simulação");
+        short version = in.readShort();
+        if (version != VERSION) throw new IOException("Versão de log não suportada: " + version);
+
+        while (true) {
+            int type = in.read();
+            if (type < 0) break;
+            try {
+                entries.add(readEntry(in, (byte) type));
+            } catch (EOFException e) {
+                // Registro truncado no fim (queda durante a escrita): descarta
+                break;
+            }
+        }
+        return entries;
+    }
+
+    private void open() throws IOException {
+        Path file = Path.of(path);
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile(), true)));
+        if (fresh) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+        }
+        log.info("📝 Log de eventos da simulação em {}", file.toAbsolutePath());
+    }
+
+    private static void write(DataOutputStream out, Entry entry) throws IOException {
+        if (entry instanceof OrderArrival arrival) {
+            out.writeByte(ORDER_ARRIVAL);
+            writeTime(out, arrival.at());
+            writeString(out, arrival.orderId());
+            writeString(out, arrival.customerName());
+            out.writeDouble(arrival.x());
+            out.writeDouble(arrival.y());
+            out.writeDouble(arrival.weight());
+            writeString(out, arrival.priority() != null ? arrival.priority().name() : null);
+            out.writeBoolean(arrival.scheduledFor() != null);
+            if (arrival.scheduledFor() != null) writeTime(out, arrival.scheduledFor());
+        } else if (entry instanceof OrderTransition transition) {
+            out.writeByte(ORDER_TRANSITION);
+            writeTime(out, transition.at());
+            writeString(out, transition.orderId());
+            writeString(out, transition.status() != null ? transition.status().name() : null);
+            writeString(out, transition.droneId());
+            out.writeBoolean(transition.sequence() != null);
+            if (transition.sequence() != null) out.writeInt(transition.sequence());
+        } else if (entry instanceof DroneTransition drone) {
+            out.writeByte(DRONE_TRANSITION);
+            writeTime(out, drone.at());
+            writeString(out, drone.droneId());
+            writeString(out, drone.name());
+            writeString(out, drone.status() != null ? drone.status().name() : null);
+            out.writeDouble(drone.battery());
+            out.writeDouble(drone.x());
+            out.writeDouble(drone.y());
+            out.writeDouble(drone.baseX());
+            out.writeDouble(drone.baseY());
+            out.writeDouble(drone.maxWeight());
+            out.writeDouble(drone.maxDistance());
+            out.writeDouble(drone.batteryCapacity());
+        }
+    }
+
+    private static Entry readEntry(DataInputStream in, byte type) throws IOException {
+        switch (type) {
+            case ORDER_ARRIVAL -> {
+                LocalDateTime at = readTime(in);
+                String id = readString(in);
+                String customer = readString(in);
+                double x = in.readDouble();
+                double y = in.readDouble();
+                double weight = in.readDouble();
+                String priority = readString(in);
+                LocalDateTime scheduledFor = in.readBoolean() ? readTime(in) : null;
+                return new OrderArrival(at, id, customer, x, y, weight,
+                    priority != null ? Order.Priority.valueOf(priority) : null, scheduledFor);
+            }
+            case ORDER_TRANSITION -> {
+                LocalDateTime at = readTime(in);
+                String id = readString(in);
+                String status = readString(in);
+                String droneId = readString(in);
+                Integer sequence = in.readBoolean() ? in.readInt() : null;
+                return new OrderTransition(at, id, status != null ? Order.OrderStatus.valueOf(status) : null,
+                    droneId, sequence);
+            }
+            case DRONE_TRANSITION -> {
+                LocalDateTime at = readTime(in);
+                String id = readString(in);
+                String name = readString(in);
+                String status = readString(in);
+                return new DroneTransition(at, id, name, status != null ? Drone.DroneStatus.valueOf(status) : null,
+                    in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+                    in.readDouble(), in.readDouble(), in.readDouble());
+            }
+            default -> throw new IOException("Tipo de registro desconhecido: " + type);
+        }
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static DroneTransition toTransition(LocalDateTime at, Drone drone) {
+        return new DroneTransition(at, drone.getId(), drone.getName(), drone.getStatus(),
+            orZero(drone.getCurrentBattery()), orZero(drone.getCurrentX()), orZero(drone.getCurrentY()),
+            orZero(drone.getBaseX()), orZero(drone.getBaseY()), orZero(drone.getMaxWeight()),
+            orZero(drone.getMaxDistance()), orZero(drone.getBatteryCapacity()));
+    }
+
+    private static double orZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.dti.drone_delivery.service;
+
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fonte única de aleatoriedade da simulação ao vivo. Com
+ * {@code drone.simulation.seed} definido a sequência é reproduzível; sem
+ * ele, uma semente é sorteada e registrada no log para poder ser repetida.
+ */
+@Component
+@Slf4j
+public class SimulationRandom {
+
+    @Value("${drone.simulation.seed:}")
+    private String configuredSeed = "";
+
+    private volatile long seed;
+    private volatile Random random;
+
+    public SimulationRandom() {
+        reseed(new Random().nextLong());
+    }
+
+    public SimulationRandom(long seed) {
+        reseed(seed);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (configuredSeed != null && !configuredSeed.isBlank()) {
+            reseed(Long.parseLong(configuredSeed.trim()));
+        }
+        log.info("🎲 Semente da simulação: {}", seed);
+    }
+
+    public synchronized void reseed(long seed) {
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+}
@@ -0,0 +1,33 @@
+package com.dti.drone_delivery.service;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * KPIs de uma execução do simulador de eventos discretos.
+ */
+@Getter
+@Builder
+public class SimulationReport {
+    private final double simulatedHours;
+    private final long wallClockMs;
+    private final long eventsProcessed;
+    private final int allocationRounds;
+
+    private final int totalOrders;
+    private final int deliveredOrders;
+    private final int pendingOrders;
+    private final int rejectedOrders;
+    private final double deliveryRate;
+
+    private final double averageDeliveryTimeMinutes;
+    private final double p95DeliveryTimeMinutes;
+    private final double totalDistance;
+    private final double droneUtilization;
+    private final int batteryAborts;
+    private final int chargeCycles;
+
+    public double getSpeedup() {
+        return wallClockMs <= 0 ? 0 : simulatedHours * 3_600_000 / wallClockMs;
+    }
+}
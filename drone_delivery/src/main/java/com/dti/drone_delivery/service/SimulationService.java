@@ -1,14 +1,21 @@
 package com.dti.drone_delivery.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.dti.drone_delivery.dto.PositionSample;
+import com.dti.drone_delivery.event.DronePositionsEvent;
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
+import com.dti.drone_delivery.event.OrderCreatedEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
 import com.dti.drone_delivery.model.Drone;
 import com.dti.drone_delivery.model.Order;
 import com.dti.drone_delivery.repository.DroneRepository;
@@ -25,8 +32,25 @@ public class SimulationService {
     
     private final DroneRepository droneRepository;
     private final OrderRepository orderRepository;
-    private final AllocationService allocationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PendingOrderBook pendingOrderBook;
+    private final ObstacleService obstacleService;
+    private final FleetStateEngine fleetStateEngine;
+    private final SimulationRandom random;
+    private final SimulationEventLog eventLog;
+    private final FleetTickExecutor fleetTickExecutor;
+    private final DroneKinematics kinematics;
+    private final SimulationClock clock;
     private ScheduledExecutorService scheduler;
+    private volatile long lastTickNanos;
+    
+    // Com o movimento integrado por dt, o período pode ser esticado sem perder fidelidade
+    @Value("${drone.simulation.tick-ms:3000}")
+    private long tickMs = 3000;
+    
+    // Recarga em % por segundo na base
+    @Value("${drone.simulation.charge-rate:5.0}")
+    private double chargeRate = 5.0;
     
     @PostConstruct
     public void init() {
@@ -37,17 +61,24 @@ public class SimulationService {
             createInitialDrones();
         }
         
+        // Estado vivo em memória, recarregado do último estado gravado
+        fleetStateEngine.load();
+        fleetStateEngine.start();
+        
+        // Estado inicial da frota no log, ponto de partida de um replay
+        eventLog.snapshot(fleetStateEngine.drones());
+        
         // Inicia o scheduler manual (mais confiável que @Scheduled)
         scheduler = Executors.newScheduledThreadPool(2);
         
-        // Agendamento 1: Atualizar drones a cada 3 segundos
+        // Agendamento 1: Atualizar drones a cada tick (3 segundos por padrão)
         scheduler.scheduleAtFixedRate(() -> {
             try {
                 updateDroneStates();
             } catch (Exception e) {
                 log.error("Erro ao atualizar drones: {}", e.getMessage());
             }
-        }, 0, 3, TimeUnit.SECONDS);
+        }, 0, tickMs, TimeUnit.MILLISECONDS);
         
         // Agendamento 2: Gerar pedidos aleatórios a cada 10 segundos
         scheduler.scheduleAtFixedRate(() -> {
@@ -58,16 +89,8 @@ public class SimulationService {
             }
         }, 5, 10, TimeUnit.SECONDS);
         
-        // Agendamento 3: Alocar pedidos a cada 5 segundos
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                allocationService.allocateOrdersToDrones();
-            } catch (Exception e) {
-                log.error("Erro na alocação: {}", e.getMessage());
-            }
-        }, 2, 5, TimeUnit.SECONDS);
-        
-        log.info("✅ Simulador iniciado com 3 tarefas agendadas");
+        // A alocação é disparada por eventos (ver AllocationDispatcher)
+        log.info("✅ Simulador iniciado com 2 tarefas agendadas");
     }
     
     private void createInitialDrones() {
@@ -83,6 +106,7 @@ public class SimulationService {
                 .baseY(0.0)
                 .currentX(0.0)
                 .currentY(0.0)
+                .cruiseSpeed(0.5)
                 .build();
             droneRepository.save(drone);
         }
@@ -90,8 +114,6 @@ public class SimulationService {
     }
     
     public void generateRandomOrder() {
-        Random random = new Random();
-        
         if (random.nextDouble() > 0.3) { // 70% de chance
             Order order = Order.builder()
                 .customerName("Cliente-" + random.nextInt(1000))
@@ -101,115 +123,189 @@ public class SimulationService {
                 .priority(Order.Priority.values()[random.nextInt(Order.Priority.values().length)])
                 .build();
             
+            if (obstacleService.isPointInObstacle(order.getLocationX(), order.getLocationY())) {
+                log.debug("Pedido gerado dentro de zona de exclusão, descartado");
+                return;
+            }
             orderRepository.save(order);
+            pendingOrderBook.add(order);
+            eventPublisher.publishEvent(new OrderCreatedEvent(order));
             log.info("📦 Pedido gerado: {} ({}kg)", order.getCustomerName(), String.format("%.1f", order.getWeight()));
         }
     }
     
+    /**
+     * Tick da frota sobre o estado em memória, em paralelo por partição de
+     * drones (ver FleetTickExecutor), com dt medido desde o tick anterior.
+     * Posição e bateria vão para o banco na descarga periódica; transições
+     * de status são gravadas no fim do tick, antes dos eventos, porque a
+     * alocação compara o status no banco.
+     */
     public void updateDroneStates() {
-        List<Drone> allDrones = droneRepository.findAll();
-        
-        for (Drone drone : allDrones) {
-            switch (drone.getStatus()) {
-                case LOADING:
-                    // Após carregar, vai para FLYING
-                    drone.setStatus(Drone.DroneStatus.FLYING);
-                    log.info("✈️ {} carregou, agora está VOANDO", drone.getName());
-                    break;
-                    
-                case FLYING:
-                    // Move o drone
-                    moveDroneToDestination(drone);
-                    break;
-                    
-                case DELIVERING:
-                    // Entrega os pedidos
-                    deliverOrders(drone);
-                    break;
-                    
-                case RETURNING:
-                    // Retorna à base
-                    returnToBase(drone);
-                    break;
-                    
-                case CHARGING:
-                    // Recarrega bateria
-                    rechargeBattery(drone);
-                    break;
-            }
-            
-            drone.setLastUpdate(LocalDateTime.now());
-            droneRepository.save(drone);
+        long nowNanos = System.nanoTime();
+        double period = tickMs / 1000.0;
+        double dt = lastTickNanos == 0 ? period : Math.min((nowNanos - lastTickNanos) / 1e9, 5 * period);
+        lastTickNanos = nowNanos;
+        updateDroneStates(dt);
+    }
+    
+    /**
+     * Tick com um passo de tempo explícito, em segundos.
+     */
+    public void updateDroneStates(double dtSeconds) {
+        LocalDateTime now = clock.now();
+        long sampledAt = System.currentTimeMillis();
+        List<DroneTick> ticks =
+            fleetTickExecutor.tick(fleetStateEngine.drones(), drone -> stepDrone(drone, now, dtSeconds, sampledAt));
+        
+        List<DroneStatusChangedEvent> transitions = new ArrayList<>();
+        List<OrderStatusChangedEvent> released = new ArrayList<>();
+        List<PositionSample> samples = new ArrayList<>(ticks.size());
+        for (DroneTick tick : ticks) {
+            samples.add(tick.sample());
+            if (tick.transition() != null) transitions.add(tick.transition());
+            released.addAll(tick.released());
+        }
+        
+        if (!transitions.isEmpty()) {
+            fleetStateEngine.flush();
+            transitions.forEach(eventPublisher::publishEvent);
+        }
+        released.forEach(eventPublisher::publishEvent);
+        if (!samples.isEmpty()) {
+            eventPublisher.publishEvent(new DronePositionsEvent(samples));
         }
     }
     
-    private void moveDroneToDestination(Drone drone) {
-        // Se não tem destino, escolhe um pedido aleatório
-        if (Math.abs(drone.getCurrentX() - drone.getBaseX()) < 0.1 && 
-            Math.abs(drone.getCurrentY() - drone.getBaseY()) < 0.1) {
-            
-            List<Order> assignedOrders = orderRepository.findByAssignedDroneId(drone.getId());
-            if (!assignedOrders.isEmpty()) {
-                Order targetOrder = assignedOrders.get(0);
-                // Define destino como localização do pedido
-                drone.setCurrentX(targetOrder.getLocationX());
-                drone.setCurrentY(targetOrder.getLocationY());
-                log.info("🎯 {} indo para pedido em ({}, {})", 
-                    drone.getName(), 
-                    String.format("%.1f", targetOrder.getLocationX()),
-                    String.format("%.1f", targetOrder.getLocationY()));
-            }
+    private record DroneTick(PositionSample sample, DroneStatusChangedEvent transition,
+            List<OrderStatusChangedEvent> released) {
+    }
+    
+    /**
+     * Avança a máquina de estados de um drone. Roda na thread da partição do
+     * drone; devolve a amostra de posição e a transição de status, se houve.
+     */
+    private DroneTick stepDrone(Drone drone, LocalDateTime now, double dt, long sampledAt) {
+        Drone.DroneStatus previousStatus = drone.getStatus();
+        // Eventos publicados depois da barreira do tick, fora das partições
+        List<OrderStatusChangedEvent> released = new ArrayList<>();
+        switch (drone.getStatus()) {
+            case LOADING:
+                // Após carregar, vai para FLYING
+                drone.setStatus(Drone.DroneStatus.FLYING);
+                log.info("✈️ {} carregou, agora está VOANDO", drone.getName());
+                break;
+                
+            case FLYING:
+                // Move o drone
+                moveDroneToDestination(drone, dt, released);
+                break;
+                
+            case DELIVERING:
+                // Entrega os pedidos
+                deliverOrders(drone);
+                break;
+                
+            case RETURNING:
+                // Retorna à base
+                returnToBase(drone, dt);
+                break;
+                
+            case CHARGING:
+                // Recarrega bateria
+                rechargeBattery(drone, dt);
+                break;
+                
+            default:
+                // Ocioso ou em manutenção: nada muda, nada a gravar
+                return null;
         }
         
-        // Consome bateria
-        drone.setCurrentBattery(Math.max(0, drone.getCurrentBattery() - 0.5));
+        drone.setLastUpdate(now);
+        fleetStateEngine.markDirty(drone);
         
-        // Se chegou perto do destino
-        if (Math.abs(drone.getCurrentX() - drone.getBaseX()) > 1 || 
-            Math.abs(drone.getCurrentY() - drone.getBaseY()) > 1) {
-            
-            if (drone.getCurrentBattery() < 20) {
-                drone.setStatus(Drone.DroneStatus.RETURNING);
-                log.info("🔋 {} com bateria baixa, RETORNANDO", drone.getName());
-            } else {
-                drone.setStatus(Drone.DroneStatus.DELIVERING);
-                log.info("📦 {} chegou ao destino, ENTREGANDO", drone.getName());
-            }
+        DroneStatusChangedEvent transition = drone.getStatus() != previousStatus
+            ? new DroneStatusChangedEvent(drone, previousStatus) : null;
+        return new DroneTick(kinematics.sample(drone, sampledAt), transition, released);
+    }
+    
+    private void moveDroneToDestination(Drone drone, double dt, List<OrderStatusChangedEvent> released) {
+        // Segue pela rota planejada até a próxima parada
+        List<Order> stops = pendingStops(drone);
+        if (stops.isEmpty()) {
+            drone.setStatus(Drone.DroneStatus.RETURNING);
+            log.info("🏠 {} sem paradas, RETORNANDO", drone.getName());
+            return;
+        }
+        
+        Order targetOrder = stops.get(0);
+        DroneKinematics.Step step = kinematics.advance(drone, targetOrder.getId(),
+            targetOrder.getLocationX(), targetOrder.getLocationY(), payload(stops), dt);
+        
+        if (drone.getCurrentBattery() < kinematics.getBatteryReserve()) {
+            drone.setStatus(Drone.DroneStatus.RETURNING);
+            List<OrderStatusChangedEvent> dropped = releaseStops(drone, stops);
+            released.addAll(dropped);
+            log.info("🔋 {} com bateria baixa, RETORNANDO ({} pedidos devolvidos à fila)", drone.getName(), dropped.size());
+        } else if (step.arrived()) {
+            drone.setStatus(Drone.DroneStatus.DELIVERING);
+            log.info("📦 {} chegou ao destino ({}, {}), ENTREGANDO", drone.getName(),
+                String.format("%.1f", targetOrder.getLocationX()),
+                String.format("%.1f", targetOrder.getLocationY()));
+        }
+    }
+    
+    /**
+     * Voo abortado: as paradas que faltavam voltam para a fila de pendentes.
+     */
+    private List<OrderStatusChangedEvent> releaseStops(Drone drone, List<Order> stops) {
+        List<OrderStatusChangedEvent> released = new ArrayList<>();
+        for (Order order : stops) {
+            if (orderRepository.releaseAssigned(order.getId(), drone.getId()) == 0) continue;
+            order.setStatus(Order.OrderStatus.PENDING);
+            order.setAssignedDroneId(null);
+            order.setDeliverySequence(null);
+            pendingOrderBook.add(order);
+            released.add(new OrderStatusChangedEvent(order, Order.OrderStatus.ASSIGNED));
         }
+        return released;
     }
     
     private void deliverOrders(Drone drone) {
-        List<Order> assignedOrders = orderRepository.findByAssignedDroneId(drone.getId());
+        List<Order> stops = pendingStops(drone);
         
-        for (Order order : assignedOrders) {
-            order.setStatus(Order.OrderStatus.DELIVERED);
-            order.setDeliveredAt(LocalDateTime.now());
-            orderRepository.save(order);
+        if (!stops.isEmpty()) {
+            Order order = stops.get(0);
+            fleetStateEngine.completeStop(drone.getId(), order, clock.now());
             log.info("✅ {} ENTREGOU pedido para {}", drone.getName(), order.getCustomerName());
         }
         
-        drone.setStatus(Drone.DroneStatus.RETURNING);
+        // Ainda há paradas na rota: segue voando para a próxima
+        drone.setStatus(stops.size() > 1 ? Drone.DroneStatus.FLYING : Drone.DroneStatus.RETURNING);
     }
     
-    private void returnToBase(Drone drone) {
-        // Move de volta para a base (0,0)
-        double dx = drone.getBaseX() - drone.getCurrentX();
-        double dy = drone.getBaseY() - drone.getCurrentY();
-        
-        if (Math.abs(dx) > 0.1) {
-            drone.setCurrentX(drone.getCurrentX() + dx * 0.5);
-        }
-        if (Math.abs(dy) > 0.1) {
-            drone.setCurrentY(drone.getCurrentY() + dy * 0.5);
-        }
-        
-        // Consome bateria
-        drone.setCurrentBattery(Math.max(0, drone.getCurrentBattery() - 0.3));
+    /**
+     * Pedidos do drone ainda não entregues, na sequência de entrega planejada.
+     */
+    private List<Order> pendingStops(Drone drone) {
+        return fleetStateEngine.stops(drone.getId());
+    }
+    
+    /**
+     * Peso a bordo: os pedidos ainda não entregues.
+     */
+    private double payload(List<Order> stops) {
+        return stops.stream().mapToDouble(o -> o.getWeight() != null ? o.getWeight() : 0.0).sum();
+    }
+    
+    private void returnToBase(Drone drone, double dt) {
+        // Pedidos não entregues (retorno por bateria) voltam a bordo
+        DroneKinematics.Step step = kinematics.advance(drone, "base",
+            drone.getBaseX(), drone.getBaseY(), payload(pendingStops(drone)), dt);
         
         // Se chegou na base
-        if (Math.abs(dx) < 0.2 && Math.abs(dy) < 0.2) {
-            drone.setCurrentX(drone.getBaseX());
-            drone.setCurrentY(drone.getBaseY());
+        if (step.arrived()) {
+            kinematics.land(drone.getId());
             
             if (drone.getCurrentBattery() < 30) {
                 drone.setStatus(Drone.DroneStatus.CHARGING);
@@ -221,8 +317,8 @@ public class SimulationService {
         }
     }
     
-    private void rechargeBattery(Drone drone) {
-        double newBattery = Math.min(100, drone.getCurrentBattery() + 15);
+    private void rechargeBattery(Drone drone, double dt) {
+        double newBattery = Math.min(100, drone.getCurrentBattery() + chargeRate * dt);
         drone.setCurrentBattery(newBattery);
         
         if (newBattery >= 80) {
@@ -237,17 +333,23 @@ public class SimulationService {
         
         // Remove todos os pedidos
         orderRepository.deleteAll();
+        pendingOrderBook.clear();
+        fleetStateEngine.clearAssignments();
+        kinematics.clear();
         
-        // Reseta todos os drones
-        List<Drone> drones = droneRepository.findAll();
-        for (Drone drone : drones) {
+        // Reseta todos os drones, cada um na thread da sua partição
+        List<DroneStatusChangedEvent> transitions = fleetTickExecutor.tick(fleetStateEngine.drones(), drone -> {
+            Drone.DroneStatus previousStatus = drone.getStatus();
             drone.setStatus(Drone.DroneStatus.IDLE);
             drone.setCurrentBattery(100.0);
             drone.setCurrentX(0.0);
             drone.setCurrentY(0.0);
-            drone.setLastUpdate(LocalDateTime.now());
-            droneRepository.save(drone);
-        }
+            drone.setLastUpdate(clock.now());
+            fleetStateEngine.markDirty(drone);
+            return new DroneStatusChangedEvent(drone, previousStatus);
+        });
+        fleetStateEngine.flush();
+        transitions.forEach(eventPublisher::publishEvent);
         
         log.info("✅ Simulação resetada");
     }
@@ -0,0 +1,36 @@
+package com.dti.drone_delivery.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Relógio que só anda quando mandado; o tempo nunca volta.
+ */
+public class VirtualClock implements SimulationClock {
+
+    private final LocalDateTime origin;
+    private double elapsedSeconds;
+
+    public VirtualClock(LocalDateTime origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public LocalDateTime now() {
+        return at(elapsedSeconds);
+    }
+
+    public LocalDateTime at(double seconds) {
+        return origin.plusNanos(Math.round(seconds * 1_000_000_000L));
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedSeconds;
+    }
+
+    public void advanceTo(double seconds) {
+        if (seconds < elapsedSeconds) {
+            throw new IllegalStateException("Relógio virtual não pode voltar no tempo");
+        }
+        elapsedSeconds = seconds;
+    }
+}
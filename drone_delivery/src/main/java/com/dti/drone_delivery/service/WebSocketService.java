@@ -1,8 +1,10 @@
 package com.dti.drone_delivery.service;
 
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.MessagingException;
 
 import com.dti.drone_delivery.dto.WebSocketMessage;
+import com.dti.drone_delivery.event.DronePositionsEvent;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +23,14 @@ public class WebSocketService {
         sendToTopic("/topic/drones", WebSocketMessage.create("DRONE_UPDATE", droneData));
     }
     
+    /**
+     * Amostras de posição do tick, numa única mensagem para toda a frota.
+     */
+    @EventListener
+    public void onDronePositions(DronePositionsEvent event) {
+        sendToTopic("/topic/positions", WebSocketMessage.create("POSITION_SAMPLES", event.getSamples()));
+    }
+    
     public void sendOrderUpdate(Object orderData) {
         sendToTopic("/topic/orders", WebSocketMessage.create("ORDER_CREATED", orderData));
     }
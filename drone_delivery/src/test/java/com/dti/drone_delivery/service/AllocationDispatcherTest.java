@@ -0,0 +1,130 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
+import com.dti.drone_delivery.event.OrderCreatedEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.repository.DroneRepository;
+import com.dti.drone_delivery.repository.OrderRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AllocationDispatcherTest {
+
+    @Mock
+    private AllocationService allocationService;
+
+    @Mock
+    private DroneRepository droneRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Spy
+    private PendingOrderBook pendingOrderBook = new PendingOrderBook();
+
+    @InjectMocks
+    private AllocationDispatcher dispatcher;
+
+    private Drone drone;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        drone = Drone.builder()
+            .id("drone-1")
+            .name("Drone Alpha")
+            .maxWeight(10.0)
+            .currentBattery(90.0)
+            .status(Drone.DroneStatus.IDLE)
+            .build();
+
+        order = Order.builder()
+            .id("order-1")
+            .weight(2.0)
+            .priority(Order.Priority.HIGH)
+            .status(Order.OrderStatus.PENDING)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+
+    @Test
+    void testRunAllocation_afterEvents_shouldUseOnlyInMemoryState() {
+        dispatcher.onDroneStatusChanged(new DroneStatusChangedEvent(drone, Drone.DroneStatus.CHARGING));
+        pendingOrderBook.add(order);
+        dispatcher.onOrderCreated(new OrderCreatedEvent(order));
+
+        dispatcher.runAllocation();
+
+        verify(allocationService).allocatePending(argThat(drones -> drones.size() == 1 && drones.contains(drone)));
+        verify(orderRepository, never()).findByStatus(Order.OrderStatus.PENDING);
+        verify(droneRepository, never()).findAvailableDrones(AllocationService.MIN_BATTERY);
+    }
+
+    @Test
+    void testReconcile_shouldRebuildOrderBookFromRepository() {
+        when(droneRepository.findAvailableDrones(AllocationService.MIN_BATTERY)).thenReturn(List.of(drone));
+        when(orderRepository.findByStatus(Order.OrderStatus.PENDING)).thenReturn(List.of(order));
+
+        dispatcher.reconcile();
+
+        assertTrue(pendingOrderBook.contains("order-1"));
+        verify(allocationService).allocatePending(List.of(drone));
+    }
+
+    @Test
+    void testRunAllocation_cancelledOrder_shouldBeDropped() {
+        dispatcher.onDroneStatusChanged(new DroneStatusChangedEvent(drone, Drone.DroneStatus.CHARGING));
+        pendingOrderBook.add(order);
+        dispatcher.onOrderCreated(new OrderCreatedEvent(order));
+        order.setStatus(Order.OrderStatus.CANCELLED);
+        pendingOrderBook.update(order);
+        dispatcher.onOrderStatusChanged(new OrderStatusChangedEvent(order, Order.OrderStatus.PENDING));
+
+        dispatcher.runAllocation();
+
+        verify(allocationService, never()).allocatePending(anyList());
+    }
+
+    @Test
+    void testRunAllocation_droneLeftIdle_shouldNotBeUsed() {
+        dispatcher.onDroneStatusChanged(new DroneStatusChangedEvent(drone, Drone.DroneStatus.CHARGING));
+        pendingOrderBook.add(order);
+        dispatcher.onOrderCreated(new OrderCreatedEvent(order));
+        drone.setStatus(Drone.DroneStatus.MAINTENANCE);
+        dispatcher.onDroneStatusChanged(new DroneStatusChangedEvent(drone, Drone.DroneStatus.IDLE));
+
+        dispatcher.runAllocation();
+
+        verify(allocationService, never()).allocatePending(anyList());
+    }
+
+    @Test
+    void testRunAllocation_urgentWithoutIdleDrone_shouldTryPreemption() {
+        order.setPriority(Order.Priority.URGENT);
+        pendingOrderBook.add(order);
+
+        dispatcher.runAllocation();
+
+        verify(allocationService, never()).allocatePending(anyList());
+        verify(allocationService).preemptForUrgent(List.of(order));
+    }
+}
@@ -0,0 +1,177 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.repository.DroneRepository;
+import com.dti.drone_delivery.repository.OrderRepository;
+import com.dti.drone_delivery.service.SimulationEventLog.DroneTransition;
+import com.dti.drone_delivery.service.SimulationEventLog.Entry;
+import com.dti.drone_delivery.service.SimulationEventLog.OrderArrival;
+import com.dti.drone_delivery.service.SimulationEventLog.OrderTransition;
+
+@ExtendWith(MockitoExtension.class)
+class AllocationReplayerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 8, 0);
+
+    @Mock
+    private DroneRepository droneRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private FleetStateEngine fleetStateEngine;
+
+    private AllocationReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        GreedyAssignmentStrategy greedyStrategy = new GreedyAssignmentStrategy();
+        AllocationService allocationService = new AllocationService(
+            droneRepository,
+            orderRepository,
+            new ObstacleRoutePlanner(new ObstacleIndex(), new RouteCache()),
+            new KnapsackSolver(),
+            List.of(new GlobalAssignmentStrategy(), greedyStrategy),
+            greedyStrategy,
+            eventPublisher,
+            new PendingOrderBook(),
+            new AllocationWriter(orderRepository, droneRepository, jdbcTemplate),
+            new DeliveryRoutePlanner(),
+            new DroneKinematics(new ObstacleRoutePlanner(new ObstacleIndex(), new RouteCache())),
+            fleetStateEngine,
+            SimulationClock.system()
+        );
+        replayer = new AllocationReplayer(allocationService, new SimulationEventLog());
+    }
+
+    @Test
+    void testReplay_shouldCoalesceArrivalsIntoOneRound() {
+        List<Entry> entries = List.of(
+            idle("drone-1", START),
+            arrival("order-1", START.plusNanos(10_000_000), 2.0, 1.0),
+            arrival("order-2", START.plusNanos(20_000_000), 1.0, 2.0),
+            arrival("order-3", START.plusSeconds(5), -3.0, 1.0)
+        );
+
+        ReplayReport report = replayer.replay(entries, GreedyAssignmentStrategy.NAME);
+
+        // Pedidos 1 e 2 na primeira janela; o drone só volta com um novo IDLE
+        assertEquals(1, report.getRounds());
+        assertEquals(2, report.getAssignedOrders());
+        assertEquals(1, report.getUnassignedOrders());
+        assertEquals(3, report.getTotalOrders());
+    }
+
+    @Test
+    void testReplay_droneBackToIdle_shouldServeWaitingOrders() {
+        List<Entry> entries = List.of(
+            idle("drone-1", START),
+            arrival("order-1", START, 2.0, 1.0),
+            arrival("order-2", START.plusSeconds(5), -3.0, 1.0),
+            idle("drone-1", START.plusSeconds(65))
+        );
+
+        ReplayReport report = replayer.replay(entries, GreedyAssignmentStrategy.NAME);
+
+        assertEquals(2, report.getRounds());
+        assertEquals(2, report.getAssignedOrders());
+        assertEquals(0, report.getUnassignedOrders());
+        assertTrue(report.getAverageWaitSeconds() > 30);
+    }
+
+    @Test
+    void testReplay_cancelledOrder_shouldNotBeAssigned() {
+        List<Entry> entries = List.of(
+            arrival("order-1", START, 2.0, 1.0),
+            new OrderTransition(START.plusSeconds(1), "order-1", Order.OrderStatus.CANCELLED, null, null),
+            idle("drone-1", START.plusSeconds(2))
+        );
+
+        ReplayReport report = replayer.replay(entries, GreedyAssignmentStrategy.NAME);
+
+        assertEquals(0, report.getAssignedOrders());
+        assertEquals(0, report.getUnassignedOrders());
+    }
+
+    @Test
+    void testReplay_sameLog_shouldCompareStrategiesOnIdenticalInput() {
+        List<Entry> entries = randomLog(11L, 4, 60);
+
+        ReplayReport greedy = replayer.replay(entries, GreedyAssignmentStrategy.NAME);
+        ReplayReport global = replayer.replay(entries, GlobalAssignmentStrategy.NAME);
+        ReplayReport greedyAgain = replayer.replay(entries, GreedyAssignmentStrategy.NAME);
+
+        assertEquals(greedy.getEntries(), global.getEntries());
+        assertEquals(greedy.getTotalOrders(), global.getTotalOrders());
+        assertEquals(greedy.getAssignedOrders(), greedyAgain.getAssignedOrders());
+        assertEquals(greedy.getTotalObjective(), greedyAgain.getTotalObjective(), 1e-9);
+        assertTrue(global.getAssignedOrders() > 0);
+        assertEquals(GlobalAssignmentStrategy.NAME, global.getStrategy());
+    }
+
+    @Test
+    void testReplay_globalStrategy_shouldNotDependOnTimeBudget() {
+        List<Entry> entries = randomLog(5L, 6, 120);
+
+        ReplayReport first = replayer.replay(entries, GlobalAssignmentStrategy.NAME);
+        ReplayReport second = replayer.replay(entries, GlobalAssignmentStrategy.NAME);
+
+        assertEquals(first.getAssignedOrders(), second.getAssignedOrders());
+        assertEquals(first.getTotalObjective(), second.getTotalObjective(), 1e-9);
+        assertEquals(first.getAverageWaitSeconds(), second.getAverageWaitSeconds(), 1e-9);
+    }
+
+    @Test
+    void testReplay_unknownStrategy_shouldThrow() {
+        List<Entry> entries = randomLog(11L, 2, 5);
+
+        assertThrows(RuntimeException.class, () -> replayer.replay(entries, "aleatoria"));
+    }
+
+    private List<Entry> randomLog(long seed, int drones, int orders) {
+        Random random = new Random(seed);
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < drones; i++) entries.add(idle("drone-" + i, START));
+        LocalDateTime at = START;
+        for (int i = 0; i < orders; i++) {
+            at = at.plusSeconds(1 + random.nextInt(20));
+            entries.add(arrival("order-" + i, at, random.nextDouble() * 20 - 10, random.nextDouble() * 4 + 1));
+            if (i % 5 == 4) entries.add(idle("drone-" + random.nextInt(drones), at.plusSeconds(1)));
+        }
+        return entries;
+    }
+
+    private DroneTransition idle(String droneId, LocalDateTime at) {
+        return new DroneTransition(at, droneId, droneId, Drone.DroneStatus.IDLE,
+            100.0, 0.0, 0.0, 0.0, 0.0, 10.0, 50.0, 100.0);
+    }
+
+    private OrderArrival arrival(String orderId, LocalDateTime at, double x, double weight) {
+        return new OrderArrival(at, orderId, "Cliente", x, 1.0, weight, Order.Priority.MEDIUM, null);
+    }
+}
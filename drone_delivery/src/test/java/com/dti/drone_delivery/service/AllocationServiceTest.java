@@ -1,7 +1,9 @@
 package com.dti.drone_delivery.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -9,20 +11,29 @@ import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import org.mockito.InjectMocks;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
-import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Obstacle;
 import com.dti.drone_delivery.model.Order;
 import com.dti.drone_delivery.repository.DroneRepository;
 import com.dti.drone_delivery.repository.OrderRepository;
@@ -37,9 +48,16 @@ class AllocationServiceTest {
     private OrderRepository orderRepository;
     
     @Mock
-    private ObstacleService obstacleService;
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private FleetStateEngine fleetStateEngine;
+    
+    private PendingOrderBook pendingOrderBook;
     
-    @InjectMocks
     private AllocationService allocationService;
     
     private Drone drone1;
@@ -50,6 +68,24 @@ class AllocationServiceTest {
     
     @BeforeEach
     void setUp() {
+        GreedyAssignmentStrategy greedyStrategy = new GreedyAssignmentStrategy();
+        pendingOrderBook = new PendingOrderBook();
+        allocationService = new AllocationService(
+            droneRepository,
+            orderRepository,
+            new ObstacleRoutePlanner(new ObstacleIndex(), new RouteCache()),
+            new KnapsackSolver(),
+            List.of(new GlobalAssignmentStrategy(), greedyStrategy),
+            greedyStrategy,
+            eventPublisher,
+            pendingOrderBook,
+            new AllocationWriter(orderRepository, droneRepository, jdbcTemplate),
+            new DeliveryRoutePlanner(),
+            new DroneKinematics(new ObstacleRoutePlanner(new ObstacleIndex(), new RouteCache())),
+            fleetStateEngine,
+            SimulationClock.system()
+        );
+
         drone1 = Drone.builder()
             .id("drone-1")
             .name("Drone Alpha")
@@ -153,18 +189,67 @@ class AllocationServiceTest {
     void testAllocateOrdersToDrones_withAvailableDronesAndOrders_shouldAllocate() {
         List<Drone> availableDrones = Arrays.asList(drone1, drone2);
         List<Order> pendingOrders = Arrays.asList(order1, order2);
+        pendingOrders.forEach(pendingOrderBook::add);
         
         when(droneRepository.findAvailableDrones(20.0)).thenReturn(availableDrones);
-        when(orderRepository.findByStatus(Order.OrderStatus.PENDING)).thenReturn(pendingOrders);
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(droneRepository.save(any(Drone.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.lockPendingByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return pendingOrders.stream().filter(o -> ids.contains(o.getId())).toList();
+        });
+        when(droneRepository.compareAndSetStatus(anyString(), eq(Drone.DroneStatus.IDLE), eq(Drone.DroneStatus.LOADING), any()))
+            .thenReturn(1);
+        when(orderRepository.claimPendingByIdIn(anyCollection(), anyString()))
+            .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+            .thenAnswer(invocation -> filledCounts(((List<?>) invocation.getArgument(1)).size(), 1));
 
         Map<String, List<Order>> result = allocationService.allocateOrdersToDrones();
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
-        verify(orderRepository, atLeastOnce()).save(any(Order.class));
-        verify(droneRepository, atLeastOnce()).save(any(Drone.class));
+        assertTrue(pendingOrderBook.isEmpty());
+        // Um UPDATE de reivindicação e um batch de sequência por drone
+        verify(orderRepository, times(result.size())).claimPendingByIdIn(anyCollection(), anyString());
+        verify(jdbcTemplate, times(result.size())).batchUpdate(anyString(), anyList());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(droneRepository, never()).save(any(Drone.class));
+    }
+    
+    @Test
+    void testAllocateOrdersToDrones_sequenceNotWritten_shouldReleaseOrdersAndResetDrone() {
+        List<Order> pendingOrders = Arrays.asList(order1);
+        pendingOrders.forEach(pendingOrderBook::add);
+        
+        when(droneRepository.findAvailableDrones(20.0)).thenReturn(Arrays.asList(drone1));
+        when(orderRepository.lockPendingByIdIn(anyCollection())).thenReturn(pendingOrders);
+        when(droneRepository.compareAndSetStatus(anyString(), eq(Drone.DroneStatus.IDLE), eq(Drone.DroneStatus.LOADING), any()))
+            .thenReturn(1);
+        when(orderRepository.claimPendingByIdIn(anyCollection(), anyString())).thenReturn(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+
+        Map<String, List<Order>> result = allocationService.allocateOrdersToDrones();
+
+        assertTrue(result.isEmpty());
+        assertNull(order1.getDeliverySequence());
+        assertTrue(pendingOrderBook.contains("order-1"));
+        verify(orderRepository).releaseAssignedByIdIn(anyCollection(), eq("drone-1"));
+        verify(droneRepository).compareAndSetStatus(eq("drone-1"), eq(Drone.DroneStatus.LOADING), eq(Drone.DroneStatus.IDLE), any());
+    }
+    
+    @Test
+    void testAllocateOrdersToDrones_droneClaimedElsewhere_shouldDropItsOrders() {
+        pendingOrderBook.add(order1);
+        when(droneRepository.findAvailableDrones(20.0)).thenReturn(Arrays.asList(drone1));
+        when(orderRepository.lockPendingByIdIn(anyCollection())).thenReturn(Arrays.asList(order1));
+        when(droneRepository.compareAndSetStatus(anyString(), eq(Drone.DroneStatus.IDLE), eq(Drone.DroneStatus.LOADING), any()))
+            .thenReturn(0);
+
+        Map<String, List<Order>> result = allocationService.allocateOrdersToDrones();
+
+        assertTrue(result.isEmpty());
+        assertTrue(pendingOrderBook.contains("order-1"));
+        assertEquals(Order.OrderStatus.PENDING, order1.getStatus());
+        verify(orderRepository, never()).claimPendingByIdIn(anyCollection(), anyString());
     }
     
     @Test
@@ -182,7 +267,6 @@ class AllocationServiceTest {
     void testAllocateOrdersToDrones_withNoPendingOrders_shouldReturnEmptyMap() {
         List<Drone> availableDrones = Arrays.asList(drone1);
         when(droneRepository.findAvailableDrones(20.0)).thenReturn(availableDrones);
-        when(orderRepository.findByStatus(Order.OrderStatus.PENDING)).thenReturn(Collections.emptyList());
 
         Map<String, List<Order>> result = allocationService.allocateOrdersToDrones();
 
@@ -190,6 +274,268 @@ class AllocationServiceTest {
         assertTrue(result.isEmpty());
     }
     
+    @Test
+    void testPreviewAllocation_withHypotheticalDrone_shouldNotPersist() {
+        pendingOrderBook.add(order1);
+        pendingOrderBook.add(order2);
+        Drone hypothetical = Drone.builder()
+            .name("Drone Extra")
+            .maxWeight(20.0)
+            .maxDistance(50.0)
+            .build();
+
+        AllocationResult result = allocationService.previewAllocation(List.of(hypothetical), false);
+
+        assertEquals(2, result.getAssignedOrders());
+        assertTrue(result.getAllocation().containsKey("preview-1"));
+        assertTrue(result.getObjective() <= result.getUpperBound() + 1e-9);
+        assertTrue(result.getGap() >= 0 && result.getGap() <= 1);
+        assertEquals(2, pendingOrderBook.size());
+        assertEquals(Order.OrderStatus.PENDING, order1.getStatus());
+        verify(orderRepository, never()).lockPendingByIdIn(anyCollection());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void testPlanAllocation_expiredBudget_shouldReportTimeout() {
+        ReflectionTestUtils.setField(allocationService, "timeBudgetMs", 0L);
+
+        AllocationResult result = allocationService.planAllocation(Arrays.asList(drone1, drone2), Arrays.asList(order1, order2));
+
+        assertTrue(result.isTimedOut());
+        assertTrue(result.getObjective() <= result.getUpperBound() + 1e-9);
+    }
+    
+    @Test
+    void testPlanAllocation_largeBacklog_shouldStayWithinTimeBudget() {
+        ObstacleIndex obstacles = new ObstacleIndex();
+        for (int i = 0; i < 12; i++) {
+            double angle = 2 * Math.PI * i / 12;
+            obstacles.add(Obstacle.builder().id("torre-" + i)
+                .centerX(8 * Math.cos(angle)).centerY(8 * Math.sin(angle)).radius(0.8).build());
+        }
+        ObstacleRoutePlanner planner = new ObstacleRoutePlanner(obstacles, new RouteCache());
+        GreedyAssignmentStrategy greedyStrategy = new GreedyAssignmentStrategy();
+        AllocationService routed = new AllocationService(droneRepository, orderRepository, planner,
+            new KnapsackSolver(), List.of(new GlobalAssignmentStrategy(), greedyStrategy), greedyStrategy,
+            eventPublisher, pendingOrderBook, new AllocationWriter(orderRepository, droneRepository, jdbcTemplate),
+            new DeliveryRoutePlanner(), new DroneKinematics(planner), fleetStateEngine, SimulationClock.system());
+        List<Order> backlog = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            double angle = 2 * Math.PI * i / 3000;
+            backlog.add(zoneOrder("backlog-" + i, 12 * Math.cos(angle), 12 * Math.sin(angle)));
+        }
+        long budgetMs = 100;
+
+        // Aquecimento: a primeira rodada paga carga de classes e JIT
+        routed.planAllocation(Arrays.asList(drone1, drone2), backlog.subList(0, 300), LocalDateTime.now(), "global",
+            AllocationService.NO_TIME_BUDGET);
+
+        AllocationResult result = routed.planAllocation(Arrays.asList(drone1, drone2), backlog,
+            LocalDateTime.now(), "global", budgetMs);
+
+        assertTrue(result.isTimedOut());
+        // Folga para a última rota iniciada antes do prazo e o sequenciamento final
+        assertTrue(result.getElapsedMs() <= budgetMs + 50, "Rodada levou " + result.getElapsedMs() + " ms");
+        assertTrue(result.getObjective() <= result.getUpperBound() + 1e-9);
+    }
+    
+    @Test
+    void testPlanAllocation_unknownStrategy_shouldThrowInsteadOfFallingBack() {
+        assertThrows(RuntimeException.class, () -> allocationService.planAllocation(
+            Arrays.asList(drone1), Arrays.asList(order1), LocalDateTime.now(), "aleatoria"));
+    }
+    
+    @Test
+    void testOptimizePackagesForDrone_windowClosing_shouldWinOverLaterWindow() {
+        Order closing = Order.builder()
+            .id("order-closing")
+            .locationX(3.0)
+            .locationY(3.0)
+            .weight(6.0)
+            .priority(Order.Priority.MEDIUM)
+            .status(Order.OrderStatus.PENDING)
+            .createdAt(LocalDateTime.now())
+            .scheduledFor(LocalDateTime.now().minusMinutes(25))
+            .build();
+        Order opening = Order.builder()
+            .id("order-opening")
+            .locationX(3.0)
+            .locationY(3.0)
+            .weight(6.0)
+            .priority(Order.Priority.MEDIUM)
+            .status(Order.OrderStatus.PENDING)
+            .createdAt(LocalDateTime.now())
+            .scheduledFor(LocalDateTime.now())
+            .build();
+
+        List<Order> result = allocationService.optimizePackagesForDrone(drone1, Arrays.asList(opening, closing));
+
+        assertEquals(1, result.size());
+        assertEquals("order-closing", result.get(0).getId());
+    }
+    
+    @Test
+    void testPlanAllocation_twoBases_shouldServeEachZoneLocallyAndSpillOver() {
+        Drone west = Drone.builder().id("west").name("Oeste").maxWeight(10.0).maxDistance(50.0)
+            .batteryCapacity(100.0).currentBattery(100.0).status(Drone.DroneStatus.IDLE)
+            .baseX(-10.0).baseY(0.0).build();
+        Drone eastA = Drone.builder().id("east-a").name("Leste A").maxWeight(10.0).maxDistance(50.0)
+            .batteryCapacity(100.0).currentBattery(100.0).status(Drone.DroneStatus.IDLE)
+            .baseX(10.0).baseY(0.0).build();
+        Drone eastB = Drone.builder().id("east-b").name("Leste B").maxWeight(10.0).maxDistance(50.0)
+            .batteryCapacity(100.0).currentBattery(100.0).status(Drone.DroneStatus.IDLE)
+            .baseX(10.0).baseY(0.0).build();
+        List<Order> orders = Arrays.asList(
+            zoneOrder("w-1", -11.0, 6.0), zoneOrder("w-2", -9.0, 6.0), zoneOrder("e-1", 11.0, 1.0));
+
+        AllocationResult result = allocationService.planAllocation(Arrays.asList(west, eastA, eastB), orders);
+
+        // A zona oeste só tem capacidade para um dos dois pedidos; o outro sobra
+        // e vai para o drone leste que ficou livre na passada entre zonas
+        assertEquals(3, result.getAssignedOrders());
+        assertEquals(1, result.getAllocation().get("west").size());
+        assertTrue(result.getAllocation().get("west").get(0).getId().startsWith("w-"));
+        long eastLoads = result.getAllocation().keySet().stream().filter(id -> id.startsWith("east")).count();
+        assertEquals(2, eastLoads);
+    }
+    
+    @Test
+    void testPreemptForUrgent_loadingDrone_shouldSwapOutLowerValueOrder() {
+        drone1.setStatus(Drone.DroneStatus.LOADING);
+        Order low = zoneOrder("order-low", 3.0, 3.0);
+        low.setPriority(Order.Priority.LOW);
+        low.setStatus(Order.OrderStatus.ASSIGNED);
+        low.setAssignedDroneId("drone-1");
+        Order urgent = zoneOrder("order-urgent", 4.0, 3.0);
+        urgent.setPriority(Order.Priority.URGENT);
+        pendingOrderBook.add(urgent);
+
+        when(fleetStateEngine.drones()).thenReturn(List.of(drone1));
+        when(fleetStateEngine.stops("drone-1")).thenReturn(List.of(low));
+        when(orderRepository.lockPendingByIdIn(anyCollection())).thenReturn(List.of(urgent));
+        when(droneRepository.compareAndSetStatus(eq("drone-1"), eq(Drone.DroneStatus.LOADING), eq(Drone.DroneStatus.LOADING), any()))
+            .thenReturn(1);
+        when(orderRepository.releaseAssignedByIdIn(List.of("order-low"), "drone-1")).thenReturn(1);
+        when(orderRepository.claimPendingByIdIn(List.of("order-urgent"), "drone-1")).thenReturn(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        Map<String, List<Order>> result = allocationService.preemptForUrgent(List.of(urgent));
+
+        assertEquals(List.of(urgent), result.get("drone-1"));
+        assertEquals(Order.OrderStatus.ASSIGNED, urgent.getStatus());
+        assertEquals(Order.OrderStatus.PENDING, low.getStatus());
+        assertTrue(pendingOrderBook.contains("order-low"));
+        assertFalse(pendingOrderBook.contains("order-urgent"));
+    }
+    
+    @Test
+    void testPreemptForUrgent_liveStateAheadOfDatabase_shouldSkipDroneThatTookOff() {
+        // O tick já levou o drone1 a FLYING; o banco ainda o tem em LOADING
+        drone1.setStatus(Drone.DroneStatus.FLYING);
+        drone2.setStatus(Drone.DroneStatus.LOADING);
+        Order low = zoneOrder("order-low", 3.0, 3.0);
+        low.setPriority(Order.Priority.LOW);
+        low.setStatus(Order.OrderStatus.ASSIGNED);
+        low.setAssignedDroneId("drone-2");
+        Order urgent = zoneOrder("order-urgent", 4.0, 3.0);
+        urgent.setPriority(Order.Priority.URGENT);
+        pendingOrderBook.add(urgent);
+
+        when(fleetStateEngine.drones()).thenReturn(List.of(drone1, drone2));
+        when(fleetStateEngine.stops("drone-2")).thenReturn(List.of(low));
+        when(orderRepository.lockPendingByIdIn(anyCollection())).thenReturn(List.of(urgent));
+        when(droneRepository.compareAndSetStatus(eq("drone-2"), eq(Drone.DroneStatus.LOADING), eq(Drone.DroneStatus.LOADING), any()))
+            .thenReturn(1);
+        when(orderRepository.claimPendingByIdIn(List.of("order-urgent"), "drone-2")).thenReturn(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> filledCounts(((List<?>) invocation.getArgument(1)).size(), 1));
+
+        Map<String, List<Order>> result = allocationService.preemptForUrgent(List.of(urgent));
+
+        assertTrue(result.get("drone-2").contains(urgent));
+        assertFalse(result.containsKey("drone-1"));
+        verify(droneRepository, never()).findByStatus(any());
+        verify(orderRepository, never()).findByAssignedDroneId(anyString());
+    }
+    
+    @Test
+    void testPreemptForUrgent_droneAlreadyFlying_shouldKeepOrdersUnchanged() {
+        drone1.setStatus(Drone.DroneStatus.LOADING);
+        Order low = zoneOrder("order-low", 3.0, 3.0);
+        low.setPriority(Order.Priority.LOW);
+        low.setStatus(Order.OrderStatus.ASSIGNED);
+        low.setAssignedDroneId("drone-1");
+        Order urgent = zoneOrder("order-urgent", 4.0, 3.0);
+        urgent.setPriority(Order.Priority.URGENT);
+        pendingOrderBook.add(urgent);
+
+        when(fleetStateEngine.drones()).thenReturn(List.of(drone1));
+        when(fleetStateEngine.stops("drone-1")).thenReturn(List.of(low));
+        when(orderRepository.lockPendingByIdIn(anyCollection())).thenReturn(List.of(urgent));
+        when(droneRepository.compareAndSetStatus(eq("drone-1"), eq(Drone.DroneStatus.LOADING), eq(Drone.DroneStatus.LOADING), any()))
+            .thenReturn(0);
+
+        Map<String, List<Order>> result = allocationService.preemptForUrgent(List.of(urgent));
+
+        assertTrue(result.isEmpty());
+        assertEquals(Order.OrderStatus.PENDING, urgent.getStatus());
+        assertEquals(Order.OrderStatus.ASSIGNED, low.getStatus());
+        verify(orderRepository, never()).releaseAssignedByIdIn(anyCollection(), anyString());
+    }
+    
+    @Test
+    void testOptimizePackagesForDrone_orderBeyondRange_shouldBeExcluded() {
+        Order farOrder = Order.builder()
+            .id("order-far")
+            .customerName("Cliente Longe")
+            .locationX(20.0)
+            .locationY(20.0)
+            .weight(1.0)
+            .priority(Order.Priority.URGENT)
+            .status(Order.OrderStatus.PENDING)
+            .createdAt(LocalDateTime.now())
+            .build();
+
+        // Ida e volta de ~56.6 km excede o alcance de 50 km do drone1
+        List<Order> result = allocationService.optimizePackagesForDrone(drone1, Arrays.asList(order1, farOrder));
+
+        assertEquals(1, result.size());
+        assertEquals("order-1", result.get(0).getId());
+    }
+    
+    @Test
+    void testOptimizePackagesForDrone_lowBattery_shouldSkipLongTrips() {
+        drone1.setCurrentBattery(30.0);
+        drone1.setBatteryCapacity(100.0);
+
+        // 2 %/km: order1 (ida e volta ~14.1 km) gasta ~28%, acima dos 30% - 10% de reserva
+        List<Order> result = allocationService.optimizePackagesForDrone(drone1, Arrays.asList(order1));
+
+        assertTrue(result.isEmpty());
+    }
+    
+    @Test
+    void testIsRouteFeasible_shouldRespectRangeAndBatteryReserve() {
+        drone1.setBatteryCapacity(100.0);
+
+        assertTrue(allocationService.isRouteFeasible(drone1, 40.0, 90.0));
+        assertFalse(allocationService.isRouteFeasible(drone1, 40.0, 91.0));
+        assertFalse(allocationService.isRouteFeasible(drone1, 51.0, 10.0));
+    }
+
+    @Test
+    void testEstimateRoundTripBattery_fullPayload_shouldDrainMoreOnTheWayOut() {
+        Order heavy = Order.builder().id("heavy").locationX(10.0).locationY(0.0).weight(10.0).build();
+        drone1.setBatteryCapacity(100.0);
+        drone1.setCurrentBattery(53.0);
+
+        // Ida a 2.6%/unidade com 10 kg, volta vazia a 2%/unidade
+        double battery = allocationService.estimateRoundTripBattery(drone1, heavy, 20.0);
+
+        assertEquals(46.0, battery, 1e-9);
+        assertFalse(allocationService.isRouteFeasible(drone1, 20.0, battery));
+    }
+    
     @Test
     void testCalculateDistance_shouldReturnCorrectDistance() {
         double x1 = 0, y1 = 0;
@@ -209,4 +555,22 @@ class AllocationServiceTest {
 
         assertEquals(1.0, batteryUsage, 0.001);
     }
-}
\ No newline at end of file
+    
+    private static int[] filledCounts(int size, int count) {
+        int[] counts = new int[size];
+        Arrays.fill(counts, count);
+        return counts;
+    }
+    
+    private Order zoneOrder(String id, double x, double y) {
+        return Order.builder()
+            .id(id)
+            .locationX(x)
+            .locationY(y)
+            .weight(6.0)
+            .priority(Order.Priority.MEDIUM)
+            .status(Order.OrderStatus.PENDING)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.repository.DroneRepository;
+import com.dti.drone_delivery.repository.OrderRepository;
+
+@DataJpaTest
+@Import(AllocationWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class AllocationWriterTest {
+
+    private static final int ALLOCATORS = 4;
+    private static final int ORDERS = 40;
+
+    @Autowired
+    private AllocationWriter allocationWriter;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        droneRepository.deleteAll();
+    }
+
+    @Test
+    void testPersist_concurrentAllocators_shouldNeverAssignAnOrderTwice() throws Exception {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(orderRepository.save(Order.builder()
+                .customerName("Cliente-" + i)
+                .locationX(1.0)
+                .locationY(1.0)
+                .weight(1.0)
+                .build()));
+        }
+
+        // Cada alocador propõe todos os pedidos para os seus próprios drones
+        List<Map<String, List<Order>>> proposals = new ArrayList<>();
+        for (int a = 0; a < ALLOCATORS; a++) {
+            Map<String, List<Order>> proposal = new LinkedHashMap<>();
+            for (int d = 0; d < 4; d++) {
+                Drone drone = droneRepository.save(Drone.builder()
+                    .name("Drone-" + a + "-" + d)
+                    .maxWeight(10.0)
+                    .maxDistance(50.0)
+                    .batteryCapacity(100.0)
+                    .build());
+                proposal.put(drone.getId(), new ArrayList<>(orders.subList(d * 10, d * 10 + 10)));
+            }
+            proposals.add(proposal);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(ALLOCATORS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<String, List<Order>>>> futures = new ArrayList<>();
+        for (Map<String, List<Order>> proposal : proposals) {
+            Callable<Map<String, List<Order>>> task = () -> {
+                start.await();
+                return allocationWriter.persist(proposal);
+            };
+            futures.add(executor.submit(task));
+        }
+        start.countDown();
+
+        Map<String, String> claimedBy = new HashMap<>();
+        for (Future<Map<String, List<Order>>> future : futures) {
+            for (Map.Entry<String, List<Order>> entry : future.get().entrySet()) {
+                for (Order order : entry.getValue()) {
+                    String previous = claimedBy.put(order.getId(), entry.getKey());
+                    assertEquals(null, previous, "Pedido atribuído duas vezes: " + order.getId());
+                }
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(ORDERS, claimedBy.size());
+        Set<String> loadedDrones = new HashSet<>(claimedBy.values());
+        for (Order order : orderRepository.findAll()) {
+            assertEquals(Order.OrderStatus.ASSIGNED, order.getStatus());
+            assertEquals(claimedBy.get(order.getId()), order.getAssignedDroneId());
+            assertTrue(order.getDeliverySequence() != null && order.getDeliverySequence() < 10);
+        }
+        for (Drone drone : droneRepository.findAll()) {
+            Drone.DroneStatus expected = loadedDrones.contains(drone.getId())
+                ? Drone.DroneStatus.LOADING
+                : Drone.DroneStatus.IDLE;
+            assertEquals(expected, drone.getStatus());
+        }
+    }
+
+    @Test
+    void testPersist_alreadyAssignedOrder_shouldNotBeClaimed() {
+        Order order = orderRepository.save(Order.builder()
+            .customerName("Cliente")
+            .locationX(1.0)
+            .locationY(1.0)
+            .weight(1.0)
+            .status(Order.OrderStatus.ASSIGNED)
+            .build());
+        Drone drone = droneRepository.save(Drone.builder()
+            .name("Drone")
+            .maxWeight(10.0)
+            .maxDistance(50.0)
+            .batteryCapacity(100.0)
+            .build());
+
+        Map<String, List<Order>> claimed = allocationWriter.persist(Map.of(drone.getId(), List.of(order)));
+
+        assertTrue(claimed.isEmpty());
+        assertEquals(Drone.DroneStatus.IDLE, droneRepository.findById(drone.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testPersist_shouldWriteDeliverySequenceInPlannedOrder() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orders.add(orderRepository.save(Order.builder()
+                .customerName("Cliente-" + i)
+                .locationX(1.0)
+                .locationY(1.0)
+                .weight(1.0)
+                .build()));
+        }
+        Drone drone = droneRepository.save(Drone.builder()
+            .name("Drone")
+            .maxWeight(10.0)
+            .maxDistance(50.0)
+            .batteryCapacity(100.0)
+            .build());
+        List<Order> route = List.of(orders.get(2), orders.get(0), orders.get(1));
+
+        Map<String, List<Order>> claimed = allocationWriter.persist(Map.of(drone.getId(), route));
+
+        assertEquals(3, claimed.get(drone.getId()).size());
+        for (int i = 0; i < route.size(); i++) {
+            Order stored = orderRepository.findById(route.get(i).getId()).orElseThrow();
+            assertEquals(Order.OrderStatus.ASSIGNED, stored.getStatus());
+            assertEquals(drone.getId(), stored.getAssignedDroneId());
+            assertEquals(i, stored.getDeliverySequence());
+        }
+    }
+}
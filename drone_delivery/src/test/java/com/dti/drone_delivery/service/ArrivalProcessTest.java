@@ -0,0 +1,86 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.dto.LoadProfile;
+
+class ArrivalProcessTest {
+
+    @Test
+    void testPoisson_shouldMatchTargetRate() {
+        LoadProfile profile = new LoadProfile();
+        profile.setOrdersPerSecond(50);
+        ArrivalProcess process = new ArrivalProcess(profile, new Random(1));
+
+        int arrivals = countUntil(process, 1000);
+
+        assertEquals(50_000, arrivals, 50_000 * 0.02);
+    }
+
+    @Test
+    void testNext_shouldBeIncreasing() {
+        LoadProfile profile = new LoadProfile();
+        profile.setArrivalProcess(LoadProfile.ArrivalProcess.BURSTY);
+        ArrivalProcess process = new ArrivalProcess(profile, new Random(2));
+
+        double previous = 0;
+        for (int i = 0; i < 10_000; i++) {
+            double next = process.next();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testBursty_shouldMatchMeanRateWithMoreVariance() {
+        LoadProfile bursty = new LoadProfile();
+        bursty.setOrdersPerSecond(10);
+        bursty.setArrivalProcess(LoadProfile.ArrivalProcess.BURSTY);
+        bursty.setBurstFactor(10);
+        bursty.setMeanBurstSeconds(5);
+        bursty.setMeanCalmSeconds(20);
+        ArrivalProcess process = new ArrivalProcess(bursty, new Random(3));
+
+        // (10 × 20 + 100 × 5) / 25 = 28 pedidos/s
+        assertEquals(28.0, process.meanRate(), 1e-9);
+        assertEquals(28.0 * 20_000, countUntil(process, 20_000), 28.0 * 20_000 * 0.05);
+
+        LoadProfile poisson = new LoadProfile();
+        poisson.setOrdersPerSecond(28);
+        double burstyDispersion = dispersionPerSecond(new ArrivalProcess(bursty, new Random(4)), 2000);
+        double poissonDispersion = dispersionPerSecond(new ArrivalProcess(poisson, new Random(4)), 2000);
+
+        assertEquals(1.0, poissonDispersion, 0.15);
+        assertTrue(burstyDispersion > 5 * poissonDispersion);
+    }
+
+    @Test
+    void testInvalidRate_shouldThrow() {
+        LoadProfile profile = new LoadProfile();
+        profile.setOrdersPerSecond(0);
+
+        assertThrows(RuntimeException.class, () -> new ArrivalProcess(profile, new Random()));
+    }
+
+    private int countUntil(ArrivalProcess process, double horizon) {
+        int count = 0;
+        while (process.next() <= horizon) count++;
+        return count;
+    }
+
+    /** Variância/média das contagens por segundo (1 para Poisson). */
+    private double dispersionPerSecond(ArrivalProcess process, int seconds) {
+        int[] counts = new int[seconds];
+        double t;
+        while ((t = process.next()) < seconds) counts[(int) t]++;
+        double mean = java.util.Arrays.stream(counts).average().orElse(0);
+        double variance = java.util.Arrays.stream(counts).mapToDouble(c -> (c - mean) * (c - mean)).sum() / seconds;
+        return variance / mean;
+    }
+}
@@ -0,0 +1,85 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.model.Order;
+
+class DeliveryRoutePlannerTest {
+
+    private static final DeliveryRoutePlanner.DistanceMetric EUCLIDEAN =
+        (x1, y1, x2, y2) -> Math.hypot(x2 - x1, y2 - y1);
+
+    private final DeliveryRoutePlanner planner = new DeliveryRoutePlanner();
+
+    @Test
+    void testPlan_pointsOnALine_shouldVisitInOrder() {
+        List<Order> orders = List.of(order("c", 3, 0), order("a", 1, 0), order("b", 2, 0));
+
+        List<Order> plan = planner.plan(0, 0, orders, EUCLIDEAN);
+
+        assertEquals(List.of("a", "b", "c"), plan.stream().map(Order::getId).toList());
+        assertEquals(6.0, planner.tourLength(0, 0, plan, EUCLIDEAN), 1e-9);
+    }
+
+    @Test
+    void testPlan_shouldReachOptimalTour() {
+        // Ótimo: base → a → d → b → c → base
+        List<Order> orders = List.of(order("a", 1, 0), order("b", 1, 1), order("c", 0, 1), order("d", 2, 0.5));
+
+        List<Order> plan = planner.plan(0, 0, orders, EUCLIDEAN);
+
+        double length = planner.tourLength(0, 0, plan, EUCLIDEAN);
+        assertEquals(1 + Math.hypot(1, 0.5) * 2 + 1 + 1, length, 1e-9);
+    }
+
+    @Test
+    void testPlan_randomStops_shouldKeepAllOrdersAndNotBeWorseThanNearestNeighbour() {
+        Random random = new Random(7);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            orders.add(order("o" + i, random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10));
+        }
+
+        List<Order> plan = planner.plan(0, 0, orders, EUCLIDEAN);
+
+        assertEquals(orders.size(), plan.size());
+        assertEquals(new HashSet<>(orders), new HashSet<>(plan));
+        assertTrue(planner.tourLength(0, 0, plan, EUCLIDEAN) <= nearestNeighbourLength(orders) + 1e-9);
+    }
+
+    private double nearestNeighbourLength(List<Order> orders) {
+        List<Order> remaining = new ArrayList<>(orders);
+        List<Order> sequence = new ArrayList<>();
+        double x = 0;
+        double y = 0;
+        while (!remaining.isEmpty()) {
+            Order nearest = remaining.get(0);
+            for (Order order : remaining) {
+                if (Math.hypot(order.getLocationX() - x, order.getLocationY() - y)
+                    < Math.hypot(nearest.getLocationX() - x, nearest.getLocationY() - y)) nearest = order;
+            }
+            sequence.add(nearest);
+            remaining.remove(nearest);
+            x = nearest.getLocationX();
+            y = nearest.getLocationY();
+        }
+        return planner.tourLength(0, 0, sequence, EUCLIDEAN);
+    }
+
+    private Order order(String id, double x, double y) {
+        return Order.builder()
+            .id(id)
+            .locationX(x)
+            .locationY(y)
+            .weight(1.0)
+            .build();
+    }
+}
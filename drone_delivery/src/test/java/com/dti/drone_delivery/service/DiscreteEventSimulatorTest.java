@@ -0,0 +1,156 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.dti.drone_delivery.dto.SimulationScenario;
+import com.dti.drone_delivery.model.Obstacle;
+import com.dti.drone_delivery.repository.DroneRepository;
+import com.dti.drone_delivery.repository.OrderRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DiscreteEventSimulatorTest {
+
+    @Mock
+    private DroneRepository droneRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private FleetStateEngine fleetStateEngine;
+
+    @Mock
+    private ObstacleService obstacleService;
+
+    private DiscreteEventSimulator simulator;
+
+    @BeforeEach
+    void setUp() {
+        GreedyAssignmentStrategy greedyStrategy = new GreedyAssignmentStrategy();
+        DroneKinematics kinematics = new DroneKinematics(new ObstacleRoutePlanner(new ObstacleIndex(), new RouteCache()));
+        AllocationService allocationService = new AllocationService(
+            droneRepository,
+            orderRepository,
+            new ObstacleRoutePlanner(new ObstacleIndex(), new RouteCache()),
+            new KnapsackSolver(),
+            List.of(new GlobalAssignmentStrategy(), greedyStrategy),
+            greedyStrategy,
+            eventPublisher,
+            new PendingOrderBook(),
+            new AllocationWriter(orderRepository, droneRepository, jdbcTemplate),
+            new DeliveryRoutePlanner(),
+            kinematics,
+            fleetStateEngine,
+            SimulationClock.system()
+        );
+        simulator = new DiscreteEventSimulator(allocationService, obstacleService, new ObstacleIndex(), kinematics);
+    }
+
+    @Test
+    void testRun_fullDay_shouldFinishFasterThanRealTime() {
+        SimulationScenario scenario = new SimulationScenario();
+        scenario.setSeed(42L);
+
+        SimulationReport report = simulator.run(scenario);
+
+        assertTrue(report.getWallClockMs() < 60_000, "24h simulado em " + report.getWallClockMs() + " ms");
+        assertTrue(report.getTotalOrders() > 5000);
+        assertTrue(report.getDeliveredOrders() > 0);
+        assertTrue(report.getDroneUtilization() > 0 && report.getDroneUtilization() <= 1.0);
+        assertEquals(report.getTotalOrders() - report.getRejectedOrders(),
+            report.getDeliveredOrders() + report.getPendingOrders());
+    }
+
+    @Test
+    void testRun_sameSeed_shouldReproduceKpis() {
+        SimulationScenario scenario = new SimulationScenario();
+        scenario.setSeed(7L);
+        scenario.setDurationHours(2);
+
+        SimulationReport first = simulator.run(scenario);
+        SimulationReport second = simulator.run(scenario);
+
+        assertEquals(first.getTotalOrders(), second.getTotalOrders());
+        assertEquals(first.getDeliveredOrders(), second.getDeliveredOrders());
+        assertEquals(first.getTotalDistance(), second.getTotalDistance(), 1e-6);
+        assertEquals(first.getEventsProcessed(), second.getEventsProcessed());
+    }
+
+    @Test
+    void testRun_lightLoad_shouldDeliverEverythingAndRecharge() {
+        SimulationScenario scenario = new SimulationScenario();
+        scenario.setSeed(3L);
+        scenario.setDurationHours(4);
+        scenario.setOrdersPerHour(20);
+
+        SimulationReport report = simulator.run(scenario);
+
+        assertTrue(report.getDeliveryRate() > 0.95, "taxa " + report.getDeliveryRate());
+        assertTrue(report.getAverageDeliveryTimeMinutes() > 0);
+        assertTrue(report.getP95DeliveryTimeMinutes() >= report.getAverageDeliveryTimeMinutes());
+        assertTrue(report.getChargeCycles() > 0);
+    }
+
+    @Test
+    void testRun_temporaryZone_shouldFollowVirtualClock() {
+        LocalDateTime dayStart = LocalDate.now().atStartOfDay();
+        Obstacle zone = Obstacle.builder()
+            .id("zona-temporaria")
+            .centerX(0.0)
+            .centerY(0.0)
+            .radius(50.0)
+            .type("TEMPORARY")
+            .activeFrom(dayStart)
+            .activeUntil(dayStart.plusHours(1))
+            .build();
+        when(obstacleService.getAllObstacles()).thenReturn(List.of(zone));
+        SimulationScenario scenario = new SimulationScenario();
+        scenario.setSeed(11L);
+        scenario.setDurationHours(2);
+
+        SimulationReport report = simulator.run(scenario);
+
+        // A zona cobre a área toda na primeira hora virtual e some na segunda
+        assertTrue(report.getRejectedOrders() > 0);
+        assertTrue(report.getRejectedOrders() < report.getTotalOrders());
+        assertTrue(report.getDeliveredOrders() > 0);
+    }
+
+    @Test
+    void testRun_invalidScenario_shouldThrow() {
+        SimulationScenario scenario = new SimulationScenario();
+        scenario.setCruiseSpeed(0);
+
+        assertThrows(RuntimeException.class, () -> simulator.run(scenario));
+    }
+
+    @Test
+    void testVirtualClock_shouldOnlyMoveForward() {
+        VirtualClock clock = new VirtualClock(LocalDateTime.of(2025, 1, 1, 0, 0));
+        clock.advanceTo(90);
+
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 1, 30), clock.now());
+        assertThrows(IllegalStateException.class, () -> clock.advanceTo(10));
+    }
+}
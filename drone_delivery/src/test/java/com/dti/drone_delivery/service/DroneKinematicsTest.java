@@ -0,0 +1,129 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.dto.PositionSample;
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Obstacle;
+
+class DroneKinematicsTest {
+
+    private ObstacleIndex obstacleIndex;
+    private DroneKinematics kinematics;
+
+    @BeforeEach
+    void setUp() {
+        obstacleIndex = new ObstacleIndex();
+        kinematics = new DroneKinematics(new ObstacleRoutePlanner(obstacleIndex, new RouteCache()));
+    }
+
+    @Test
+    void testAdvance_shouldMoveSpeedTimesDt() {
+        Drone drone = drone(1.0);
+
+        DroneKinematics.Step step = kinematics.advance(drone, "order-1", 10.0, 0.0, 0.0, 4.0);
+
+        assertEquals(4.0, step.distance(), 1e-9);
+        assertFalse(step.arrived());
+        assertEquals(4.0, drone.getCurrentX(), 1e-9);
+        assertEquals(0.0, drone.getCurrentY(), 1e-9);
+        // Vazio: 100% / 50 unidades = 2% por unidade
+        assertEquals(92.0, drone.getCurrentBattery(), 1e-9);
+    }
+
+    @Test
+    void testAdvance_shouldStopAtTargetWithoutOvershoot() {
+        Drone drone = drone(1.0);
+
+        DroneKinematics.Step step = kinematics.advance(drone, "order-1", 3.0, 4.0, 0.0, 60.0);
+
+        assertTrue(step.arrived());
+        assertEquals(5.0, step.distance(), 1e-9);
+        assertEquals(3.0, drone.getCurrentX(), 1e-9);
+        assertEquals(4.0, drone.getCurrentY(), 1e-9);
+    }
+
+    @Test
+    void testAdvance_payload_shouldDrainMore() {
+        Drone empty = drone(1.0);
+        Drone loaded = drone(1.0);
+
+        kinematics.advance(empty, "order-1", 10.0, 0.0, 0.0, 5.0);
+        kinematics.advance(loaded, "order-1", 10.0, 0.0, 10.0, 5.0);
+
+        assertEquals(90.0, empty.getCurrentBattery(), 1e-9);
+        // Carga máxima: 30% a mais
+        assertEquals(87.0, loaded.getCurrentBattery(), 1e-9);
+    }
+
+    @Test
+    void testAdvance_obstacleInTheWay_shouldFollowDetour() {
+        obstacleIndex.rebuild(List.of(Obstacle.builder()
+            .id("o-1").name("Torre").centerX(5.0).centerY(0.0).radius(1.0).build()));
+        Drone drone = drone(1.0);
+
+        double flown = 0;
+        DroneKinematics.Step step;
+        do {
+            step = kinematics.advance(drone, "order-1", 10.0, 0.0, 0.0, 0.5);
+            flown += step.distance();
+            assertFalse(Math.hypot(drone.getCurrentX() - 5.0, drone.getCurrentY()) < 1.0);
+        } while (!step.arrived());
+
+        assertEquals(10.0, drone.getCurrentX(), 1e-9);
+        assertTrue(flown > 10.0);
+    }
+
+    @Test
+    void testSample_shouldCarryHeadingAndSpeed() {
+        Drone drone = drone(2.0);
+        drone.setStatus(Drone.DroneStatus.FLYING);
+
+        kinematics.advance(drone, "order-1", 0.0, 10.0, 0.0, 1.0);
+        PositionSample sample = kinematics.sample(drone, 1234L);
+
+        assertEquals(90.0, sample.heading(), 1e-9);
+        assertEquals(2.0, sample.speed(), 1e-9);
+        assertEquals(2.0, sample.y(), 1e-9);
+        assertEquals("FLYING", sample.status());
+        assertEquals(1234L, sample.t());
+
+        kinematics.land(drone.getId());
+
+        assertEquals(0.0, kinematics.sample(drone, 1235L).speed());
+    }
+
+    @Test
+    void testAdvance_sameTargetAfterArrival_shouldReplan() {
+        Drone drone = drone(1.0);
+        kinematics.advance(drone, "base", 0.0, 0.0, 0.0, 1.0);
+        drone.setCurrentX(3.0);
+
+        DroneKinematics.Step step = kinematics.advance(drone, "base", 0.0, 0.0, 0.0, 1.0);
+
+        assertEquals(1.0, step.distance(), 1e-9);
+        assertEquals(2.0, drone.getCurrentX(), 1e-9);
+    }
+
+    private Drone drone(double speed) {
+        return Drone.builder()
+            .id("drone-1")
+            .name("Drone-1")
+            .maxWeight(10.0)
+            .maxDistance(50.0)
+            .batteryCapacity(100.0)
+            .currentBattery(100.0)
+            .status(Drone.DroneStatus.FLYING)
+            .currentX(0.0)
+            .currentY(0.0)
+            .cruiseSpeed(speed)
+            .build();
+    }
+}
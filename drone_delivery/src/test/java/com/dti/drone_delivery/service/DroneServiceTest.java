@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -13,13 +14,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.dti.drone_delivery.dto.DroneResponse;
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
 import com.dti.drone_delivery.model.Drone;
 import com.dti.drone_delivery.repository.DroneRepository;
 
@@ -29,6 +34,12 @@ class DroneServiceTest {
     @Mock
     private DroneRepository droneRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FleetStateEngine fleetStateEngine;
+    
     @InjectMocks
     private DroneService droneService;
     
@@ -114,29 +125,36 @@ class DroneServiceTest {
     @Test
     void testUpdateDroneStatus_shouldUpdateStatus() {
 
-        when(droneRepository.findById("drone-test-1")).thenReturn(Optional.of(drone));
-        when(droneRepository.save(any(Drone.class))).thenReturn(drone);
+        liveDrone();
 
         Drone result = droneService.updateDroneStatus("drone-test-1", Drone.DroneStatus.FLYING);
         
         assertNotNull(result);
         assertEquals(Drone.DroneStatus.FLYING, result.getStatus());
         assertNotNull(result.getLastUpdate());
-        verify(droneRepository).save(drone);
+        verify(eventPublisher).publishEvent(any(DroneStatusChangedEvent.class));
+        verify(droneRepository, never()).save(any(Drone.class));
     }
     
     @Test
     void testRechargeDrone_shouldSetBatteryTo100() {
-        when(droneRepository.findById("drone-test-1")).thenReturn(Optional.of(drone));
-        when(droneRepository.save(any(Drone.class))).thenReturn(drone);
+        drone.setStatus(Drone.DroneStatus.MAINTENANCE);
+        liveDrone();
 
         droneService.rechargeDrone("drone-test-1");
  
         assertEquals(100.0, drone.getCurrentBattery());
         assertEquals(Drone.DroneStatus.IDLE, drone.getStatus());
-        verify(droneRepository).save(drone);
+        verify(droneRepository, never()).save(any(Drone.class));
     }
     
+    @Test
+    void testUpdateDroneStatus_unknownDrone_shouldThrow() {
+        when(fleetStateEngine.update(eq("nope"), any())).thenThrow(new RuntimeException("Drone não encontrado: nope"));
+
+        assertThrows(RuntimeException.class, () -> droneService.updateDroneStatus("nope", Drone.DroneStatus.IDLE));
+    }
+
     @Test
     void testCountByStatus_shouldReturnCount() {
         when(droneRepository.findByStatus(Drone.DroneStatus.IDLE))
@@ -147,4 +165,14 @@ class DroneServiceTest {
         assertEquals(3, count);
         verify(droneRepository).findByStatus(Drone.DroneStatus.IDLE);
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private void liveDrone() {
+        when(fleetStateEngine.update(eq("drone-test-1"), any())).thenAnswer(invocation -> {
+            Drone.DroneStatus previous = drone.getStatus();
+            ((Consumer<Drone>) invocation.getArgument(1)).accept(drone);
+            return previous;
+        });
+        when(fleetStateEngine.drone("drone-test-1")).thenReturn(drone);
+    }
+}
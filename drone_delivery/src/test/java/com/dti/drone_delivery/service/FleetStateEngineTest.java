@@ -0,0 +1,258 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.repository.DroneRepository;
+import com.dti.drone_delivery.repository.OrderRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FleetStateEngineTest {
+
+    @Mock
+    private DroneRepository droneRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private FleetStateWriter fleetStateWriter;
+
+    private final FleetTickExecutor fleetTickExecutor = new FleetTickExecutor(2);
+    private FleetStateEngine engine;
+    private Drone drone;
+
+    @BeforeEach
+    void setUp() {
+        engine = new FleetStateEngine(droneRepository, orderRepository, fleetStateWriter, fleetTickExecutor);
+        drone = Drone.builder()
+            .id("drone-1")
+            .name("Drone Alpha")
+            .maxWeight(10.0)
+            .currentBattery(90.0)
+            .status(Drone.DroneStatus.IDLE)
+            .currentX(0.0)
+            .currentY(0.0)
+            .build();
+        when(droneRepository.findAll()).thenReturn(List.of(drone));
+        when(orderRepository.findByStatus(Order.OrderStatus.ASSIGNED)).thenReturn(List.of());
+        when(orderRepository.findByStatus(Order.OrderStatus.IN_TRANSIT)).thenReturn(List.of());
+        engine.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fleetTickExecutor.shutdown();
+    }
+
+    @Test
+    void testOrderAssigned_shouldAppearInStopsWithoutQuery() {
+        Order second = assigned("order-2", 1);
+        Order first = assigned("order-1", 0);
+
+        engine.onOrderStatusChanged(new OrderStatusChangedEvent(second, Order.OrderStatus.PENDING));
+        engine.onOrderStatusChanged(new OrderStatusChangedEvent(first, Order.OrderStatus.PENDING));
+
+        assertEquals(List.of(first, second), engine.stops("drone-1"));
+        verify(orderRepository, never()).findByAssignedDroneId("drone-1");
+    }
+
+    @Test
+    void testOrderAssignedToLoadingDrone_shouldReloadResequencedRoute() {
+        drone.setStatus(Drone.DroneStatus.LOADING);
+        Order urgent = assigned("urgent", 0);
+        Order kept = assigned("kept", 1);
+        when(orderRepository.findByAssignedDroneId("drone-1")).thenReturn(List.of(kept, urgent));
+
+        engine.onOrderStatusChanged(new OrderStatusChangedEvent(urgent, Order.OrderStatus.PENDING));
+
+        assertEquals(List.of(urgent, kept), engine.stops("drone-1"));
+    }
+
+    @Test
+    void testOrderReleased_shouldLeaveStops() {
+        Order order = assigned("order-1", 0);
+        engine.onOrderStatusChanged(new OrderStatusChangedEvent(order, Order.OrderStatus.PENDING));
+
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setAssignedDroneId(null);
+        engine.onOrderStatusChanged(new OrderStatusChangedEvent(order, Order.OrderStatus.ASSIGNED));
+
+        assertTrue(engine.stops("drone-1").isEmpty());
+    }
+
+    @Test
+    void testExternalStatusChange_shouldMergeIntoLiveDrone() {
+        drone.setCurrentX(7.0);
+        Drone fromDatabase = Drone.builder().id("drone-1").status(Drone.DroneStatus.LOADING)
+            .currentBattery(90.0).currentX(0.0).currentY(0.0).build();
+
+        engine.onDroneStatusChanged(new DroneStatusChangedEvent(fromDatabase, Drone.DroneStatus.IDLE));
+
+        Drone live = engine.drones().get(0);
+        assertEquals(Drone.DroneStatus.LOADING, live.getStatus());
+        assertEquals(7.0, live.getCurrentX());
+    }
+
+    @Test
+    void testExternalStatusChange_duringTick_shouldWaitForDroneStep() throws Exception {
+        CountDownLatch stepStarted = new CountDownLatch(1);
+        CountDownLatch releaseStep = new CountDownLatch(1);
+        AtomicReference<List<Drone.DroneStatus>> seenByStep = new AtomicReference<>();
+        Thread tick = new Thread(() -> seenByStep.set(fleetTickExecutor.tick(engine.drones(), live -> {
+            live.setStatus(Drone.DroneStatus.FLYING);
+            stepStarted.countDown();
+            await(releaseStep);
+            return live.getStatus();
+        })));
+        tick.start();
+        assertTrue(stepStarted.await(5, TimeUnit.SECONDS));
+
+        Drone fromDatabase = Drone.builder().id("drone-1").status(Drone.DroneStatus.MAINTENANCE)
+            .currentBattery(50.0).build();
+        Thread external = new Thread(() ->
+            engine.onDroneStatusChanged(new DroneStatusChangedEvent(fromDatabase, Drone.DroneStatus.IDLE)));
+        external.start();
+        external.join(200);
+
+        // Enquanto o passo do drone roda, a mudança externa fica na fila da partição
+        assertTrue(external.isAlive());
+        assertEquals(Drone.DroneStatus.FLYING, drone.getStatus());
+        assertEquals(90.0, drone.getCurrentBattery());
+
+        releaseStep.countDown();
+        tick.join(5000);
+        external.join(5000);
+
+        assertEquals(List.of(Drone.DroneStatus.FLYING), seenByStep.get());
+        assertEquals(Drone.DroneStatus.MAINTENANCE, drone.getStatus());
+        assertEquals(90.0, drone.getCurrentBattery());
+    }
+
+    @Test
+    void testExternalStatusChange_staleBattery_shouldNotRewindLiveDrone() {
+        // Drone carregando em memória; a linha do banco ainda tem a bateria da última descarga
+        drone.setStatus(Drone.DroneStatus.CHARGING);
+        drone.setCurrentBattery(80.0);
+        Drone fromDatabase = Drone.builder().id("drone-1").status(Drone.DroneStatus.LOADING)
+            .currentBattery(35.0).build();
+
+        engine.onDroneStatusChanged(new DroneStatusChangedEvent(fromDatabase, Drone.DroneStatus.IDLE));
+
+        assertEquals(Drone.DroneStatus.LOADING, drone.getStatus());
+        assertEquals(80.0, drone.getCurrentBattery());
+    }
+
+    @Test
+    void testFlush_shouldBatchDirtyStateOnce() {
+        Order order = assigned("order-1", 0);
+        engine.onOrderStatusChanged(new OrderStatusChangedEvent(order, Order.OrderStatus.PENDING));
+        engine.markDirty(drone);
+        engine.markDirty(drone);
+        engine.completeStop("drone-1", order, LocalDateTime.now());
+
+        engine.flush();
+        engine.flush();
+
+        verify(fleetStateWriter).flush(
+            List.of(FleetStateWriter.DroneState.of(drone, Drone.DroneStatus.IDLE)),
+            List.of(FleetStateWriter.Delivery.of(order)));
+        assertEquals(0, engine.pendingWrites());
+        assertTrue(engine.stops("drone-1").isEmpty());
+    }
+
+    @Test
+    void testFlush_shouldGuardStatusWithLastPersistedOne() {
+        drone.setStatus(Drone.DroneStatus.FLYING);
+        engine.markDirty(drone);
+        engine.flush();
+
+        drone.setStatus(Drone.DroneStatus.DELIVERING);
+        engine.markDirty(drone);
+        engine.flush();
+
+        verify(fleetStateWriter).flush(argThat(states -> states.get(0).expectedStatus() == Drone.DroneStatus.IDLE
+            && states.get(0).status() == Drone.DroneStatus.FLYING), anyList());
+        verify(fleetStateWriter).flush(argThat(states -> states.get(0).expectedStatus() == Drone.DroneStatus.FLYING
+            && states.get(0).status() == Drone.DroneStatus.DELIVERING), anyList());
+    }
+
+    @Test
+    void testFlush_statusRejected_shouldKeepExpectedUntilEventArrives() {
+        when(fleetStateWriter.flush(anyList(), anyList())).thenReturn(List.of("drone-1"), List.of());
+        drone.setStatus(Drone.DroneStatus.MAINTENANCE);
+        engine.markDirty(drone);
+        engine.flush();
+
+        // A alocação tinha trocado para LOADING no banco
+        Drone fromDatabase = Drone.builder().id("drone-1").status(Drone.DroneStatus.LOADING).currentBattery(90.0).build();
+        engine.onDroneStatusChanged(new DroneStatusChangedEvent(fromDatabase, Drone.DroneStatus.IDLE));
+        drone.setStatus(Drone.DroneStatus.FLYING);
+        engine.markDirty(drone);
+        engine.flush();
+
+        verify(fleetStateWriter).flush(argThat(states -> states.get(0).expectedStatus() == Drone.DroneStatus.LOADING
+            && states.get(0).status() == Drone.DroneStatus.FLYING), anyList());
+    }
+
+    @Test
+    void testUpdate_shouldChangeLiveDroneAndMarkDirty() {
+        Drone.DroneStatus previous = engine.update("drone-1", d -> d.setStatus(Drone.DroneStatus.MAINTENANCE));
+
+        assertEquals(Drone.DroneStatus.IDLE, previous);
+        assertEquals(Drone.DroneStatus.MAINTENANCE, engine.drone("drone-1").getStatus());
+        assertEquals(1, engine.pendingWrites());
+        assertThrows(RuntimeException.class, () -> engine.update("drone-x", d -> d.setStatus(Drone.DroneStatus.IDLE)));
+    }
+
+    @Test
+    void testFlush_failure_shouldKeepEntriesForRetry() {
+        engine.markDirty(drone);
+        doThrow(new RuntimeException("banco fora")).when(fleetStateWriter).flush(anyList(), anyList());
+
+        assertThrows(RuntimeException.class, () -> engine.flush());
+
+        assertEquals(1, engine.pendingWrites());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Order assigned(String id, int sequence) {
+        return Order.builder()
+            .id(id)
+            .status(Order.OrderStatus.ASSIGNED)
+            .assignedDroneId("drone-1")
+            .deliverySequence(sequence)
+            .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.repository.DroneRepository;
+import com.dti.drone_delivery.repository.OrderRepository;
+
+@DataJpaTest
+@Import(FleetStateWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class FleetStateWriterTest {
+
+    @Autowired
+    private FleetStateWriter fleetStateWriter;
+
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        droneRepository.deleteAll();
+    }
+
+    @Test
+    void testFlush_shouldWriteDroneTelemetryAndDeliveries() {
+        Drone drone = droneRepository.save(Drone.builder().name("Drone Alpha").maxWeight(10.0).maxDistance(50.0)
+            .batteryCapacity(100.0).status(Drone.DroneStatus.LOADING).build());
+        Order open = orderRepository.save(order("Aberto", drone.getId(), Order.OrderStatus.ASSIGNED));
+        Order cancelled = orderRepository.save(order("Cancelado", drone.getId(), Order.OrderStatus.CANCELLED));
+
+        drone.setStatus(Drone.DroneStatus.FLYING);
+        drone.setCurrentBattery(72.5);
+        drone.setCurrentX(3.0);
+        drone.setCurrentY(-4.0);
+        drone.setLastUpdate(LocalDateTime.now());
+        LocalDateTime deliveredAt = LocalDateTime.now();
+        open.setDeliveredAt(deliveredAt);
+        cancelled.setDeliveredAt(deliveredAt);
+        fleetStateWriter.flush(List.of(FleetStateWriter.DroneState.of(drone, Drone.DroneStatus.LOADING)),
+            List.of(FleetStateWriter.Delivery.of(open), FleetStateWriter.Delivery.of(cancelled)));
+
+        Drone stored = droneRepository.findById(drone.getId()).orElseThrow();
+        assertEquals(Drone.DroneStatus.FLYING, stored.getStatus());
+        assertEquals(72.5, stored.getCurrentBattery());
+        assertEquals(3.0, stored.getCurrentX());
+        assertEquals(-4.0, stored.getCurrentY());
+        assertEquals(Order.OrderStatus.DELIVERED, orderRepository.findById(open.getId()).orElseThrow().getStatus());
+        assertNotNull(orderRepository.findById(open.getId()).orElseThrow().getDeliveredAt());
+        Order stillCancelled = orderRepository.findById(cancelled.getId()).orElseThrow();
+        assertEquals(Order.OrderStatus.CANCELLED, stillCancelled.getStatus());
+        assertNull(stillCancelled.getDeliveredAt());
+    }
+
+    @Test
+    void testFlush_statusChangedInDatabase_shouldNotOverwriteIt() {
+        Drone drone = droneRepository.save(Drone.builder().name("Drone Alpha").maxWeight(10.0).maxDistance(50.0)
+            .batteryCapacity(100.0).currentBattery(90.0).status(Drone.DroneStatus.LOADING).build());
+
+        // O motor ainda acha que o banco tem IDLE: a alocação já trocou para LOADING
+        drone.setStatus(Drone.DroneStatus.MAINTENANCE);
+        drone.setCurrentBattery(88.0);
+        List<String> rejected = fleetStateWriter.flush(
+            List.of(FleetStateWriter.DroneState.of(drone, Drone.DroneStatus.IDLE)), List.of());
+
+        Drone stored = droneRepository.findById(drone.getId()).orElseThrow();
+        assertEquals(List.of(drone.getId()), rejected);
+        assertEquals(Drone.DroneStatus.LOADING, stored.getStatus());
+        assertEquals(88.0, stored.getCurrentBattery());
+    }
+
+    private Order order(String customer, String droneId, Order.OrderStatus status) {
+        return Order.builder()
+            .customerName(customer)
+            .locationX(1.0)
+            .locationY(1.0)
+            .weight(1.0)
+            .priority(Order.Priority.LOW)
+            .status(status)
+            .assignedDroneId(droneId)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.model.Drone;
+
+class FleetTickExecutorTest {
+
+    private final FleetTickExecutor executor = new FleetTickExecutor(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testTick_shouldVisitEveryDroneOnce() {
+        List<Drone> drones = fleet(1000);
+        Map<String, Integer> visits = new ConcurrentHashMap<>();
+
+        List<String> results = executor.tick(drones, drone -> {
+            visits.merge(drone.getId(), 1, Integer::sum);
+            return drone.getId().endsWith("0") ? drone.getId() : null;
+        });
+
+        assertEquals(1000, visits.size());
+        assertTrue(visits.values().stream().allMatch(count -> count == 1));
+        assertEquals(100, results.size());
+        FleetTickExecutor.TickStats stats = executor.getLastTick();
+        assertNotNull(stats);
+        assertEquals(1000, stats.drones());
+        assertEquals(4, stats.partitions());
+    }
+
+    @Test
+    void testTick_sameDrone_shouldAlwaysRunOnSameThread() {
+        List<Drone> drones = fleet(200);
+        Map<String, Set<String>> threads = new ConcurrentHashMap<>();
+
+        for (int i = 0; i < 5; i++) {
+            executor.tick(drones, drone -> {
+                threads.computeIfAbsent(drone.getId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(Thread.currentThread().getName());
+                return null;
+            });
+        }
+
+        assertTrue(threads.values().stream().allMatch(names -> names.size() == 1));
+        long distinct = threads.values().stream().flatMap(Set::stream).distinct().count();
+        assertEquals(4, distinct);
+    }
+
+    @Test
+    void testTick_shouldWaitForAllPartitions() {
+        List<Drone> drones = fleet(40);
+        Set<String> done = ConcurrentHashMap.newKeySet();
+
+        executor.tick(drones, drone -> {
+            sleep(2);
+            done.add(drone.getId());
+            return null;
+        });
+
+        // Barreira: ao retornar, todos os drones já foram processados
+        assertEquals(40, done.size());
+    }
+
+    @Test
+    void testTick_failingDrone_shouldNotStopOthers() {
+        List<Drone> drones = fleet(50);
+        Set<String> done = ConcurrentHashMap.newKeySet();
+
+        executor.tick(drones, drone -> {
+            if (drone.getId().equals("drone-7")) throw new RuntimeException("falha simulada");
+            done.add(drone.getId());
+            return null;
+        });
+
+        assertEquals(49, done.size());
+    }
+
+    @Test
+    void testTick_slowDrones_shouldRunInParallel() {
+        List<Drone> drones = fleet(40);
+
+        executor.tick(drones, drone -> {
+            sleep(10);
+            return null;
+        });
+
+        // Sequencial seriam 400 ms; em 4 partições, ~100 ms mais o desbalanceamento
+        assertTrue(executor.getLastTick().elapsedMs() < 300);
+    }
+
+    @Test
+    void testSubmitTo_shouldRunOnDronePartitionThread() {
+        Drone drone = fleet(1).get(0);
+        Set<String> tickThreads = ConcurrentHashMap.newKeySet();
+        executor.tick(List.of(drone), d -> {
+            tickThreads.add(Thread.currentThread().getName());
+            return null;
+        });
+
+        String submitThread = executor.submitTo(drone.getId(), () -> Thread.currentThread().getName());
+        // Chamado de dentro da partição, roda direto em vez de esperar a própria fila
+        List<String> nested = executor.tick(List.of(drone),
+            d -> executor.submitTo(d.getId(), () -> Thread.currentThread().getName()));
+
+        assertEquals(tickThreads, Set.of(submitThread));
+        assertEquals(List.of(submitThread), nested);
+    }
+
+    private List<Drone> fleet(int size) {
+        List<Drone> drones = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            drones.add(Drone.builder()
+                .id("drone-" + i)
+                .name("Drone-" + i)
+                .status(Drone.DroneStatus.FLYING)
+                .build());
+        }
+        return drones;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+
+class GlobalAssignmentStrategyTest {
+
+    private final GlobalAssignmentStrategy globalStrategy = new GlobalAssignmentStrategy();
+    private final GreedyAssignmentStrategy greedyStrategy = new GreedyAssignmentStrategy();
+
+    private AllocationContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = AllocationContext.builder()
+            .deadlineNanos(System.nanoTime() + 1_000_000_000L)
+            .feasibility((drone, order) -> order.getWeight() <= drone.getMaxWeight())
+            .valueFunction((drone, order) -> order.getWeight())
+            .knapsackSolver(new KnapsackSolver())
+            .build();
+    }
+
+    @Test
+    void testAssign_shouldBeatBatteryOrderedGreedy() {
+        // No guloso o drone grande (mais bateria) leva os dois pacotes de 5 kg
+        // e o de 9 kg fica sem nenhum drone capaz de carregá-lo
+        Drone large = drone("large", 10.0, 100.0);
+        Drone small = drone("small", 5.0, 50.0);
+        List<Order> orders = Arrays.asList(order("a", 9.0), order("b", 5.0), order("c", 5.0));
+
+        Map<String, List<Order>> global = globalStrategy.assign(Arrays.asList(small, large), orders, context);
+        Map<String, List<Order>> greedy = greedyStrategy.assign(Arrays.asList(small, large), orders, context);
+
+        assertEquals(10.0, assignedWeight(greedy), 0.001);
+        assertEquals(14.0, assignedWeight(global), 0.001);
+    }
+
+    @Test
+    void testAssign_shouldNeverExceedCapacityOrDuplicateOrders() {
+        List<Drone> drones = Arrays.asList(drone("d1", 10.0, 90.0), drone("d2", 7.5, 80.0));
+        List<Order> orders = Arrays.asList(
+            order("o1", 4.9), order("o2", 4.9), order("o3", 3.2), order("o4", 2.6), order("o5", 0.8));
+
+        Map<String, List<Order>> result = globalStrategy.assign(drones, orders, context);
+
+        long distinct = result.values().stream().flatMap(List::stream).distinct().count();
+        long total = result.values().stream().mapToLong(List::size).sum();
+        assertEquals(distinct, total);
+        for (Drone drone : drones) {
+            double load = result.getOrDefault(drone.getId(), List.of()).stream().mapToDouble(Order::getWeight).sum();
+            assertTrue(load <= drone.getMaxWeight() + 1e-9);
+        }
+    }
+
+    private double assignedWeight(Map<String, List<Order>> allocation) {
+        return allocation.values().stream().flatMap(List::stream).mapToDouble(Order::getWeight).sum();
+    }
+
+    private Drone drone(String id, double maxWeight, double battery) {
+        return Drone.builder().id(id).name(id).maxWeight(maxWeight).currentBattery(battery).build();
+    }
+
+    private Order order(String id, double weight) {
+        return Order.builder().id(id).weight(weight).priority(Order.Priority.MEDIUM).build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class KnapsackSolverTest {
+
+    private final KnapsackSolver solver = new KnapsackSolver();
+
+    @Test
+    void testSolve_fractionalWeights_shouldNotTruncate() {
+        double[] weights = {4.9, 4.9, 0.8};
+        double[] values = {3.0, 3.0, 1.0};
+
+        int[] result = solver.solve(weights, values, 10.0);
+
+        // 4.9 + 4.9 + 0.8 = 10.6 > 10: só cabem dois itens
+        assertEquals(2, result.length);
+        assertTrue(totalWeight(weights, result) <= 10.0);
+    }
+
+    @Test
+    void testSolve_exact_shouldFindOptimum() {
+        double[] weights = {3.0, 4.0, 5.0, 6.0};
+        double[] values = {2.0, 3.0, 4.0, 5.0};
+
+        int[] result = solver.solve(weights, values, 10.0);
+
+        assertArrayEquals(new int[]{1, 3}, result);
+        assertEquals(KnapsackSolver.Strategy.EXACT, solver.chooseStrategy(weights, values, 10.0));
+    }
+
+    @Test
+    void testSolve_overweightItem_shouldBeIgnored() {
+        int[] result = solver.solve(new double[]{12.0, 3.0}, new double[]{10.0, 1.0}, 10.0);
+
+        assertArrayEquals(new int[]{1}, result);
+    }
+
+    @Test
+    void testSolve_fptas_shouldStayWithinEpsilonOfExact() {
+        Random random = new Random(42);
+        int n = 40;
+        double[] weights = new double[n];
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 0.5 + random.nextDouble() * 4.5;
+            values[i] = 1.0 + random.nextDouble() * 8.0;
+        }
+
+        KnapsackSolver fptas = new KnapsackSolver(0.0001, 1_000_000, 0.1);
+        assertEquals(KnapsackSolver.Strategy.FPTAS, fptas.chooseStrategy(weights, values, 30.0));
+
+        int[] approx = fptas.solve(weights, values, 30.0);
+        int[] exact = solver.solve(weights, values, 30.0);
+
+        assertTrue(totalWeight(weights, approx) <= 30.0);
+        assertTrue(totalValue(values, approx) >= 0.9 * totalValue(values, exact));
+    }
+
+    @Test
+    void testSolve_greedy_shouldRespectCapacity() {
+        double[] weights = {2.0, 3.0, 9.5};
+        double[] values = {2.0, 3.0, 20.0};
+
+        KnapsackSolver greedy = new KnapsackSolver(0.01, 1, 0.1);
+        assertEquals(KnapsackSolver.Strategy.GREEDY, greedy.chooseStrategy(weights, values, 10.0));
+
+        int[] result = greedy.solve(weights, values, 10.0);
+
+        assertArrayEquals(new int[]{2}, result);
+    }
+
+    private double totalWeight(double[] weights, int[] indices) {
+        double sum = 0;
+        for (int i : indices) sum += weights[i];
+        return sum;
+    }
+
+    private double totalValue(double[] values, int[] indices) {
+        double sum = 0;
+        for (int i : indices) sum += values[i];
+        return sum;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentile_shouldStayWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000);
+        }
+
+        assertEquals(50_000_000, histogram.percentile(0.50), 50_000_000 * 0.02);
+        assertEquals(99_000_000, histogram.percentile(0.99), 99_000_000 * 0.02);
+        assertEquals(100_000_000, histogram.max());
+    }
+
+    @Test
+    void testPercentile_shouldCoverWholeRunNotJustRecentSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 10_000; i++) {
+            histogram.record(50_000_000);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            histogram.record(1_000_000);
+        }
+
+        // Um terço das amostras é lenta, mesmo tendo chegado primeiro.
+        assertEquals(50_000_000, histogram.percentile(0.99), 50_000_000 * 0.02);
+        assertEquals(1_000_000, histogram.percentile(0.50), 1_000_000 * 0.02);
+    }
+
+    @Test
+    void testPercentile_emptyHistogram_shouldBeZero() {
+        assertEquals(0, new LatencyHistogram().percentile(0.99));
+    }
+
+    @Test
+    void testIndexOf_shouldBeExactForSmallValues() {
+        for (long v = 0; v < 128; v++) {
+            assertEquals(v, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(v)));
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.dti.drone_delivery.dto.LoadProfile;
+import com.dti.drone_delivery.dto.OrderRequest;
+import com.dti.drone_delivery.model.Order;
+
+@ExtendWith(MockitoExtension.class)
+class LoadGeneratorTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private LoadGenerator loadGenerator;
+
+    @BeforeEach
+    void setUp() {
+        loadGenerator = new LoadGenerator(orderService, new SimulationRandom(42L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        loadGenerator.shutdown();
+    }
+
+    @Test
+    void testSample_hotspot_shouldConcentrateDemand() {
+        LoadProfile profile = new LoadProfile();
+        profile.setHotspots(List.of(new LoadProfile.Hotspot(5.0, -5.0, 0.5, 1.0)));
+        Random random = new Random(1);
+
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < 2000; i++) {
+            OrderRequest request = loadGenerator.sample(profile, random, i);
+            sumX += request.getLocationX();
+            sumY += request.getLocationY();
+            assertTrue(request.getWeight() >= 1.0 && request.getWeight() <= 5.0);
+        }
+
+        assertEquals(5.0, sumX / 2000, 0.1);
+        assertEquals(-5.0, sumY / 2000, 0.1);
+    }
+
+    @Test
+    void testSample_priorityMix_shouldFollowShares() {
+        LoadProfile profile = new LoadProfile();
+        Map<Order.Priority, Double> mix = new EnumMap<>(Order.Priority.class);
+        mix.put(Order.Priority.URGENT, 1.0);
+        mix.put(Order.Priority.LOW, 3.0);
+        profile.setPriorityMix(mix);
+        Random random = new Random(2);
+
+        int urgent = 0;
+        for (int i = 0; i < 4000; i++) {
+            Order.Priority priority = loadGenerator.sample(profile, random, i).getPriority();
+            assertTrue(priority == Order.Priority.URGENT || priority == Order.Priority.LOW);
+            if (priority == Order.Priority.URGENT) urgent++;
+        }
+
+        assertEquals(1000, urgent, 100);
+    }
+
+    @Test
+    void testStart_shouldDriveOrderServiceAtTargetRate() throws InterruptedException {
+        when(orderService.createOrder(any(OrderRequest.class))).thenReturn(new Order());
+        LoadProfile profile = new LoadProfile();
+        profile.setOrdersPerSecond(200);
+        profile.setDurationSeconds(0.5);
+        profile.setSeed(7L);
+
+        loadGenerator.start(profile);
+        waitUntilStopped();
+        LoadGeneratorReport report = loadGenerator.status();
+
+        assertNotNull(report);
+        assertEquals(100, report.getGenerated(), 40);
+        assertEquals(report.getGenerated(), report.getAccepted());
+        assertEquals(0, report.getDropped());
+        assertEquals(7L, report.getSeed());
+        verify(orderService, times((int) report.getGenerated())).createOrder(any(OrderRequest.class));
+    }
+
+    @Test
+    void testStart_rejectedOrders_shouldBeCountedAsFailed() throws InterruptedException {
+        when(orderService.createOrder(any(OrderRequest.class)))
+            .thenThrow(new RuntimeException("Local de entrega dentro de zona de exclusão"));
+        LoadProfile profile = new LoadProfile();
+        profile.setOrdersPerSecond(100);
+        profile.setDurationSeconds(0.2);
+
+        loadGenerator.start(profile);
+        waitUntilStopped();
+        LoadGeneratorReport report = loadGenerator.status();
+
+        assertEquals(0, report.getAccepted());
+        assertEquals(report.getGenerated(), report.getFailed());
+        assertEquals("Local de entrega dentro de zona de exclusão", report.getLastError());
+    }
+
+    @Test
+    void testStop_shouldHaltGeneration() {
+        LoadProfile profile = new LoadProfile();
+        profile.setOrdersPerSecond(50);
+
+        loadGenerator.start(profile);
+        assertTrue(loadGenerator.isRunning());
+        LoadGeneratorReport report = loadGenerator.stop();
+
+        assertTrue(!loadGenerator.isRunning());
+        assertTrue(!report.isRunning());
+    }
+
+    @Test
+    void testStart_invalidHotspotShares_shouldThrow() {
+        LoadProfile profile = new LoadProfile();
+        profile.setHotspots(List.of(
+            new LoadProfile.Hotspot(0, 0, 1, 0.7),
+            new LoadProfile.Hotspot(1, 1, 1, 0.7)));
+
+        assertThrows(RuntimeException.class, () -> loadGenerator.start(profile));
+    }
+
+    private void waitUntilStopped() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (loadGenerator.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
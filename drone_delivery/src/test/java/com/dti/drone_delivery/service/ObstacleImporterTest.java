@@ -0,0 +1,100 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dti.drone_delivery.model.Obstacle;
+import com.dti.drone_delivery.repository.ObstacleRepository;
+
+@DataJpaTest
+@Import(ObstacleImporter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "drone.obstacles.import.batch-size=100"
+})
+class ObstacleImporterTest {
+
+    @Autowired
+    private ObstacleImporter obstacleImporter;
+
+    @Autowired
+    private ObstacleRepository obstacleRepository;
+
+    @AfterEach
+    void tearDown() {
+        obstacleRepository.deleteAll();
+    }
+
+    @Test
+    void testImportCsv_shouldInsertAllRowsAcrossBatches() {
+        StringBuilder csv = new StringBuilder("name,centerX,centerY,radius,type\n");
+        for (int i = 0; i < 1050; i++) {
+            csv.append("Torre ").append(i).append(',').append(i * 0.1).append(",-3.5,1.5,TOWER\n");
+        }
+
+        int imported = obstacleImporter.importStream(stream(csv.toString()), ObstacleImporter.Format.CSV);
+
+        assertEquals(1050, imported);
+        assertEquals(1050, obstacleRepository.count());
+        Obstacle first = obstacleRepository.findAll().stream()
+            .filter(o -> "Torre 0".equals(o.getName())).findFirst().orElseThrow();
+        assertEquals(-3.5, first.getCenterY());
+        assertEquals("TOWER", first.getType());
+    }
+
+    @Test
+    void testImportGeoJson_shouldConvertPointsAndPolygons() {
+        String geoJson = """
+            {"type": "FeatureCollection", "features": [
+              {"type": "Feature", "geometry": {"type": "Point", "coordinates": [10, 20]},
+               "properties": {"name": "Heliponto", "radius": 2.5}},
+              {"type": "Feature", "geometry": {"type": "Polygon",
+               "coordinates": [[[0, 0], [4, 0], [4, 4], [0, 4]]]},
+               "properties": {"name": "Quadra", "type": "RESTRICTED"}}
+            ]}
+            """;
+
+        int imported = obstacleImporter.importStream(stream(geoJson), ObstacleImporter.Format.GEOJSON);
+
+        assertEquals(2, imported);
+        Obstacle block = obstacleRepository.findAll().stream()
+            .filter(o -> "Quadra".equals(o.getName())).findFirst().orElseThrow();
+        assertEquals(2.0, block.getCenterX(), 1e-9);
+        assertEquals(2.0, block.getCenterY(), 1e-9);
+        assertEquals(Math.sqrt(8), block.getRadius(), 1e-9);
+        assertTrue(List.of(0.0, 4.0).stream().allMatch(v -> block.isPointInside(v, v)));
+    }
+
+    @Test
+    void testImportCsv_invalidRow_shouldRollBackWholeFile() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            csv.append("T").append(i).append(',').append(i).append(",0,1\n");
+        }
+        csv.append("Quebrada,1,2,-4\n");
+
+        assertThrows(RuntimeException.class,
+            () -> obstacleImporter.importStream(stream(csv.toString()), ObstacleImporter.Format.CSV));
+        assertEquals(0, obstacleRepository.count());
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.model.Obstacle;
+
+class ObstacleIndexTest {
+
+    @Test
+    void testIntersectsSegment_shouldMatchBruteForce() {
+        Random random = new Random(11);
+        List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            obstacles.add(Obstacle.builder()
+                .id("o" + i)
+                .centerX(random.nextDouble() * 200 - 100)
+                .centerY(random.nextDouble() * 200 - 100)
+                .radius(random.nextDouble() * 4 + 0.1)
+                .build());
+        }
+        ObstacleIndex index = new ObstacleIndex(3.0, 0.5);
+        index.rebuild(obstacles);
+
+        for (int i = 0; i < 2000; i++) {
+            double x1 = random.nextDouble() * 200 - 100;
+            double y1 = random.nextDouble() * 200 - 100;
+            double x2 = x1 + random.nextDouble() * 60 - 30;
+            double y2 = y1 + random.nextDouble() * 60 - 30;
+
+            boolean expected = false;
+            for (Obstacle o : obstacles) {
+                if (ObstacleIndex.distancePointToSegment(o.getCenterX(), o.getCenterY(), x1, y1, x2, y2) <= o.getRadius() + 0.5) {
+                    expected = true;
+                    break;
+                }
+            }
+            assertEquals(expected, index.intersectsSegment(x1, y1, x2, y2),
+                "Segmento (" + x1 + "," + y1 + ")-(" + x2 + "," + y2 + ")");
+        }
+    }
+
+    @Test
+    void testRemove_shouldLeaveOtherObstaclesIndexed() {
+        ObstacleIndex index = new ObstacleIndex(5.0, 0.0);
+        index.add(Obstacle.builder().id("a").centerX(0.0).centerY(0.0).radius(1.0).build());
+        index.add(Obstacle.builder().id("b").centerX(1.0).centerY(0.0).radius(1.0).build());
+
+        index.remove("a");
+
+        assertEquals(1, index.size());
+        assertEquals(true, index.containsPoint(1.5, 0.0));
+        assertEquals(false, index.containsPoint(-0.5, 0.0));
+    }
+
+    @Test
+    void testView_shouldStayOnTheSnapshotItWasTakenFrom() {
+        ObstacleIndex index = new ObstacleIndex(5.0, 0.5);
+        index.add(Obstacle.builder().id("a").centerX(0.0).centerY(0.0).radius(1.0).build());
+        ObstacleIndex.View view = index.view();
+
+        index.add(Obstacle.builder().id("b").centerX(10.0).centerY(0.0).radius(1.0).build());
+
+        assertEquals(index.getVersion() - 1, view.getVersion());
+        assertEquals(false, view.containsPoint(10.0, 0.0));
+        assertEquals(false, view.intersectsSegment(8.0, 0.0, 12.0, 0.0));
+        assertEquals(true, view.intersectsSegment(-2.0, 0.0, 2.0, 0.0));
+        assertEquals(true, index.view().containsPoint(10.0, 0.0));
+    }
+}
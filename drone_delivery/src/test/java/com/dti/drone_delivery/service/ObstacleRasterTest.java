@@ -0,0 +1,70 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.model.Obstacle;
+
+class ObstacleRasterTest {
+
+    private final ObstacleIndex index = new ObstacleIndex();
+    private final ObstacleRaster raster = new ObstacleRaster(index);
+
+    @Test
+    void testContains_shouldMatchExactCircleTest() {
+        Random random = new Random(5);
+        List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            obstacles.add(obstacle("o" + i, random.nextDouble() * 180 - 90, random.nextDouble() * 180 - 90,
+                random.nextDouble() * 5 + 0.2));
+        }
+        index.rebuild(obstacles);
+        raster.rebuild();
+
+        for (int i = 0; i < 20000; i++) {
+            double x = random.nextDouble() * 240 - 120;
+            double y = random.nextDouble() * 240 - 120;
+            boolean expected = obstacles.stream().anyMatch(o -> o.isPointInside(x, y));
+            assertEquals(expected, raster.contains(x, y), "Ponto (" + x + ", " + y + ")");
+        }
+    }
+
+    @Test
+    void testRemove_overlappingObstacles_shouldKeepTheOtherPainted() {
+        Obstacle a = obstacle("a", 0.0, 0.0, 3.0);
+        Obstacle b = obstacle("b", 2.0, 0.0, 3.0);
+        index.add(a);
+        index.add(b);
+        raster.rebuild();
+
+        index.remove("a");
+        raster.remove(a);
+
+        assertTrue(raster.contains(1.0, 0.0));
+        assertTrue(raster.contains(4.5, 0.0));
+        assertFalse(raster.contains(-2.5, 0.0));
+    }
+
+    @Test
+    void testAdd_shouldPaintNewObstacle() {
+        raster.rebuild();
+        Obstacle tower = obstacle("t", 10.0, 10.0, 2.0);
+        index.add(tower);
+        raster.add(tower);
+
+        assertTrue(raster.contains(10.0, 10.0));
+        assertTrue(raster.contains(11.9, 10.0));
+        assertFalse(raster.contains(12.1, 10.0));
+    }
+
+    private Obstacle obstacle(String id, double x, double y, double radius) {
+        return Obstacle.builder().id(id).centerX(x).centerY(y).radius(radius).build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.model.Obstacle;
+
+class ObstacleRoutePlannerTest {
+
+    private final ObstacleIndex index = new ObstacleIndex(5.0, 0.5);
+    private final RouteCache routeCache = new RouteCache(100, 0.1);
+    private final ObstacleRoutePlanner planner = new ObstacleRoutePlanner(index, routeCache);
+
+    @Test
+    void testPlan_clearPath_shouldBeStraightLine() {
+        ObstacleRoutePlanner.Route route = planner.plan(0, 0, 3, 4);
+
+        assertEquals(2, route.points().size());
+        assertEquals(5.0, route.length(), 1e-9);
+    }
+
+    @Test
+    void testPlan_obstacleInTheWay_shouldDetourCloseToTangentPath() {
+        index.add(obstacle("torre", 5.0, 0.0, 1.0));
+
+        ObstacleRoutePlanner.Route route = planner.plan(0, 0, 10, 0);
+
+        assertTrue(route.isReachable());
+        assertLegsClear(route);
+        // Caminho ótimo contínuo: duas tangentes + arco no círculo inflado (raio 1.5)
+        double r = 1.5;
+        double tangent = Math.sqrt(25 - r * r);
+        double arc = r * (Math.PI - 2 * Math.acos(r / 5));
+        double optimal = 2 * tangent + arc;
+        assertTrue(route.length() > 10.0);
+        assertTrue(route.length() <= optimal * 1.05, "Rota " + route.length() + " vs ótimo " + optimal);
+    }
+
+    @Test
+    void testPlan_wallOfObstacles_shouldGoAroundIt() {
+        for (int i = -3; i <= 3; i++) {
+            index.add(obstacle("muro-" + i, 10.0, i * 2.0, 1.5));
+        }
+
+        ObstacleRoutePlanner.Route route = planner.plan(0, 0, 20, 0);
+
+        assertTrue(route.isReachable());
+        assertLegsClear(route);
+        assertTrue(route.points().size() > 2);
+    }
+
+    @Test
+    void testPlan_enclosedDestination_shouldBeUnreachable() {
+        for (int i = 0; i < 10; i++) {
+            double angle = 2 * Math.PI * i / 10;
+            index.add(obstacle("anel-" + i, 20 + 4 * Math.cos(angle), 4 * Math.sin(angle), 2.0));
+        }
+
+        ObstacleRoutePlanner.Route route = planner.plan(0, 0, 20, 0);
+
+        assertFalse(route.isReachable());
+    }
+
+    @Test
+    void testPlan_destinationInClearanceBandBehindObstacle_shouldNotCrossIt() {
+        index.add(obstacle("torre", 5.0, 0.0, 1.0));
+
+        // Fora do corpo (raio 1), mas dentro da folga (1.5), atrás da torre
+        ObstacleRoutePlanner.Route route = planner.plan(0, 0, 6.3, 0);
+
+        assertTrue(route.isReachable());
+        List<double[]> points = route.points();
+        assertTrue(points.size() > 2);
+        for (int i = 1; i < points.size() - 1; i++) {
+            assertFalse(index.intersectsSegment(points.get(i - 1)[0], points.get(i - 1)[1], points.get(i)[0], points.get(i)[1]));
+        }
+        double[] beforeLast = points.get(points.size() - 2);
+        double approach = ObstacleIndex.distancePointToSegment(5.0, 0.0, beforeLast[0], beforeLast[1], 6.3, 0);
+        assertTrue(approach >= 1.3 - 1e-9, "Chegada passa a " + approach + " do centro");
+        assertEquals(6.3, points.get(points.size() - 1)[0], 1e-12);
+    }
+
+    @Test
+    void testPlan_repeatedQuery_shouldHitCacheUntilObstaclesChange() {
+        index.add(obstacle("torre", 5.0, 0.0, 1.0));
+
+        ObstacleRoutePlanner.Route first = planner.plan(0, 0, 10, 0);
+        ObstacleRoutePlanner.Route second = planner.plan(0.02, 0, 10, 0.01);
+
+        assertEquals(1L, routeCache.getStats().get("hits"));
+        assertEquals(0.02, second.points().get(0)[0], 1e-12);
+        assertEquals(first.length(), second.length(), 0.1);
+
+        index.add(obstacle("predio", 5.0, 3.0, 1.0));
+        ObstacleRoutePlanner.Route third = planner.plan(0, 0, 10, 0);
+
+        assertEquals(1L, routeCache.getStats().get("invalidations"));
+        assertLegsClear(third);
+    }
+
+    @Test
+    void testPlan_cachedRouteBlockedAfterReanchoring_shouldFallBackToFreshSearch() {
+        // Quantum grosso de propósito: a origem real cai longe da quantizada
+        RouteCache coarseCache = new RouteCache(100, 4.0);
+        ObstacleRoutePlanner coarsePlanner = new ObstacleRoutePlanner(index, coarseCache);
+        index.add(obstacle("torre", 6.0, 0.0, 1.0));
+        index.add(obstacle("poste", 3.5, -0.2, 0.1));
+
+        ObstacleRoutePlanner.Route cached = coarsePlanner.plan(0, 0, 12, 0);
+        double[] waypoint = cached.points().get(1);
+        assertLegsClear(cached);
+        assertTrue(index.intersectsSegment(1.9, -1.9, waypoint[0], waypoint[1]));
+
+        ObstacleRoutePlanner.Route route = coarsePlanner.plan(1.9, -1.9, 12, 0);
+
+        assertEquals(1L, coarseCache.getStats().get("hits"));
+        assertTrue(route.isReachable());
+        assertEquals(1.9, route.points().get(0)[0], 1e-12);
+        assertLegsClear(route);
+    }
+
+    @Test
+    void testValidateConfig_quantumNotBelowClearance_shouldFail() {
+        ObstacleRoutePlanner misconfigured = new ObstacleRoutePlanner(index, new RouteCache(100, 0.5));
+
+        assertThrows(RuntimeException.class, misconfigured::validateConfig);
+        planner.validateConfig();
+    }
+
+    @Test
+    void testRouteCache_overCapacity_shouldEvictLeastRecentlyUsed() {
+        RouteCache cache = new RouteCache(2, 1.0);
+        ObstacleRoutePlanner.Route route = new ObstacleRoutePlanner.Route(List.of(), 1.0);
+
+        cache.get(0, 0, 1, 0, 0, () -> route);
+        cache.get(0, 0, 2, 0, 0, () -> route);
+        cache.get(0, 0, 1, 0, 0, () -> route);
+        cache.get(0, 0, 3, 0, 0, () -> route);
+        cache.get(0, 0, 1, 0, 0, () -> route);
+
+        assertEquals(2L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+        assertEquals(2, cache.getStats().get("size"));
+    }
+
+    private void assertLegsClear(ObstacleRoutePlanner.Route route) {
+        List<double[]> points = new ArrayList<>(route.points());
+        for (int i = 1; i < points.size(); i++) {
+            assertFalse(index.intersectsSegment(points.get(i - 1)[0], points.get(i - 1)[1], points.get(i)[0], points.get(i)[1]));
+        }
+    }
+
+    private Obstacle obstacle(String id, double x, double y, double radius) {
+        return Obstacle.builder().id(id).centerX(x).centerY(y).radius(radius).build();
+    }
+}
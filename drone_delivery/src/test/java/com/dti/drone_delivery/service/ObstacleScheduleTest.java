@@ -0,0 +1,80 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.model.Obstacle;
+
+class ObstacleScheduleTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private final ObstacleSchedule schedule = new ObstacleSchedule();
+
+    @Test
+    void testRegister_shouldClassifyByWindow() {
+        assertTrue(schedule.register(zone("permanent", null, null), T0));
+        assertTrue(schedule.register(zone("current", T0.minusHours(1), T0.plusHours(1)), T0));
+        assertFalse(schedule.register(zone("future", T0.plusHours(2), T0.plusHours(3)), T0));
+        assertFalse(schedule.register(zone("past", T0.minusHours(3), T0.minusHours(2)), T0));
+
+        assertEquals(1, schedule.pendingCount());
+        assertEquals(T0.plusHours(1), schedule.nextBoundary());
+    }
+
+    @Test
+    void testAdvance_shouldMoveZonesThroughTheirBoundaries() {
+        Obstacle current = zone("current", null, T0.plusHours(1));
+        Obstacle future = zone("future", T0.plusMinutes(30), T0.plusHours(2));
+        Obstacle blink = zone("blink", T0.plusMinutes(10), T0.plusMinutes(20));
+        schedule.register(current, T0);
+        schedule.register(future, T0);
+        schedule.register(blink, T0);
+
+        ObstacleSchedule.Transition first = schedule.advance(T0.plusMinutes(45));
+        // "blink" começou e terminou entre as duas leituras: não aparece
+        assertEquals(List.of(future), first.activated());
+        assertTrue(first.expired().isEmpty());
+
+        ObstacleSchedule.Transition second = schedule.advance(T0.plusHours(3));
+        assertTrue(second.activated().isEmpty());
+        assertEquals(List.of(current, future), second.expired());
+        assertNull(schedule.nextBoundary());
+    }
+
+    @Test
+    void testQueriesAtTime_shouldUseIntervalEnds() {
+        Obstacle closing = zone("closing", null, T0.plusHours(1));
+        Obstacle opening = zone("opening", T0.plusHours(2), T0.plusHours(4));
+        schedule.register(closing, T0);
+        schedule.register(opening, T0);
+
+        assertTrue(schedule.expiredBy(T0.plusMinutes(30)).isEmpty());
+        assertEquals(List.of(closing), schedule.expiredBy(T0.plusHours(1)));
+        assertTrue(schedule.upcomingAt(T0.plusHours(1)).isEmpty());
+        assertEquals(List.of(opening), schedule.upcomingAt(T0.plusHours(3)));
+        assertTrue(schedule.upcomingAt(T0.plusHours(5)).isEmpty());
+    }
+
+    @Test
+    void testUnregister_shouldDropPendingBoundaries() {
+        schedule.register(zone("future", T0.plusHours(1), null), T0);
+
+        schedule.unregister("future");
+
+        assertNull(schedule.nextBoundary());
+        assertTrue(schedule.advance(T0.plusHours(2)).isEmpty());
+    }
+
+    private Obstacle zone(String id, LocalDateTime from, LocalDateTime until) {
+        return Obstacle.builder().id(id).centerX(0.0).centerY(0.0).radius(1.0)
+            .activeFrom(from).activeUntil(until).build();
+    }
+}
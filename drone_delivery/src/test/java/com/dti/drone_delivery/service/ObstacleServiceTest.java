@@ -0,0 +1,221 @@
+package com.dti.drone_delivery.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.dti.drone_delivery.model.Obstacle;
+import com.dti.drone_delivery.repository.ObstacleRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ObstacleServiceTest {
+    
+    @Mock
+    private ObstacleRepository obstacleRepository;
+    
+    @Mock
+    private ObstacleImporter obstacleImporter;
+    
+    private final ObstacleIndex obstacleIndex = new ObstacleIndex();
+    
+    private final ObstacleRaster obstacleRaster = new ObstacleRaster(obstacleIndex);
+    
+    private ObstacleService obstacleService;
+    
+    private Obstacle tower;
+    
+    @BeforeEach
+    void setUp() {
+        obstacleService = new ObstacleService(obstacleRepository, obstacleIndex, obstacleRaster, obstacleImporter, new ObstacleSchedule());
+        tower = Obstacle.builder()
+            .id("obstacle-1")
+            .name("Torre")
+            .centerX(5.0)
+            .centerY(0.0)
+            .radius(1.0)
+            .build();
+        when(obstacleRepository.findAll()).thenReturn(List.of(tower));
+        obstacleService.loadIndex();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        obstacleService.shutdown();
+    }
+    
+    @Test
+    void testHasObstacleBetween_segmentThroughObstacle_shouldBlock() {
+        assertTrue(obstacleService.hasObstacleBetween(0, 0, 10, 0));
+        verify(obstacleRepository, never()).findNearbyObstacles(any(), any());
+    }
+    
+    @Test
+    void testHasObstacleBetween_obstacleBeyondSegmentEnd_shouldNotBlock() {
+        // A reta infinita passa pela torre, mas o segmento termina antes dela
+        assertFalse(obstacleService.hasObstacleBetween(0, 0, 2, 0));
+    }
+    
+    @Test
+    void testHasObstacleBetween_withinClearance_shouldBlock() {
+        // Passa a 1.4 do centro: fora do raio, dentro da folga de 0.5
+        assertTrue(obstacleService.hasObstacleBetween(0, 1.4, 10, 1.4));
+        assertFalse(obstacleService.hasObstacleBetween(0, 1.6, 10, 1.6));
+    }
+    
+    @Test
+    void testCreateObstacle_shouldBeVisibleInIndex() {
+        Obstacle wall = Obstacle.builder().id("obstacle-2").centerX(0.0).centerY(20.0).radius(2.0).build();
+        when(obstacleRepository.save(wall)).thenReturn(wall);
+
+        obstacleService.createObstacle(wall);
+
+        assertTrue(obstacleService.hasObstacleBetween(-10, 20, 10, 20));
+        assertTrue(obstacleService.isPointInObstacle(0.5, 20.5));
+    }
+    
+    @Test
+    void testDeleteObstacle_shouldRemoveFromIndex() {
+        when(obstacleRepository.findById("obstacle-1")).thenReturn(Optional.of(tower));
+
+        obstacleService.deleteObstacle("obstacle-1");
+
+        verify(obstacleRepository).delete(tower);
+        assertFalse(obstacleService.hasObstacleBetween(0, 0, 10, 0));
+        assertFalse(obstacleService.isPointInObstacle(5.0, 0.0));
+    }
+    
+    @Test
+    void testDeleteObstacle_unknownId_shouldThrow() {
+        when(obstacleRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> obstacleService.deleteObstacle("missing"));
+    }
+    
+    @Test
+    void testCreateObstacles_shouldRebuildIndexOnceAfterInsert() {
+        Obstacle wall = Obstacle.builder().id("obstacle-2").centerX(0.0).centerY(20.0).radius(2.0).build();
+        when(obstacleImporter.insertAll(List.of(wall))).thenReturn(List.of(wall));
+        when(obstacleRepository.findAll()).thenReturn(List.of(tower, wall));
+
+        obstacleService.createObstacles(List.of(wall));
+
+        verify(obstacleRepository, never()).save(any());
+        assertTrue(obstacleService.isPointInObstacle(0.0, 20.0));
+        assertTrue(obstacleService.hasObstacleBetween(0, 0, 10, 0));
+    }
+    
+    @Test
+    void testCheckBatch_shouldReturnBlockedIndices() {
+        List<double[]> points = List.of(new double[]{5.0, 0.0}, new double[]{0.0, 0.0}, new double[]{5.5, 0.5});
+        List<double[]> segments = List.of(new double[]{0, 0, 10, 0}, new double[]{0, 5, 10, 5});
+
+        ObstacleService.BatchCheck result = obstacleService.checkBatch(points, segments);
+
+        assertArrayEquals(new int[]{0, 2}, result.blockedPoints());
+        assertArrayEquals(new int[]{0}, result.blockedSegments());
+    }
+    
+    @Test
+    void testCheckBatch_largeInput_shouldMatchSingleChecks() {
+        List<double[]> points = new ArrayList<>();
+        List<double[]> segments = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double x = (i % 100) * 0.1;
+            double y = (i / 100) * 0.05 - 1.0;
+            points.add(new double[]{x, y});
+            segments.add(new double[]{0, y * 3, x, y * 3});
+        }
+
+        ObstacleService.BatchCheck result = obstacleService.checkBatch(points, segments);
+
+        List<Integer> expectedPoints = new ArrayList<>();
+        List<Integer> expectedSegments = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            double[] p = points.get(i);
+            double[] s = segments.get(i);
+            if (obstacleService.isPointInObstacle(p[0], p[1])) expectedPoints.add(i);
+            if (obstacleService.hasObstacleBetween(s[0], s[1], s[2], s[3])) expectedSegments.add(i);
+        }
+        assertArrayEquals(expectedPoints.stream().mapToInt(Integer::intValue).toArray(), result.blockedPoints());
+        assertArrayEquals(expectedSegments.stream().mapToInt(Integer::intValue).toArray(), result.blockedSegments());
+    }
+    
+    @Test
+    void testCheckBatch_malformedPoint_shouldThrow() {
+        assertThrows(RuntimeException.class,
+            () -> obstacleService.checkBatch(List.of(new double[]{1.0}), List.of()));
+    }
+    
+    @Test
+    void testLoadIndex_shouldKeepOnlyActiveZonesHot() {
+        LocalDateTime now = LocalDateTime.now();
+        Obstacle expired = zone("expired", 0.0, 30.0, now.minusHours(2), now.minusHours(1));
+        Obstacle event = zone("event", 0.0, 40.0, now.plusHours(1), now.plusHours(3));
+        when(obstacleRepository.findAll()).thenReturn(List.of(tower, expired, event));
+
+        obstacleService.loadIndex();
+
+        assertFalse(obstacleService.isPointInObstacle(0.0, 30.0));
+        assertFalse(obstacleService.isPointInObstacle(0.0, 40.0));
+        assertTrue(obstacleService.isPointInObstacle(0.0, 40.0, now.plusHours(2)));
+        assertFalse(obstacleService.isPointInObstacle(0.0, 40.0, now.plusHours(4)));
+        assertTrue(obstacleService.hasObstacleBetween(-10, 40, 10, 40, now.plusHours(2)));
+        assertFalse(obstacleService.hasObstacleBetween(-10, 40, 10, 40, now.plusMinutes(30)));
+    }
+    
+    @Test
+    void testHasObstacleBetween_atTime_shouldIgnoreZonesExpiredByThen() {
+        LocalDateTime now = LocalDateTime.now();
+        Obstacle closing = zone("closing", 0.0, 30.0, null, now.plusMinutes(10));
+        when(obstacleRepository.findAll()).thenReturn(List.of(tower, closing));
+
+        obstacleService.loadIndex();
+
+        assertTrue(obstacleService.hasObstacleBetween(-10, 30, 10, 30));
+        assertFalse(obstacleService.hasObstacleBetween(-10, 30, 10, 30, now.plusMinutes(20)));
+    }
+    
+    @Test
+    void testApplyBoundaries_timer_shouldActivateAndExpireZones() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        Obstacle flash = zone("flash", 0.0, 30.0, now.plusNanos(100_000_000), now.plusNanos(600_000_000));
+        when(obstacleRepository.findAll()).thenReturn(List.of(tower, flash));
+        obstacleService.loadIndex();
+        long version = obstacleIndex.getVersion();
+
+        awaitCondition(() -> obstacleService.isPointInObstacle(0.0, 30.0));
+        awaitCondition(() -> !obstacleService.isPointInObstacle(0.0, 30.0));
+
+        assertTrue(obstacleIndex.getVersion() >= version + 2);
+        verify(obstacleRepository, never()).findById(any());
+    }
+    
+    private Obstacle zone(String id, double x, double y, LocalDateTime from, LocalDateTime until) {
+        return Obstacle.builder().id(id).centerX(x).centerY(y).radius(2.0).activeFrom(from).activeUntil(until).build();
+    }
+    
+    private void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("Condição não atingida a tempo");
+            Thread.sleep(10);
+        }
+    }
+}
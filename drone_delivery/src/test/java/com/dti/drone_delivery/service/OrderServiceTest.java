@@ -14,9 +14,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.dti.drone_delivery.dto.OrderRequest;
 import com.dti.drone_delivery.model.Order;
@@ -28,6 +31,15 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Spy
+    private PendingOrderBook pendingOrderBook = new PendingOrderBook();
+    
+    @Mock
+    private ObstacleService obstacleService;
+    
     @InjectMocks
     private OrderService orderService;
     
@@ -67,6 +79,14 @@ class OrderServiceTest {
         verify(orderRepository).save(any(Order.class));
     }
     
+    @Test
+    void testCreateOrder_insideNoFlyZone_shouldBeRejected() {
+        when(obstacleService.isPointInObstacle(15.0, 25.0)).thenReturn(true);
+
+        assertThrows(RuntimeException.class, () -> orderService.createOrder(orderRequest));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
     @Test
     void testGetAllOrders_shouldReturnAllOrders() {
         Order order2 = Order.builder().id("order-test-2").build();
@@ -0,0 +1,122 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.dti.drone_delivery.model.Order;
+
+class PendingOrderBookTest {
+
+    private final PendingOrderBook book = new PendingOrderBook();
+
+    @Test
+    void testFeasibleFor_shouldFilterByWeightAndKeepPriorityFifo() {
+        LocalDateTime now = LocalDateTime.now();
+        book.rebuild(Arrays.asList(
+            order("low-1", 1.0, Order.Priority.LOW, now.minusMinutes(9)),
+            order("high-heavy", 8.0, Order.Priority.HIGH, now.minusMinutes(8)),
+            order("high-2", 3.2, Order.Priority.HIGH, now.minusMinutes(5)),
+            order("high-1", 4.9, Order.Priority.HIGH, now.minusMinutes(7)),
+            order("urgent", 5.0, Order.Priority.URGENT, now)));
+
+        List<String> ids = book.feasibleFor(5.0).stream().map(Order::getId).collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("urgent", "high-1", "high-2", "low-1"), ids);
+    }
+
+    @Test
+    void testFeasibleFor_manyWeightBuckets_shouldMergeInArrivalOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // Pesos embaralhados entre 20 faixas de 0,5 kg
+            orders.add(order("o" + i, (i * 7 % 20) * 0.5 + 0.1, Order.Priority.MEDIUM, now.plusSeconds(i)));
+        }
+        book.rebuild(orders);
+
+        List<Order> feasible = book.feasibleFor(6.3);
+        List<String> expected = orders.stream().filter(o -> o.getWeight() <= 6.3)
+            .map(Order::getId).collect(Collectors.toList());
+
+        assertEquals(expected, feasible.stream().map(Order::getId).collect(Collectors.toList()));
+        assertEquals(orders.stream().map(Order::getId).collect(Collectors.toList()),
+            book.withPriority(Order.Priority.MEDIUM).stream().map(Order::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testUpdate_nonPendingStatus_shouldRemoveOrder() {
+        Order order = order("o1", 2.0, Order.Priority.MEDIUM, LocalDateTime.now());
+        book.add(order);
+        assertTrue(book.contains("o1"));
+
+        order.setStatus(Order.OrderStatus.CANCELLED);
+        book.update(order);
+
+        assertFalse(book.contains("o1"));
+        assertTrue(book.isEmpty());
+    }
+
+    @Test
+    void testAdd_sameOrderTwice_shouldNotDuplicate() {
+        Order order = order("o1", 2.0, Order.Priority.MEDIUM, LocalDateTime.now());
+        book.add(order);
+        book.add(order);
+
+        assertEquals(1, book.size());
+        assertEquals(1, book.snapshot().size());
+    }
+
+    @Test
+    void testReleaseDue_scheduledOrder_shouldStayOutUntilWindowOpens() {
+        LocalDateTime now = LocalDateTime.now();
+        Order later = order("later", 2.0, Order.Priority.MEDIUM, now);
+        later.setScheduledFor(now.plusHours(2));
+        Order soon = order("soon", 2.0, Order.Priority.MEDIUM, now);
+        soon.setScheduledFor(now.plusMinutes(30));
+        book.add(later);
+        book.add(soon);
+
+        assertTrue(book.isEmpty());
+        assertEquals(2, book.scheduledCount());
+        assertTrue(book.contains("soon"));
+        assertEquals(now.plusMinutes(25), book.nextReleaseAt());
+
+        // Liberado 5 minutos (antecedência padrão) antes do início da janela
+        assertEquals(0, book.releaseDue(now.plusMinutes(24)));
+        assertEquals(1, book.releaseDue(now.plusMinutes(25)));
+
+        assertEquals(Arrays.asList("soon"), book.snapshot().stream().map(Order::getId).collect(Collectors.toList()));
+        assertTrue(book.isScheduled("later"));
+        assertEquals(now.plusMinutes(115), book.nextReleaseAt());
+    }
+
+    @Test
+    void testRemove_scheduledOrder_shouldDropFromIndex() {
+        Order order = order("o1", 2.0, Order.Priority.MEDIUM, LocalDateTime.now());
+        order.setScheduledFor(LocalDateTime.now().plusHours(1));
+        book.add(order);
+
+        assertTrue(book.remove("o1"));
+        assertFalse(book.contains("o1"));
+        assertEquals(null, book.nextReleaseAt());
+    }
+
+    private Order order(String id, double weight, Order.Priority priority, LocalDateTime createdAt) {
+        return Order.builder()
+            .id(id)
+            .weight(weight)
+            .priority(priority)
+            .status(Order.OrderStatus.PENDING)
+            .createdAt(createdAt)
+            .build();
+    }
+}
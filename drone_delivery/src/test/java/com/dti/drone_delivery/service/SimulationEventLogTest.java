@@ -0,0 +1,148 @@
+package com.dti.drone_delivery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dti.drone_delivery.event.DroneStatusChangedEvent;
+import com.dti.drone_delivery.event.OrderCreatedEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
+import com.dti.drone_delivery.model.Drone;
+import com.dti.drone_delivery.model.Order;
+import com.dti.drone_delivery.service.SimulationEventLog.DroneTransition;
+import com.dti.drone_delivery.service.SimulationEventLog.Entry;
+import com.dti.drone_delivery.service.SimulationEventLog.OrderArrival;
+import com.dti.drone_delivery.service.SimulationEventLog.OrderTransition;
+
+class SimulationEventLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testEvents_shouldRoundTripThroughFile() throws IOException {
+        Path file = dir.resolve("events.bin");
+        SimulationEventLog eventLog = new SimulationEventLog(file.toString());
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 0, 0, 123_000_000);
+
+        Order order = Order.builder()
+            .id("order-1")
+            .customerName("Cliente")
+            .locationX(3.0)
+            .locationY(-4.5)
+            .weight(2.5)
+            .priority(Order.Priority.URGENT)
+            .status(Order.OrderStatus.PENDING)
+            .createdAt(createdAt)
+            .build();
+        Drone drone = Drone.builder()
+            .id("drone-1")
+            .name("Drone-1")
+            .maxWeight(10.0)
+            .maxDistance(50.0)
+            .batteryCapacity(100.0)
+            .currentBattery(87.5)
+            .status(Drone.DroneStatus.IDLE)
+            .currentX(1.0)
+            .currentY(2.0)
+            .build();
+
+        eventLog.onOrderCreated(new OrderCreatedEvent(order));
+        eventLog.onDroneStatusChanged(new DroneStatusChangedEvent(drone, Drone.DroneStatus.CHARGING));
+        order.setStatus(Order.OrderStatus.ASSIGNED);
+        order.setAssignedDroneId("drone-1");
+        order.setDeliverySequence(1);
+        eventLog.onOrderStatusChanged(new OrderStatusChangedEvent(order, Order.OrderStatus.PENDING));
+        eventLog.close();
+
+        List<Entry> entries = read(file);
+
+        assertEquals(3, entries.size());
+        OrderArrival arrival = assertInstanceOf(OrderArrival.class, entries.get(0));
+        assertEquals("order-1", arrival.orderId());
+        assertEquals(createdAt, arrival.at());
+        assertEquals(-4.5, arrival.y());
+        assertEquals(Order.Priority.URGENT, arrival.priority());
+        assertNull(arrival.scheduledFor());
+
+        DroneTransition transition = assertInstanceOf(DroneTransition.class, entries.get(1));
+        assertEquals(Drone.DroneStatus.IDLE, transition.status());
+        assertEquals(87.5, transition.battery());
+        assertEquals(10.0, transition.maxWeight());
+
+        OrderTransition assigned = assertInstanceOf(OrderTransition.class, entries.get(2));
+        assertEquals(Order.OrderStatus.ASSIGNED, assigned.status());
+        assertEquals("drone-1", assigned.droneId());
+        assertEquals(1, assigned.sequence());
+    }
+
+    @Test
+    void testAppend_afterReopen_shouldWriteHeaderOnce() throws IOException {
+        Path file = dir.resolve("events.bin");
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+        SimulationEventLog first = new SimulationEventLog(file.toString());
+        first.append(new OrderTransition(at, "order-1", Order.OrderStatus.CANCELLED, null, null));
+        first.close();
+        SimulationEventLog second = new SimulationEventLog(file.toString());
+        second.append(new OrderTransition(at.plusSeconds(1), "order-2", Order.OrderStatus.CANCELLED, null, null));
+        second.close();
+
+        List<Entry> entries = read(file);
+
+        assertEquals(2, entries.size());
+        assertEquals("order-2", ((OrderTransition) entries.get(1)).orderId());
+    }
+
+    @Test
+    void testRead_truncatedRecord_shouldKeepCompleteEntries() throws IOException {
+        Path file = dir.resolve("events.bin");
+        SimulationEventLog eventLog = new SimulationEventLog(file.toString());
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 10, 0);
+        eventLog.append(new OrderTransition(at, "order-1", Order.OrderStatus.CANCELLED, null, null));
+        eventLog.append(new OrderTransition(at, "order-2", Order.OrderStatus.CANCELLED, null, null));
+        eventLog.close();
+
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] truncated = java.util.Arrays.copyOf(bytes, bytes.length - 3);
+
+        List<Entry> entries = SimulationEventLog.read(new ByteArrayInputStream(truncated));
+
+        assertEquals(1, entries.size());
+    }
+
+    @Test
+    void testRead_notAnEventLog_shouldFail() {
+        byte[] garbage = "name,x,y,radius\n".getBytes();
+
+        assertThrows(IOException.class, () -> SimulationEventLog.read(new ByteArrayInputStream(garbage)));
+    }
+
+    @Test
+    void testAppend_disabled_shouldNotCreateFile() {
+        SimulationEventLog eventLog = new SimulationEventLog();
+
+        eventLog.append(new OrderTransition(LocalDateTime.now(), "order-1", Order.OrderStatus.CANCELLED, null, null));
+
+        assertTrue(!eventLog.isEnabled());
+    }
+
+    private List<Entry> read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return SimulationEventLog.read(in);
+        }
+    }
+}
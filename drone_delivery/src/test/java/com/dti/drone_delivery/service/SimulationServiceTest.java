@@ -1,23 +1,35 @@
 package com.dti.drone_delivery.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import org.mockito.InjectMocks;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.dti.drone_delivery.dto.PositionSample;
+import com.dti.drone_delivery.event.DronePositionsEvent;
+import com.dti.drone_delivery.event.OrderStatusChangedEvent;
 import com.dti.drone_delivery.model.Drone;
 import com.dti.drone_delivery.model.Order;
 import com.dti.drone_delivery.repository.DroneRepository;
@@ -38,7 +50,28 @@ class SimulationServiceTest {
     @Mock
     private ScheduledExecutorService scheduler;
     
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Spy
+    private PendingOrderBook pendingOrderBook = new PendingOrderBook();
+    
+    @Mock
+    private ObstacleService obstacleService;
+    
+    @Mock
+    private FleetStateWriter fleetStateWriter;
+    
+    @Mock
+    private AllocationWriter allocationWriter;
+    
+    private FleetStateEngine fleetStateEngine;
+    
+    private FleetTickExecutor fleetTickExecutor = new FleetTickExecutor(2);
+    
+    private DroneKinematics kinematics =
+        new DroneKinematics(new ObstacleRoutePlanner(new ObstacleIndex(), new RouteCache()));
+    
     private SimulationService simulationService;
     
     private Drone drone;
@@ -46,6 +79,11 @@ class SimulationServiceTest {
     
     @BeforeEach
     void setUp() {
+        fleetStateEngine = new FleetStateEngine(droneRepository, orderRepository, fleetStateWriter, fleetTickExecutor);
+        simulationService = new SimulationService(droneRepository, orderRepository, eventPublisher,
+            pendingOrderBook, obstacleService, fleetStateEngine, new SimulationRandom(42L), new SimulationEventLog(),
+            fleetTickExecutor, kinematics, SimulationClock.system());
+        
         drone = Drone.builder()
             .id("drone-1")
             .name("Test Drone")
@@ -73,6 +111,11 @@ class SimulationServiceTest {
             .build();
     }
     
+    @AfterEach
+    void tearDown() {
+        fleetTickExecutor.shutdown();
+    }
+    
     @Test
     void testGenerateRandomOrder_withChance_shouldNotThrowException() {
 
@@ -82,6 +125,35 @@ class SimulationServiceTest {
 
     }
     
+    @Test
+    void testGenerateRandomOrder_sameSeed_shouldGenerateSameOrders() {
+        List<Order> first = generateOrders(7L);
+        List<Order> second = generateOrders(7L);
+
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getCustomerName(), second.get(i).getCustomerName());
+            assertEquals(first.get(i).getLocationX(), second.get(i).getLocationX());
+            assertEquals(first.get(i).getWeight(), second.get(i).getWeight());
+            assertEquals(first.get(i).getPriority(), second.get(i).getPriority());
+        }
+    }
+
+    private List<Order> generateOrders(long seed) {
+        List<Order> generated = new ArrayList<>();
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order saved = invocation.getArgument(0);
+            generated.add(saved);
+            return saved;
+        });
+        SimulationService seeded = new SimulationService(droneRepository, orderRepository, eventPublisher,
+            pendingOrderBook, obstacleService, fleetStateEngine, new SimulationRandom(seed), new SimulationEventLog(),
+            fleetTickExecutor, kinematics, SimulationClock.system());
+        for (int i = 0; i < 20; i++) seeded.generateRandomOrder();
+        assertTrue(generated.size() > 0);
+        return generated;
+    }
+    
     @Test
     void testUpdateDroneStates_idleDrone_shouldRemainIdle() {
         Drone idleDrone = Drone.builder()
@@ -95,13 +167,13 @@ class SimulationServiceTest {
             .baseY(0.0)
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(idleDrone));
-        when(droneRepository.save(any(Drone.class))).thenReturn(idleDrone);
+        load(idleDrone);
 
         simulationService.updateDroneStates();
 
         assertEquals(Drone.DroneStatus.IDLE, idleDrone.getStatus());
-        verify(droneRepository).save(idleDrone);
+        assertEquals(0, fleetStateEngine.pendingWrites());
+        verify(fleetStateWriter, never()).flush(anyList(), anyList());
     }
     
     @Test
@@ -115,13 +187,13 @@ class SimulationServiceTest {
             .currentY(0.0)
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(loadingDrone));
-        when(droneRepository.save(any(Drone.class))).thenReturn(loadingDrone);
+        load(loadingDrone);
  
         simulationService.updateDroneStates();
     
         assertEquals(Drone.DroneStatus.FLYING, loadingDrone.getStatus());
-        verify(droneRepository).save(loadingDrone);
+        verify(fleetStateWriter).flush(
+            argThat(states -> states.size() == 1 && states.get(0).status() == Drone.DroneStatus.FLYING), anyList());
     }
     
     @Test
@@ -137,14 +209,13 @@ class SimulationServiceTest {
             .baseY(0.0)
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(flyingDrone));
-        when(droneRepository.save(any(Drone.class))).thenReturn(flyingDrone);
+        load(flyingDrone);
 
         simulationService.updateDroneStates();
 
         assertEquals(Drone.DroneStatus.RETURNING, flyingDrone.getStatus());
         assertTrue(flyingDrone.getCurrentBattery() < 20.0);
-        verify(droneRepository).save(flyingDrone);
+        verify(fleetStateWriter).flush(anyList(), anyList());
     }
     
     @Test
@@ -169,14 +240,17 @@ class SimulationServiceTest {
             .status(Order.OrderStatus.ASSIGNED)
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(flyingDrone));
-        when(orderRepository.findByAssignedDroneId("drone-1")).thenReturn(Arrays.asList(assignedOrder));
-        when(droneRepository.save(any(Drone.class))).thenReturn(flyingDrone);
+        load(flyingDrone, assignedOrder);
 
         simulationService.updateDroneStates();
         
-        assertTrue(flyingDrone.getCurrentBattery() < 50.0);
-        verify(droneRepository).save(flyingDrone);
+        // 0.5 u/s × 3 s = 1.5 unidades rumo a (30, 40), sem carga: 2% por unidade
+        assertEquals(Drone.DroneStatus.FLYING, flyingDrone.getStatus());
+        assertEquals(0.9, flyingDrone.getCurrentX(), 1e-9);
+        assertEquals(1.2, flyingDrone.getCurrentY(), 1e-9);
+        assertEquals(47.0, flyingDrone.getCurrentBattery(), 1e-9);
+        assertEquals(1, fleetStateEngine.pendingWrites());
+        verify(fleetStateWriter, never()).flush(anyList(), anyList());
     }
     
     @Test
@@ -199,18 +273,92 @@ class SimulationServiceTest {
             .assignedDroneId("drone-1")
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(deliveringDrone));
-        when(orderRepository.findByAssignedDroneId("drone-1")).thenReturn(Arrays.asList(pendingOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(pendingOrder);
-        when(droneRepository.save(any(Drone.class))).thenReturn(deliveringDrone);
+        load(deliveringDrone, pendingOrder);
 
         simulationService.updateDroneStates();
 
         assertEquals(Order.OrderStatus.DELIVERED, pendingOrder.getStatus());
         assertNotNull(pendingOrder.getDeliveredAt());
         assertEquals(Drone.DroneStatus.RETURNING, deliveringDrone.getStatus());
-        verify(orderRepository).save(pendingOrder);
-        verify(droneRepository).save(deliveringDrone);
+        verify(fleetStateWriter).flush(anyList(),
+            argThat(deliveries -> deliveries.size() == 1 && deliveries.get(0).orderId().equals("order-1")));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
+    @Test
+    void testUpdateDroneStates_deliveringDroneWithMoreStops_shouldFlyToNextStop() {
+        drone.setStatus(Drone.DroneStatus.DELIVERING);
+        Order first = Order.builder()
+            .id("order-1")
+            .customerName("Primeiro")
+            .locationX(5.0)
+            .locationY(0.0)
+            .status(Order.OrderStatus.ASSIGNED)
+            .assignedDroneId("drone-1")
+            .deliverySequence(0)
+            .build();
+        Order second = Order.builder()
+            .id("order-2")
+            .customerName("Segundo")
+            .locationX(5.0)
+            .locationY(5.0)
+            .status(Order.OrderStatus.ASSIGNED)
+            .assignedDroneId("drone-1")
+            .deliverySequence(1)
+            .build();
+
+        load(drone, second, first);
+
+        simulationService.updateDroneStates();
+
+        assertEquals(Order.OrderStatus.DELIVERED, first.getStatus());
+        assertEquals(Order.OrderStatus.ASSIGNED, second.getStatus());
+        assertEquals(Drone.DroneStatus.FLYING, drone.getStatus());
+
+        // (0, 0) → (5, 5): 7.07 unidades, cobertas em 20 s a 0.5 u/s
+        simulationService.updateDroneStates(20.0);
+
+        assertEquals(5.0, drone.getCurrentX());
+        assertEquals(5.0, drone.getCurrentY());
+        assertEquals(Drone.DroneStatus.DELIVERING, drone.getStatus());
+        assertEquals(85.0 - Math.hypot(5, 5) * 2.0, drone.getCurrentBattery(), 1e-9);
+    }
+    
+    @Test
+    void testUpdateDroneStates_shortTick_shouldAdvanceProportionallyToDt() {
+        drone.setStatus(Drone.DroneStatus.FLYING);
+        order.setStatus(Order.OrderStatus.ASSIGNED);
+        
+        load(drone, order);
+        
+        simulationService.updateDroneStates(1.0);
+        double afterOne = Math.hypot(drone.getCurrentX(), drone.getCurrentY());
+        simulationService.updateDroneStates(2.0);
+        double afterThree = Math.hypot(drone.getCurrentX(), drone.getCurrentY());
+        
+        assertEquals(0.5, afterOne, 1e-9);
+        assertEquals(1.5, afterThree, 1e-9);
+        assertEquals(Drone.DroneStatus.FLYING, drone.getStatus());
+    }
+    
+    @Test
+    void testUpdateDroneStates_shouldPublishPositionSamples() {
+        drone.setStatus(Drone.DroneStatus.FLYING);
+        order.setStatus(Order.OrderStatus.ASSIGNED);
+        
+        load(drone, order);
+        
+        simulationService.updateDroneStates(2.0);
+        
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        DronePositionsEvent positions = (DronePositionsEvent) events.getValue();
+        assertEquals(1, positions.getSamples().size());
+        PositionSample sample = positions.getSamples().get(0);
+        assertEquals("drone-1", sample.id());
+        assertEquals(45.0, sample.heading(), 1e-9);
+        assertEquals(0.5, sample.speed(), 1e-9);
+        assertEquals("FLYING", sample.status());
     }
     
     @Test
@@ -226,13 +374,12 @@ class SimulationServiceTest {
             .baseY(0.0)
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(returningDrone));
-        when(droneRepository.save(any(Drone.class))).thenReturn(returningDrone);
+        load(returningDrone);
         
         simulationService.updateDroneStates();
 
         assertEquals(Drone.DroneStatus.CHARGING, returningDrone.getStatus());
-        verify(droneRepository).save(returningDrone);
+        verify(fleetStateWriter).flush(anyList(), anyList());
     }
     
     @Test
@@ -245,13 +392,13 @@ class SimulationServiceTest {
             .currentBattery(50.0)
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(chargingDrone));
-        when(droneRepository.save(any(Drone.class))).thenReturn(chargingDrone);
+        load(chargingDrone);
 
         simulationService.updateDroneStates();
 
         assertTrue(chargingDrone.getCurrentBattery() > 50.0);
-        verify(droneRepository).save(chargingDrone);
+        assertEquals(1, fleetStateEngine.pendingWrites());
+        verify(fleetStateWriter, never()).flush(anyList(), anyList());
     }
     
     @Test
@@ -263,13 +410,12 @@ class SimulationServiceTest {
             .currentBattery(85.0)
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(chargingDrone));
-        when(droneRepository.save(any(Drone.class))).thenReturn(chargingDrone);
+        load(chargingDrone);
 
         simulationService.updateDroneStates();
 
         assertEquals(Drone.DroneStatus.IDLE, chargingDrone.getStatus());
-        verify(droneRepository).save(chargingDrone);
+        verify(fleetStateWriter).flush(anyList(), anyList());
     }
     
     @Test
@@ -286,13 +432,12 @@ class SimulationServiceTest {
             .baseY(0.0)
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(testDrone));
-        when(droneRepository.save(any(Drone.class))).thenReturn(testDrone);
+        load(testDrone);
 
         simulationService.resetSimulation();
  
         verify(orderRepository).deleteAll();
-        verify(droneRepository).save(testDrone);
+        verify(fleetStateWriter).flush(argThat(states -> states.size() == 1), anyList());
         assertEquals(Drone.DroneStatus.IDLE, testDrone.getStatus());
         assertEquals(100.0, testDrone.getCurrentBattery());
         assertEquals(0.0, testDrone.getCurrentX());
@@ -300,7 +445,7 @@ class SimulationServiceTest {
     }
     
     @Test
-    void testMoveDroneToDestination_withNoAssignedOrders_shouldConsumeBattery() {
+    void testMoveDroneToDestination_withNoAssignedOrders_shouldReturnToBase() {
 
         Drone flyingDrone = Drone.builder()
             .id("drone-1")
@@ -312,13 +457,84 @@ class SimulationServiceTest {
             .baseY(0.0)
             .build();
             
-        when(droneRepository.findAll()).thenReturn(Arrays.asList(flyingDrone));
-        when(orderRepository.findByAssignedDroneId("drone-1")).thenReturn(Arrays.asList());
-        when(droneRepository.save(any(Drone.class))).thenReturn(flyingDrone);
+        load(flyingDrone);
 
         simulationService.updateDroneStates();
 
-        assertTrue(flyingDrone.getCurrentBattery() < 60.0);
-        verify(droneRepository).save(flyingDrone);
+        assertEquals(Drone.DroneStatus.RETURNING, flyingDrone.getStatus());
+        verify(fleetStateWriter).flush(anyList(), anyList());
+    }
+    
+    @Test
+    void testFullPayloadRoundTrip_feasibleForAllocation_shouldCompleteWithoutAbort() {
+        // Carga máxima: 2.6% por unidade na ida, 2% na volta vazio; 4 + 4 unidades
+        // gastam 18.4%, e 29% deixam a reserva de 10% na chegada à base
+        drone.setCurrentBattery(29.0);
+        order.setLocationX(4.0);
+        order.setLocationY(0.0);
+        order.setWeight(10.0);
+        order.setStatus(Order.OrderStatus.ASSIGNED);
+        GreedyAssignmentStrategy greedy = new GreedyAssignmentStrategy();
+        AllocationService allocation = new AllocationService(droneRepository, orderRepository,
+            new ObstacleRoutePlanner(new ObstacleIndex(), new RouteCache()), new KnapsackSolver(), List.of(greedy),
+            greedy, eventPublisher, pendingOrderBook, allocationWriter, new DeliveryRoutePlanner(), kinematics,
+            fleetStateEngine, SimulationClock.system());
+        double roundTrip = allocation.calculateRoundTripDistance(drone, order);
+        assertTrue(allocation.isRouteFeasible(drone, roundTrip, allocation.estimateRoundTripBattery(drone, order, roundTrip)));
+
+        drone.setStatus(Drone.DroneStatus.FLYING);
+        load(drone, order);
+        for (int i = 0; i < 100 && drone.getStatus() != Drone.DroneStatus.CHARGING; i++) {
+            simulationService.updateDroneStates(1.0);
+        }
+
+        assertEquals(Drone.DroneStatus.CHARGING, drone.getStatus());
+        assertEquals(Order.OrderStatus.DELIVERED, order.getStatus());
+        assertTrue(drone.getCurrentBattery() >= kinematics.getBatteryReserve());
+        verify(orderRepository, never()).releaseAssigned(any(), any());
+    }
+    
+    @Test
+    void testUpdateDroneStates_batteryBelowReserveMidFlight_shouldReleaseRemainingStops() {
+        drone.setStatus(Drone.DroneStatus.FLYING);
+        drone.setCurrentBattery(10.5);
+        order.setStatus(Order.OrderStatus.ASSIGNED);
+        order.setDeliverySequence(0);
+        when(orderRepository.releaseAssigned("order-1", "drone-1")).thenReturn(1);
+        load(drone, order);
+
+        simulationService.updateDroneStates(1.0);
+
+        assertEquals(Drone.DroneStatus.RETURNING, drone.getStatus());
+        assertEquals(Order.OrderStatus.PENDING, order.getStatus());
+        assertEquals(null, order.getAssignedDroneId());
+        verify(pendingOrderBook).add(order);
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().anyMatch(event -> event instanceof OrderStatusChangedEvent released
+            && released.getOrder() == order && released.getPreviousStatus() == Order.OrderStatus.ASSIGNED));
+    }
+    
+    @Test
+    void testUpdateDroneStates_shouldStampTimesFromInjectedClock() {
+        LocalDateTime fixed = LocalDateTime.of(2026, 1, 1, 12, 0);
+        SimulationService clocked = new SimulationService(droneRepository, orderRepository, eventPublisher,
+            pendingOrderBook, obstacleService, fleetStateEngine, new SimulationRandom(42L), new SimulationEventLog(),
+            fleetTickExecutor, kinematics, () -> fixed);
+        drone.setStatus(Drone.DroneStatus.DELIVERING);
+        order.setStatus(Order.OrderStatus.ASSIGNED);
+        load(drone, order);
+
+        clocked.updateDroneStates(1.0);
+
+        assertEquals(fixed, order.getDeliveredAt());
+        assertEquals(fixed, drone.getLastUpdate());
+    }
+    
+    private void load(Drone fleetDrone, Order... assigned) {
+        when(droneRepository.findAll()).thenReturn(List.of(fleetDrone));
+        when(orderRepository.findByStatus(Order.OrderStatus.ASSIGNED)).thenReturn(Arrays.asList(assigned));
+        when(orderRepository.findByStatus(Order.OrderStatus.IN_TRANSIT)).thenReturn(List.of());
+        fleetStateEngine.load();
     }
-}
\ No newline at end of file
+}